@@ -4,8 +4,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import kr.cs.interdata.api_backend.dto.EdgeThresholdAlert;
+import kr.cs.interdata.api_backend.dto.MetricBatchResult;
 import kr.cs.interdata.api_backend.service.MetricService;
+import kr.cs.interdata.api_backend.service.ThresholdService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,10 +19,12 @@ import org.springframework.web.bind.annotation.*;
 public class MetricController {
 
     private final MetricService metricService;
+    private final ThresholdService thresholdService;
 
     @Autowired
-    public MetricController(MetricService metricService) {
+    public MetricController(MetricService metricService, ThresholdService thresholdService) {
         this.metricService = metricService;
+        this.thresholdService = thresholdService;
     }
 
 
@@ -79,5 +86,55 @@ public class MetricController {
         return ResponseEntity.ok().build();
     }
 
+    @Operation( summary = "metric batch 수신", description = "consumer가 한 번에 poll한 메트릭을 모아 한 요청으로 전달할 때 호출되는 API 엔드포인트입니다. " +
+            "본문은 NDJSON(application/x-ndjson, 한 줄에 메트릭 1개) 또는 JSON 배열(application/json)이며, Content-Encoding: gzip으로 압축할 수 있습니다. " +
+            "각 메트릭은 /api/metrics와 같은 경로로 처리하며, 개별 메트릭의 처리 실패는 응답의 failed 수로 알려줍니다.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "성공 (수신/성공/실패 메트릭 수)"),
+                    @ApiResponse(responseCode = "400", description = "본문 파싱 실패 또는 최대 메트릭 수 초과 (같은 본문은 재전송하지 않고, consumer가 나눠 보내 거부된 메트릭만 골라냄)")
+            }
+    )
+    @PostMapping(value = "/metrics/batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<MetricBatchResult> sendMetricBatch(
+            @RequestBody byte[] body,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) {
+        boolean gzip = "gzip".equalsIgnoreCase(contentEncoding);
+        try {
+            return ResponseEntity.ok(metricService.sendMetricBatch(body, gzip));
+        } catch (MetricService.InvalidJsonException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation( summary = "임계값 위반 알림 수신", description = "collector가 직접 임계값을 평가해 alert 토픽으로 보낸 위반을 consumer가 전달할 때 호출되는 API 엔드포인트입니다. " +
+            "임계값을 다시 평가하지 않고 바로 이상 로그로 저장하고 SSE로 알립니다.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "임계값 위반 알림",
+                    content = @Content(mediaType = "application/json",
+                            examples = @ExampleObject(
+                                    name = "Threshold Alert Example",
+                                    value = "{\n" +
+                                            "  \"type\": \"host\",\n" +
+                                            "  \"machineId\": \"host ID\",\n" +
+                                            "  \"machineName\": \"host name\",\n" +
+                                            "  \"metricName\": \"cpu\",\n" +
+                                            "  \"value\": \"93.5\",\n" +
+                                            "  \"threshold\": \"80.0\",\n" +
+                                            "  \"direction\": \"over\",\n" +
+                                            "  \"timestamp\": \"yyyy-mm-dd'T'HH:MM:SS\"\n" +
+                                            "}"
+                            )
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "성공 (별도의 본문 없음)")
+            }
+    )
+    @PostMapping("/metrics/alerts")
+    public ResponseEntity<Void> receiveThresholdAlert(@RequestBody EdgeThresholdAlert alert) {
+        thresholdService.storeEdgeThresholdAlert(alert);
+        return ResponseEntity.ok().build();
+    }
+
 
 }
@@ -0,0 +1,14 @@
+package kr.cs.interdata.api_backend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * collector가 직접 임계값을 평가해 alert 토픽으로 보낸 위반 정보 (consumer가 POST /api/metrics/alerts로 전달)
+ */
+@Getter
+@Setter
+public class EdgeThresholdAlert extends StoreThresholdViolated {
+
+    private String direction;   // "over": 임계 초과, "under": 임계 미달
+}
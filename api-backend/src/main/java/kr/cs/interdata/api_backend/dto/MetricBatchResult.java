@@ -0,0 +1,22 @@
+package kr.cs.interdata.api_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * [메트릭 배치 수신 결과 DTO]
+ * - POST /api/metrics/batch 응답 본문
+ * - 처리 중 실패한 메트릭은 로그만 남기고 배치의 나머지는 계속 처리하므로, consumer는 failed가 있어도 재전송하지 않는다.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MetricBatchResult {
+
+    private int received;   // 본문에서 읽은 메트릭 수
+    private int processed;  // 처리에 성공한 메트릭 수
+    private int failed;     // 처리 중 예외가 발생한 메트릭 수
+}
@@ -0,0 +1,111 @@
+package kr.cs.interdata.api_backend.infra;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import kr.cs.interdata.metricsmodel.MetricFields;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *  호스트별로 지표 그룹(cpu, memory, disk, network, temperature)의 마지막 값을 저장하는 class
+ *
+ *  collector는 그룹마다 수집 주기가 달라서(예: disk 5초, temperature 60초) 호스트 메트릭에 이번 주기에 수집한 그룹만 싣는다.
+ *  빠진 그룹은 이 store에 있는 마지막 값으로 채워 항상 전체 필드를 가진 메트릭으로 합치고,
+ *  채운 그룹 이름은 "carriedGroups" 배열에 적어 임계값 평가에서 같은 값을 다시 평가하지 않도록 한다.
+ *  (ex) {"cpuUsagePercent": 12.5, "memoryUsedBytes": ..., "diskReadBytesDelta": 1024, ..., "carriedGroups": ["disk", "temperature"]}
+ */
+@Component
+public class HostMetricGroupStore {
+
+    // 채운 그룹 이름을 적는 필드
+    public static final String CARRIED_GROUPS = "carriedGroups";
+
+    // 그룹 이름과 그룹에 속한 필드 (collector의 MetricGroup과 같은 이름, carriedGroups도 이 순서)
+    private static final List<Group> GROUPS = List.of(
+            new Group("cpu", MetricFields.CPU_USAGE_PERCENT),
+            new Group("memory", MetricFields.MEMORY_USED_BYTES),
+            new Group("disk", MetricFields.DISK_READ_BYTES_DELTA, MetricFields.DISK_WRITE_BYTES_DELTA),
+            new Group("network", MetricFields.NETWORK_DELTA),
+            new Group("temperature", MetricFields.TEMPERATURES)
+    );
+
+    // 호스트 ID → 그룹 이름 → 마지막으로 수신한 그룹 값 (필드 이름 → 값)
+    private final Map<String, Map<String, ObjectNode>> lastGroups = new ConcurrentHashMap<>();
+
+    /**
+     * 호스트 메트릭의 빠진 그룹을 마지막 값으로 채우고, 실린 그룹은 마지막 값으로 저장한다.
+     * 컨테이너 전용 레코드("containers")나 객체가 아닌 노드는 그대로 둔다.
+     *
+     * @param metricsNode 수신한 메트릭 데이터(JSON Node), 채운 값과 carriedGroups가 직접 추가된다
+     */
+    public void mergeMissingGroups(JsonNode metricsNode) {
+        if (!(metricsNode instanceof ObjectNode host) || MetricFields.TYPE_CONTAINERS.equals(host.path(MetricFields.TYPE).asText())) {
+            return;
+        }
+        String hostId = host.path(MetricFields.HOST_ID).asText();
+        Map<String, ObjectNode> groups = lastGroups.computeIfAbsent(hostId, k -> new ConcurrentHashMap<>());
+
+        ArrayNode carried = null;
+        for (Group group : GROUPS) {
+            String[] fields = group.fields();
+            if (hasAll(host, fields)) {
+                // 이번 메트릭에 실린 그룹 → 마지막 값 갱신
+                ObjectNode values = host.objectNode();
+                for (String field : fields) {
+                    values.set(field, host.get(field).deepCopy());
+                }
+                groups.put(group.name(), values);
+                continue;
+            }
+            ObjectNode last = groups.get(group.name());
+            if (last == null) {
+                // 한 번도 받지 못한 그룹은 채우지 않음
+                continue;
+            }
+            for (String field : fields) {
+                host.set(field, last.get(field).deepCopy());
+            }
+            if (carried == null) {
+                carried = host.putArray(CARRIED_GROUPS);
+            }
+            carried.add(group.name());
+        }
+    }
+
+    /**
+     * 메트릭에서 이 그룹의 값이 이전 값으로 채워진 것인지 확인한다.
+     *
+     * @param metricsNode 메트릭 데이터(JSON Node)
+     * @param group       그룹 이름 (예: "disk")
+     * @return true - 이번 메트릭에 실리지 않아 마지막 값으로 채운 그룹
+     */
+    public static boolean isCarried(JsonNode metricsNode, String group) {
+        JsonNode carried = metricsNode.path(CARRIED_GROUPS);
+        if (!carried.isArray()) {
+            return false;
+        }
+        for (JsonNode name : carried) {
+            if (group.equals(name.asText())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAll(ObjectNode node, String[] fields) {
+        for (String field : fields) {
+            JsonNode value = node.get(field);
+            if (value == null || value.isNull()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Group(String name, String... fields) {
+    }
+}
@@ -3,6 +3,7 @@ package kr.cs.interdata.api_backend.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.benmanes.caffeine.cache.Cache;
 import kr.cs.interdata.api_backend.infra.cache.MachineMetricTimestamp;
+import kr.cs.interdata.metricsmodel.MetricFields;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -57,21 +58,27 @@ public class MetricMonitorService {
 
     @Async
     public void updateTimestamps(JsonNode metricsNode) {
-        String type = metricsNode.get("type").asText(); // "host"
-        String hostId = metricsNode.get("hostId").asText();
-        String hostName = metricsNode.get("name").asText();
+        String type = metricsNode.get(MetricFields.TYPE).asText(); // "host" 또는 "containers"
+        String hostId = metricsNode.get(MetricFields.HOST_ID).asText();
+        String hostName = metricsNode.get(MetricFields.NAME).asText();
 
-        // 1. 호스트
-        updateMetricTimestampWithNameKey(type, hostId, hostName, null);
+        // 1. 호스트 (컨테이너 전용 레코드는 호스트 수신 시각을 갱신하지 않음)
+        if (!MetricFields.TYPE_CONTAINERS.equals(type)) {
+            updateMetricTimestampWithNameKey(type, hostId, hostName, null);
+        }
 
         // 2. 컨테이너
-        JsonNode containersNode = metricsNode.get("containers");
+        JsonNode containersNode = metricsNode.get(MetricFields.CONTAINERS);
         if (containersNode != null && containersNode.isObject()) {
             Iterator<String> fieldNames = containersNode.fieldNames();
             while (fieldNames.hasNext()) {
                 String containerId = fieldNames.next();
                 JsonNode containerNode = containersNode.get(containerId);
-                String containerName = containerNode.get("name").asText();
+                // stale(직전 값 재전송)인 컨테이너는 수신 시각을 갱신하지 않음 → 계속 stale이면 timeout으로 감지
+                if (containerNode.path(MetricFields.STALE).asBoolean(false)) {
+                    continue;
+                }
+                String containerName = containerNode.get(MetricFields.NAME).asText();
                 updateMetricTimestampWithNameKey("container", containerId, containerName, hostName);
             }
         }
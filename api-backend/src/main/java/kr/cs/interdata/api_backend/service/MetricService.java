@@ -1,38 +1,61 @@
 package kr.cs.interdata.api_backend.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import kr.cs.interdata.api_backend.dto.MetricBatchResult;
+import kr.cs.interdata.api_backend.infra.HostMetricGroupStore;
 import kr.cs.interdata.api_backend.infra.websocket.MetricWebsocketSender;
 import kr.cs.interdata.api_backend.service.repository_service.MachineInventoryService;
+import kr.cs.interdata.metricsmodel.MetricFields;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
 /**
  * MetricService는 Kafka Consumer로부터 수신된 메트릭 데이터를 처리하는 서비스입니다.
+ * - 일부 지표 그룹만 실린 호스트 메트릭을 마지막 값과 합침
  * - 웹소켓으로 클라이언트에 전송
  * - 임계값(Threshold) 초과 여부 계산
  * - 수신된 메트릭 로그 출력
+ * - consumer가 모아 보낸 메트릭 배치(NDJSON / JSON 배열, gzip 가능)를 한 요청으로 처리
  */
 @Service
 public class MetricService {
 
     private final Logger logger = LoggerFactory.getLogger(MetricService.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectReader nodeReader = objectMapper.readerFor(JsonNode.class);
+
+    // 배치 요청 1회에 받을 수 있는 최대 메트릭 수 (consumer의 chunk보다 크게 설정)
+    @Value("${METRIC_BATCH_MAX_RECORDS:5000}")
+    private int batchMaxRecords;
 
     private final ThresholdService thresholdService;
     private final MetricWebsocketSender metricWebsocketSender;
     private final MachineInventoryService machineInventoryService;
     private final MetricMonitorService metricMonitorService;
+    private final HostMetricGroupStore hostMetricGroupStore;
 
     public MetricService(ThresholdService thresholdService,
                          MetricWebsocketSender metricWebsocketSender,
                          MachineInventoryService machineInventoryService,
-                         MetricMonitorService metricMonitorService) {
+                         MetricMonitorService metricMonitorService,
+                         HostMetricGroupStore hostMetricGroupStore) {
         this.thresholdService = thresholdService;
         this.metricWebsocketSender = metricWebsocketSender;
         this.machineInventoryService = machineInventoryService;
         this.metricMonitorService = metricMonitorService;
+        this.hostMetricGroupStore = hostMetricGroupStore;
     }
 
     /**
@@ -45,22 +68,83 @@ public class MetricService {
      * @param metric JSON 문자열 형태의 메트릭 데이터
      */
     public void sendMetric(String metric) {
-        JsonNode metricsNode = parseJson(metric);
+        sendMetric(parseJson(metric));
+    }
+
+    /**
+     * 파싱된 메트릭 데이터를 처리합니다.
+     * 웹소켓 전송, 인벤토리 등록, 캐시 갱신, 임계값 계산이 같은 JsonNode를 공유하므로 다시 파싱하지 않습니다.
+     *
+     * @param metricsNode 메트릭 데이터(JSON Node)
+     */
+    public void sendMetric(JsonNode metricsNode) {
+        // 0. 이번 주기에 수집되지 않은 호스트 지표 그룹을 마지막 값으로 채움 (carriedGroups에 기록)
+        hostMetricGroupStore.mergeMissingGroups(metricsNode);
 
         // 1. 실시간 웹소켓 전송
         metricWebsocketSender.handleMessage(metricsNode);
 
         // 2. Inventory 등록
-        machineInventoryService.registerMachineIfAbsent(metric);
+        machineInventoryService.registerMachineIfAbsent(metricsNode);
 
         // 3. 캐시 갱신: 호스트 + 모든 컨테이너
         metricMonitorService.updateTimestamps(metricsNode);
 
         // 4. 임계값 초과 및 미달 확인
-        thresholdService.calcThreshold(metric);
+        thresholdService.calcThreshold(metricsNode);
 
         // 5. 로그 출력
-        logger.info("Metrics sent to Websocket: {}", metric);
+        logger.info("Metrics sent to Websocket: {}", metricsNode);
+    }
+
+    /**
+     * consumer가 모아 보낸 메트릭 배치를 처리합니다.
+     * 본문은 NDJSON(한 줄에 메트릭 1개) 또는 JSON 배열이며, gzip으로 압축되어 있을 수 있습니다.
+     * 1. 본문 전체를 먼저 파싱 (형식이 잘못되면 아무것도 처리하지 않고 예외)
+     * 2. 메트릭마다 sendMetric(JsonNode)와 같은 경로로 처리 (한 메트릭이 실패해도 나머지는 계속 처리)
+     *
+     * @param body 요청 본문
+     * @param gzip Content-Encoding이 gzip이면 true
+     * @return 수신/성공/실패 메트릭 수
+     */
+    public MetricBatchResult sendMetricBatch(byte[] body, boolean gzip) {
+        List<JsonNode> metrics = parseBatch(body, gzip);
+
+        int failed = 0;
+        for (JsonNode metricsNode : metrics) {
+            try {
+                sendMetric(metricsNode);
+            } catch (RuntimeException e) {
+                failed++;
+                logger.warn("배치 메트릭 처리 실패 - hostId: {}, 원인: {}", metricsNode.path(MetricFields.HOST_ID).asText(), e.toString());
+            }
+        }
+        logger.info("Metric batch processed: received={}, failed={}", metrics.size(), failed);
+        return new MetricBatchResult(metrics.size(), metrics.size() - failed, failed);
+    }
+
+    /**
+     * 배치 본문을 메트릭 목록으로 파싱합니다.
+     * readValues는 최상위가 배열이면 배열의 원소를, 아니면 줄바꿈(공백)으로 구분된 값을 차례로 읽으므로 NDJSON과 JSON 배열을 같은 코드로 처리합니다.
+     */
+    private List<JsonNode> parseBatch(byte[] body, boolean gzip) {
+        List<JsonNode> metrics = new ArrayList<>();
+        try (InputStream in = gzip
+                     ? new GZIPInputStream(new ByteArrayInputStream(body))
+                     : new ByteArrayInputStream(body);
+             MappingIterator<JsonNode> values = nodeReader.readValues(in)) {
+            while (values.hasNextValue()) {
+                if (metrics.size() >= batchMaxRecords) {
+                    logger.warn("메트릭 배치가 최대 {}개를 넘어 거절합니다.", batchMaxRecords);
+                    throw new InvalidJsonException("메트릭 배치가 최대 " + batchMaxRecords + "개를 넘습니다", null);
+                }
+                metrics.add(values.nextValue());
+            }
+        } catch (IOException e) {
+            logger.warn("메트릭 배치 파싱 실패 (gzip: {}, {} bytes): {}", gzip, body.length, e.getMessage());
+            throw new InvalidJsonException("메트릭 배치 파싱 실패", e);
+        }
+        return metrics;
     }
 
     /**
@@ -13,13 +13,16 @@ import jakarta.annotation.PreDestroy;
 import kr.cs.interdata.api_backend.dto.*;
 import kr.cs.interdata.api_backend.dto.abnormal_log_dto.*;
 import kr.cs.interdata.api_backend.entity.AbnormalMetricLog;
+import kr.cs.interdata.api_backend.infra.HostMetricGroupStore;
 import kr.cs.interdata.api_backend.infra.ThresholdStore;
 import kr.cs.interdata.api_backend.service.repository_service.AbnormalDetectionService;
 import kr.cs.interdata.api_backend.service.repository_service.ContainerInventoryService;
 import kr.cs.interdata.api_backend.service.repository_service.MonitoringDefinitionService;
+import kr.cs.interdata.metricsmodel.MetricFields;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -41,6 +44,11 @@ public class ThresholdService {
     private final ContainerInventoryService containerInventoryService;
     private final ThresholdStore thresholdStore;
 
+    // collector window 집계 payload(window 필드)에서 임계값과 비교할 통계 (max | mean)
+    // max는 발행 주기 사이의 짧은 spike까지 잡고, mean은 window 길이로 1회 수집한 값과 같다
+    @Value("${THRESHOLD_WINDOW_STATISTIC:max}")
+    private String windowStatistic;
+
 
     @Autowired
     public ThresholdService(ThresholdStore thresholdStore,
@@ -397,6 +405,26 @@ public class ThresholdService {
 
     }
 
+    /*
+     *  - collector가 직접 임계값을 평가해 보낸 위반 알림을 처리하는 메서드
+     *    collector가 비교한 임계값을 그대로 기록하며, direction에 따라 초과/미달 로그로 저장한다.
+     *
+     * @param dto
+     *        - StoreThresholdViolated의 필드와 같음
+     *        - direction       : "over"(임계 초과) 또는 "under"(임계 미달)
+     */
+    public void storeEdgeThresholdAlert(EdgeThresholdAlert dto) {
+        logger.warn("임계값 {} (collector): {} | {} | {} -> {} = {} (임계값: {})",
+                "under".equals(dto.getDirection()) ? "미달" : "초과",
+                dto.getType(), dto.getMachineId(), dto.getMachineName(), dto.getMetricName(), dto.getValue(), dto.getThreshold());
+
+        if ("under".equals(dto.getDirection())) {
+            storeThresholdDeceededLog(dto);
+        } else {
+            storeThresholdExceededLog(dto);
+        }
+    }
+
 
     // ------- 3-2. Special Events -------
     /**
@@ -685,24 +713,38 @@ public class ThresholdService {
      */
     @Async
     public void calcThreshold(String metric) {
-        JsonNode root = parseJson(metric);
-
-        String type = root.path("type").asText();       // "host"
-        String hostId = root.path("hostId").asText();   // host id
-        String hostName = root.path("name").asText();   // host name
-        String violationTime = root.path("timeStamp").asText(); // timestamp
-
-        // 1. Host 자체 메트릭 처리
-        processMetricAnomaly(
-                type,                  // "host"
-                hostId,                // host id
-                hostName,                  // hostName
-                LocalDateTime.parse(violationTime),
-                root                   // 전체 JSON에서 host 메트릭은 root 자체
-        );
+        calcThreshold(parseJson(metric));
+    }
+
+    /**
+     * - 이미 파싱(또는 바이너리 디코딩)된 메트릭 데이터로 비동기 임계값 평가 실행
+     * - type "host"      : 호스트 메트릭 (+ 함께 실린 컨테이너)
+     * - type "containers": collector split 모드의 컨테이너 전용 레코드 (호스트 메트릭 없음)
+     * @param root 메트릭 데이터(JSON Node)
+     */
+    @Async
+    public void calcThreshold(JsonNode root) {
+        String type = root.path(MetricFields.TYPE).asText();       // "host" 또는 "containers"
+        String hostId = root.path(MetricFields.HOST_ID).asText();   // host id
+        String hostName = root.path(MetricFields.NAME).asText();   // host name
+        String violationTime = root.path(MetricFields.TIME_STAMP).asText(); // timestamp
+        // collector가 이미 임계값을 평가해 위반을 alert 토픽으로 보낸 메트릭은 0 값 판단만 함 (중복 저장 방지)
+        boolean evaluateThresholds = !root.path(MetricFields.EDGE_EVALUATED).asBoolean(false);
+
+        // 1. Host 자체 메트릭 처리 (컨테이너 전용 레코드는 호스트 값이 없으므로 건너뜀)
+        if (!MetricFields.TYPE_CONTAINERS.equals(type)) {
+            processMetricAnomaly(
+                    type,                  // "host"
+                    hostId,                // host id
+                    hostName,                  // hostName
+                    LocalDateTime.parse(violationTime),
+                    root,                  // 전체 JSON에서 host 메트릭은 root 자체
+                    evaluateThresholds
+            );
+        }
 
         // 2. Container 각각 메트릭 처리
-        JsonNode containersNode = root.path("containers");
+        JsonNode containersNode = root.path(MetricFields.CONTAINERS);
         if (containersNode != null && containersNode.isObject()) {
             Iterator<Map.Entry<String, JsonNode>> fields = containersNode.fields();
 
@@ -711,14 +753,20 @@ public class ThresholdService {
                 String containerId = entry.getKey();             // container id
                 JsonNode containerNode = entry.getValue();       // 그 안의 메트릭 정보
 
-                String containerName = containerNode.path("name").asText(); // ex. "app1"
+                // collector가 이번 주기에 새 값을 읽지 못해 직전 값을 다시 보낸 컨테이너는 평가하지 않음
+                if (containerNode.path(MetricFields.STALE).asBoolean(false)) {
+                    continue;
+                }
+
+                String containerName = containerNode.path(MetricFields.NAME).asText(); // ex. "app1"
 
                 processMetricAnomaly(
                         "container",
                         containerId,
                         containerName,
                         LocalDateTime.parse(violationTime),
-                        containerNode
+                        containerNode,
+                        evaluateThresholds
                 );
             }
         }
@@ -733,6 +781,14 @@ public class ThresholdService {
      * @param metricsNode 분석할 메트릭 데이터(JSON Node)
      */
     public void processMetricAnomaly(String type, String machineId, String machineName, LocalDateTime violationTime, JsonNode metricsNode) {
+        processMetricAnomaly(type, machineId, machineName, violationTime, metricsNode, true);
+    }
+
+    /**
+     * @param evaluateThresholds false이면 임계값 비교 없이 0 값 판단만 한다. (collector가 이미 평가한 메트릭)
+     */
+    private void processMetricAnomaly(String type, String machineId, String machineName, LocalDateTime violationTime,
+                                      JsonNode metricsNode, boolean evaluateThresholds) {
         double metricValue = 0.0;
         int zeroValueCnt = 0;
         String metricName = null;
@@ -740,31 +796,34 @@ public class ThresholdService {
         String cacheKey = type + ":" + machineId + ":" + machineName;
 
         // CPU, Memory, DiskReadDelta, DiskWriteDelta
+        // 이번 메트릭에 실리지 않았거나 마지막 값으로 채운 그룹(carriedGroups)은 평가하지 않음
+        int evaluatedCnt = 0;
         for (int i = 0;i < 4;i++){
+            String group;
+            String field;
             if (i == 0) {
                 metricName = "cpu";
-                metricValue = metricsNode.has("cpuUsagePercent")
-                        ? metricsNode.get("cpuUsagePercent").asDouble()
-                        : 0.0;
-            }
-            if (i == 1) {
+                group = "cpu";
+                field = MetricFields.CPU_USAGE_PERCENT;
+            } else if (i == 1) {
                 metricName = "memory";
-                metricValue = metricsNode.has("memoryUsedBytes")
-                        ? metricsNode.get("memoryUsedBytes").asDouble()
-                        : 0.0;
-            }
-            if (i == 2) {
+                group = "memory";
+                field = MetricFields.MEMORY_USED_BYTES;
+            } else if (i == 2) {
                 metricName = "diskReadDelta";
-                metricValue = metricsNode.has("diskReadBytesDelta")
-                        ? metricsNode.get("diskReadBytesDelta").asDouble()
-                        : 0.0;
-            }
-            if (i == 3) {
+                group = "disk";
+                field = MetricFields.DISK_READ_BYTES_DELTA;
+            } else {
                 metricName = "diskWriteDelta";
-                metricValue = metricsNode.has("diskReadBytesDelta")
-                    ? metricsNode.get("diskWriteBytesDelta").asDouble()
-                    : 0.0;
+                group = "disk";
+                field = MetricFields.DISK_WRITE_BYTES_DELTA;
+            }
+
+            if (!metricsNode.has(field) || HostMetricGroupStore.isCarried(metricsNode, group)) {
+                continue;
             }
+            metricValue = windowedValue(metricsNode, field, metricsNode.get(field));
+            evaluatedCnt++;
 
             if (metricValue == 0.0) {
                 zeroValueCnt++;
@@ -774,21 +833,31 @@ public class ThresholdService {
             }
 
             // 각 메트릭별 threshold를 조회해 초과하면 db저장을 위해 api-backend로 데이터 보낸 후, 로깅함.
-            isNormal = evaluateThresholdAndLogViolation(type , machineId, machineName,
-                    metricName, metricValue, violationTime);
+            if (evaluateThresholds) {
+                isNormal = evaluateThresholdAndLogViolation(type , machineId, machineName,
+                        metricName, metricValue, violationTime);
+            }
         }
 
 
-        // 모든 메트릭이 0일 경우 → 캐시에 없을 때만 로그 저장
-        if (zeroValueCnt == 4 && !zeroStateCache.containsKey(cacheKey)) {
+        // 평가한 메트릭이 모두 0일 경우 → 캐시에 없을 때만 로그 저장
+        if (evaluatedCnt > 0 && zeroValueCnt == evaluatedCnt && !zeroStateCache.containsKey(cacheKey)) {
             storeZeroValueLog(type, machineId, machineName, violationTime);
             zeroStateCache.put(cacheKey, true);
         }
 
+        // network, temperature는 임계값 비교만 하므로 collector가 평가한 메트릭은 여기서 끝냄
+        if (!evaluateThresholds) {
+            return;
+        }
+
         // Network
-        JsonNode networkNode = metricsNode.path("networkDelta");
+        JsonNode networkNode = metricsNode.path(MetricFields.NETWORK_DELTA);
 
-        if (!networkNode.isMissingNode() && networkNode.isObject()) {
+        // 마지막 값으로 채운 network는 이미 평가한 값이므로 건너뜀
+        boolean networkCarried = HostMetricGroupStore.isCarried(metricsNode, "network");
+
+        if (!networkCarried && !networkNode.isMissingNode() && networkNode.isObject()) {
             // [1] Tx 기준 평가
             metricName = "networkTx";
             Iterator<Map.Entry<String, JsonNode>> txInterfaces = networkNode.fields();
@@ -796,8 +865,9 @@ public class ThresholdService {
                 Map.Entry<String, JsonNode> entry = txInterfaces.next();
                 JsonNode interfaceData = entry.getValue();
 
-                metricValue = interfaceData.has("txBytesDelta")
-                      ? interfaceData.get("txBytesDelta").asDouble()
+                metricValue = interfaceData.has(MetricFields.TX_BYTES_DELTA)
+                      ? windowedValue(metricsNode, "networkDelta/" + entry.getKey() + "/txBytesDelta",
+                            interfaceData.get(MetricFields.TX_BYTES_DELTA))
                       : 0.0;
 
                     isNormal = evaluateThresholdAndLogViolation(
@@ -817,8 +887,9 @@ public class ThresholdService {
                 Map.Entry<String, JsonNode> entry = rxInterfaces.next();
                 JsonNode interfaceData = entry.getValue();
 
-                metricValue = interfaceData.has("rxBytesDelta")
-                    ? interfaceData.get("rxBytesDelta").asDouble()
+                metricValue = interfaceData.has(MetricFields.RX_BYTES_DELTA)
+                    ? windowedValue(metricsNode, "networkDelta/" + entry.getKey() + "/rxBytesDelta",
+                        interfaceData.get(MetricFields.RX_BYTES_DELTA))
                     : 0.0;
 
                 isNormal = evaluateThresholdAndLogViolation(
@@ -830,15 +901,15 @@ public class ThresholdService {
                     break; // Rx 기준 비정상이면 루프 종료
                 }
             }
-        } else {
+        } else if (!networkCarried) {
             logger.warn("{}: {} - network 데이터를 찾을 수 없습니다.", type, machineId);
         }
 
-        // Temperature
-        if (type.equals("host")) {
+        // Temperature (마지막 값으로 채운 경우 건너뜀)
+        if (type.equals("host") && !HostMetricGroupStore.isCarried(metricsNode, "temperature")) {
             metricName = "temperature";
 
-            JsonNode tempsNode = metricsNode.get("temperatures");
+            JsonNode tempsNode = metricsNode.get(MetricFields.TEMPERATURES);
             if (tempsNode != null && tempsNode.isObject()) {
                 double maxTemp = Double.MIN_VALUE;
 
@@ -866,6 +937,20 @@ public class ThresholdService {
 
     }
 
+    /**
+     * collector가 window 집계로 보낸 메트릭이면 window 통계 중 설정된 값(THRESHOLD_WINDOW_STATISTIC)을,
+     * 아니면 필드 값을 반환한다.
+     *
+     * @param metricsNode 호스트 또는 컨테이너 메트릭(JSON Node)
+     * @param key         window 통계 키 (예: cpuUsagePercent, networkDelta/eth0_0/rxBytesDelta)
+     * @param value       필드 값 (window 평균)
+     * @return 임계값과 비교할 값
+     */
+    private double windowedValue(JsonNode metricsNode, String key, JsonNode value) {
+        JsonNode stat = metricsNode.path(MetricFields.WINDOW).path(key).path(windowStatistic);
+        return stat.isNumber() ? stat.asDouble() : value.asDouble();
+    }
+
     /**
      * - 주어진 메트릭 값이 임계값(threshold)을 초과 및 미달했는지 판단하고,
      * 초과 시 로그 출력 및 위반 기록을 저장합니다.
@@ -10,6 +10,7 @@ import kr.cs.interdata.api_backend.repository.ContainerInventoryRepository;
 import kr.cs.interdata.api_backend.repository.HostMachineInventoryRepository;
 import kr.cs.interdata.api_backend.repository.TargetTypeRepository;
 import kr.cs.interdata.api_backend.service.ThresholdService;
+import kr.cs.interdata.metricsmodel.MetricFields;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,16 +54,24 @@ public class MachineInventoryService {
      */
     @Async
     public void registerMachineIfAbsent(String metricData) {
-        JsonNode root = parseJson(metricData);
+        registerMachineIfAbsent(parseJson(metricData));
+    }
 
+    /**
+     *  - 이미 파싱(또는 바이너리 디코딩)된 metric data에서의 머신 정보들의 DB 존재 여부 판별 및 삽입 메서드
+     *
+     * @param root    metric data (JSON Node)
+     */
+    @Async
+    public void registerMachineIfAbsent(JsonNode root) {
         if (root == null) {
             logger.error("Null parameter detected - metric data: {}", root);
             return;
         }
 
-        String hostId = root.path("hostId").asText();   // host id
-        String hostName = root.path("name").asText();   // host name
-        LocalDateTime timestamp = LocalDateTime.parse(root.path("timeStamp").asText());
+        String hostId = root.path(MetricFields.HOST_ID).asText();   // host id
+        String hostName = root.path(MetricFields.NAME).asText();   // host name
+        LocalDateTime timestamp = LocalDateTime.parse(root.path(MetricFields.TIME_STAMP).asText());
 
         // hostInventory에 있는지 없는지 판별 없으면 삽입 또는 수정
         if (!hostMachineInventoryRepository.existsByHostIdAndHostName(hostId, hostName)) {
@@ -90,7 +99,7 @@ public class MachineInventoryService {
         }
 
 
-        JsonNode containersNode = root.path("containers");
+        JsonNode containersNode = root.path(MetricFields.CONTAINERS);
         if (containersNode != null && containersNode.isObject()) {
             Iterator<Map.Entry<String, JsonNode>> fields = containersNode.fields();
 
@@ -99,7 +108,7 @@ public class MachineInventoryService {
                 String containerId = entry.getKey();             // container id
                 JsonNode containerNode = entry.getValue();       // 그 안의 메트릭 정보
 
-                String containerName = containerNode.path("name").asText(); // ex. "app1"
+                String containerName = containerNode.path(MetricFields.NAME).asText(); // ex. "app1"
 
                 // containerInventory에 있는지 없는지 판별
                 // 1. (hostName, containerId, containerName) 조합이 있는지 확인
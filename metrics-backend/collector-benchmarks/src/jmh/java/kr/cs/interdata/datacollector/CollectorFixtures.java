@@ -0,0 +1,249 @@
+package kr.cs.interdata.datacollector;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.model.Statistics;
+import kr.cs.interdata.metricsmodel.ContainerSample;
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+import kr.cs.interdata.metricsmodel.MetricFields;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * CollectorFixtures는 벤치마크 입력(가짜 procfs 트리, Docker Statistics, ContainerReading, HostSample)을 만든다.
+ *
+ * - 같은 seed와 크기면 항상 같은 내용이 나오므로 실행 간 결과를 비교할 수 있다.
+ * - 크기는 실제 호스트 수준(인터페이스 수십 개, 컨테이너 수십 개)부터 극단적인 경우(인터페이스 1,000개, 컨테이너 500개)까지 벤치마크 @Param으로 정한다.
+ * - generation을 올리면 누적 카운터가 증가한 다음 샘플이 나온다. (delta 계산이 0이 아닌 값을 내도록)
+ */
+public final class CollectorFixtures {
+
+    private static final long SEED = 0x5EEDL;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private CollectorFixtures() {
+    }
+
+    /**
+     * root 아래에 stat, meminfo, diskstats, net/dev를 만든다. (ProcSnapshot(root)로 읽을 수 있는 구조)
+     *
+     * @param cpus       /proc/stat의 cpuN 줄 수
+     * @param disks      /proc/diskstats의 장치 수 (장치마다 파티션 2개 포함)
+     * @param interfaces /proc/net/dev의 인터페이스 수 (lo, eth0 외에는 veth)
+     */
+    public static void writeProcTree(Path root, int cpus, int disks, int interfaces) throws IOException {
+        Files.createDirectories(root.resolve("net"));
+        SplittableRandom random = new SplittableRandom(SEED);
+        Files.writeString(root.resolve("stat"), procStat(random, cpus));
+        Files.writeString(root.resolve("meminfo"), procMeminfo());
+        Files.writeString(root.resolve("diskstats"), procDiskstats(random, disks));
+        Files.writeString(root.resolve("net/dev"), procNetDev(random, interfaces));
+    }
+
+    private static String procStat(SplittableRandom random, int cpus) {
+        StringBuilder sb = new StringBuilder();
+        long[] total = new long[10];
+        List<long[]> perCpu = new ArrayList<>(cpus);
+        for (int i = 0; i < cpus; i++) {
+            long[] row = new long[10];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = j == 3 ? 50_000_000L + random.nextInt(1_000_000) : random.nextInt(5_000_000);
+                total[j] += row[j];
+            }
+            perCpu.add(row);
+        }
+        appendCpuLine(sb, "cpu ", total);
+        for (int i = 0; i < cpus; i++) {
+            appendCpuLine(sb, "cpu" + i, perCpu.get(i));
+        }
+        sb.append("intr 2218413547 23 0 0 0 0 0 0 0 1 0 0 0 0 0 0 0 0 0 0 0 0 0\n");
+        sb.append("ctxt 4521930384\n");
+        sb.append("btime 1718000000\n");
+        sb.append("processes 3145728\n");
+        sb.append("procs_running 3\n");
+        sb.append("procs_blocked 0\n");
+        sb.append("softirq 1049217632 0 226171092 1288 74523189 1834567 0 1987654 412345678 19 332456789\n");
+        return sb.toString();
+    }
+
+    private static void appendCpuLine(StringBuilder sb, String label, long[] values) {
+        sb.append(label);
+        for (long v : values) {
+            sb.append(' ').append(v);
+        }
+        sb.append('\n');
+    }
+
+    private static String procMeminfo() {
+        String[][] rows = {
+                {"MemTotal", "65758432"}, {"MemFree", "3145728"}, {"MemAvailable", "41943040"},
+                {"Buffers", "1048576"}, {"Cached", "33554432"}, {"SwapCached", "0"},
+                {"Active", "20971520"}, {"Inactive", "25165824"}, {"Active(anon)", "10485760"},
+                {"Inactive(anon)", "524288"}, {"Active(file)", "10485760"}, {"Inactive(file)", "24641536"},
+                {"Unevictable", "0"}, {"Mlocked", "0"}, {"SwapTotal", "8388608"}, {"SwapFree", "8388608"},
+                {"Dirty", "1024"}, {"Writeback", "0"}, {"AnonPages", "10485760"}, {"Mapped", "2097152"},
+                {"Shmem", "524288"}, {"KReclaimable", "2097152"}, {"Slab", "3145728"},
+                {"SReclaimable", "2097152"}, {"SUnreclaim", "1048576"}, {"KernelStack", "32768"},
+                {"PageTables", "131072"}, {"CommitLimit", "41287824"}, {"Committed_AS", "52428800"},
+                {"VmallocTotal", "34359738367"}, {"VmallocUsed", "131072"}, {"HugePages_Total", "0"},
+        };
+        StringBuilder sb = new StringBuilder();
+        for (String[] row : rows) {
+            sb.append(String.format("%-16s%10s kB%n", row[0] + ":", row[1]));
+        }
+        return sb.toString();
+    }
+
+    private static String procDiskstats(SplittableRandom random, int disks) {
+        StringBuilder sb = new StringBuilder();
+        for (int d = 0; d < disks; d++) {
+            String name = "nvme" + d + "n1";
+            appendDiskLine(sb, random, 259, d * 3, name);
+            appendDiskLine(sb, random, 259, d * 3 + 1, name + "p1");
+            appendDiskLine(sb, random, 259, d * 3 + 2, name + "p2");
+        }
+        return sb.toString();
+    }
+
+    // kernel 5.5+ 형식 (필드 20개)
+    private static void appendDiskLine(StringBuilder sb, SplittableRandom random, int major, int minor, String name) {
+        sb.append(String.format("%4d %7d %s", major, minor, name));
+        for (int i = 0; i < 17; i++) {
+            sb.append(' ').append(random.nextLong(1L << 36));
+        }
+        sb.append('\n');
+    }
+
+    private static String procNetDev(SplittableRandom random, int interfaces) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Inter-|   Receive                                                |  Transmit\n");
+        sb.append(" face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets errs drop fifo colls carrier compressed\n");
+        for (int i = 0; i < interfaces; i++) {
+            String name = i == 0 ? "lo" : i == 1 ? "eth0" : "veth" + Integer.toHexString(0x1000000 + i);
+            sb.append(String.format("%16s:", name));
+            for (int f = 0; f < 16; f++) {
+                long v = (f == 0 || f == 8) ? random.nextLong(1L << 40) : random.nextInt(100_000);
+                sb.append(' ').append(v);
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Docker stats API 응답과 같은 구조의 Statistics 목록
+     *
+     * @param containers             컨테이너 수
+     * @param interfacesPerContainer 컨테이너당 네트워크 인터페이스 수
+     */
+    public static List<Statistics> statistics(int containers, int interfacesPerContainer) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Statistics> result = new ArrayList<>(containers);
+        for (int c = 0; c < containers; c++) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("read", "2025-06-10T10:00:00.000000000Z");
+            json.put("cpu_stats", Map.of(
+                    "cpu_usage", Map.of(
+                            "total_usage", random.nextLong(1L << 40),
+                            "usage_in_kernelmode", random.nextLong(1L << 38),
+                            "usage_in_usermode", random.nextLong(1L << 39)),
+                    "system_cpu_usage", (1L << 50) + random.nextLong(1L << 40),
+                    "online_cpus", 16,
+                    "throttling_data", Map.of("periods", 0, "throttled_periods", 0, "throttled_time", 0)));
+            json.put("memory_stats", Map.of(
+                    "usage", random.nextLong(1L << 32),
+                    "limit", 1L << 36,
+                    "stats", Map.of("cache", random.nextLong(1L << 30), "rss", random.nextLong(1L << 31))));
+            json.put("blkio_stats", Map.of("io_service_bytes_recursive", List.of(
+                    Map.of("major", 259, "minor", 0, "op", "Read", "value", random.nextLong(1L << 36)),
+                    Map.of("major", 259, "minor", 0, "op", "Write", "value", random.nextLong(1L << 36)),
+                    Map.of("major", 259, "minor", 0, "op", "Sync", "value", random.nextLong(1L << 36)),
+                    Map.of("major", 259, "minor", 0, "op", "Total", "value", random.nextLong(1L << 37)))));
+            Map<String, Object> networks = new LinkedHashMap<>();
+            for (int i = 0; i < interfacesPerContainer; i++) {
+                networks.put("eth" + i, Map.of(
+                        "rx_bytes", random.nextLong(1L << 36), "rx_packets", random.nextInt(1 << 24),
+                        "rx_errors", 0, "rx_dropped", 0,
+                        "tx_bytes", random.nextLong(1L << 36), "tx_packets", random.nextInt(1 << 24),
+                        "tx_errors", 0, "tx_dropped", 0));
+            }
+            json.put("networks", networks);
+            result.add(MAPPER.convertValue(json, Statistics.class));
+        }
+        return result;
+    }
+
+    //컨테이너 ID (64자리 hex)
+    public static String containerId(int index) {
+        return String.format("%064x", 0xC0FFEE00L + index);
+    }
+
+    /**
+     * generation번째 tick의 컨테이너 누적값 (generation이 클수록 모든 카운터가 증가)
+     */
+    public static ContainerReading[] containerReadings(int containers, int interfacesPerContainer, int generation) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ContainerReading[] result = new ContainerReading[containers];
+        for (int c = 0; c < containers; c++) {
+            long base = random.nextLong(1L << 36);
+            long step = 1 + random.nextInt(1 << 20);
+            long advanced = base + step * generation;
+            Map<String, ContainerReading.InterfaceReading> network = new LinkedHashMap<>();
+            for (int i = 0; i < interfacesPerContainer; i++) {
+                network.put("eth" + i, new ContainerReading.InterfaceReading(advanced + i, advanced * 2 + i));
+            }
+            result[c] = new ContainerReading(
+                    advanced * 10,
+                    (1L << 50) + step * 1000L * generation,
+                    16,
+                    base,
+                    advanced,
+                    advanced / 2,
+                    network,
+                    generation);
+        }
+        return result;
+    }
+
+    /**
+     * combined 모드 payload (호스트 + 컨테이너)
+     *
+     * @param hostInterfaces         호스트 인터페이스 수
+     * @param containers             컨테이너 수
+     * @param interfacesPerContainer 컨테이너당 인터페이스 수
+     */
+    public static HostSample payload(int hostInterfaces, int containers, int interfacesPerContainer) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Map<String, InterfaceDelta> hostNet = new LinkedHashMap<>();
+        for (int i = 0; i < hostInterfaces; i++) {
+            hostNet.put(i == 0 ? "eth0" : "veth" + Integer.toHexString(0x1000000 + i),
+                    new InterfaceDelta(random.nextInt(1 << 24), random.nextInt(1 << 24)));
+        }
+        Map<String, Double> temperatures = new LinkedHashMap<>();
+        for (int i = 0; i < 4; i++) {
+            temperatures.put("coretemp/Core " + i, 40 + random.nextDouble() * 30);
+        }
+        Map<String, ContainerSample> containerMap = new LinkedHashMap<>();
+        for (int c = 0; c < containers; c++) {
+            Map<String, InterfaceDelta> net = new LinkedHashMap<>();
+            for (int i = 0; i < interfacesPerContainer; i++) {
+                net.put("eth" + i, new InterfaceDelta(random.nextInt(1 << 20), random.nextInt(1 << 20)));
+            }
+            containerMap.put(containerId(c), new ContainerSample(
+                    "service-" + c, random.nextDouble() * 100, random.nextLong(1L << 32),
+                    random.nextInt(1 << 20), random.nextInt(1 << 20), net, false));
+        }
+        return new HostSample(MetricFields.TYPE_HOST, "host-001", "bench-host", "2025-06-10T10:00:00",
+                37.5, 1L << 34, 123_456L, 654_321L, hostNet, temperatures, containerMap);
+    }
+}
@@ -0,0 +1,38 @@
+package kr.cs.interdata.datacollector;
+
+import com.github.dockerjava.api.model.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Docker stats 스트림 샘플(Statistics) → ContainerReading 변환 비용 (컨테이너 수만큼)
+ */
+@State(Scope.Benchmark)
+public class ContainerStatsBenchmark {
+
+    @Param({"50", "500"})
+    public int containers;
+
+    @Param({"1", "4"})
+    public int interfacesPerContainer;
+
+    private List<Statistics> statistics;
+
+    @Setup
+    public void setUp() {
+        statistics = CollectorFixtures.statistics(containers, interfacesPerContainer);
+    }
+
+    @Benchmark
+    public void statisticsToReading(Blackhole bh) {
+        for (Statistics stats : statistics) {
+            bh.consume(ContainerStatsStreamManager.toReading(stats));
+        }
+    }
+}
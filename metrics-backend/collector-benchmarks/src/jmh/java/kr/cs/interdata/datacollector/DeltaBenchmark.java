@@ -0,0 +1,135 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * tick 1회 분량의 delta 계산 비용 (컨테이너 CPU/디스크/네트워크, 호스트 네트워크)
+ *
+ * 누적값은 GENERATIONS개의 tick을 미리 만들어 돌아가며 넣는다.
+ * 마지막 generation → 0번으로 돌아갈 때는 카운터가 감소하므로 GENERATIONS tick에 한 번 reset 경로를 탄다.
+ */
+public class DeltaBenchmark {
+
+    private static final int GENERATIONS = 16;
+
+    @State(Scope.Thread)
+    public static class ContainerState {
+
+        @Param({"50", "500"})
+        public int containers;
+
+        @Param({"1", "4"})
+        public int interfacesPerContainer;
+
+        String[] ids;
+        String[] names;
+        ContainerReading[][] generations;
+        ContainerMetricsCalculator calculator;
+        int generation;
+
+        @Setup
+        public void setUp() {
+            ids = new String[containers];
+            names = new String[containers];
+            for (int c = 0; c < containers; c++) {
+                ids[c] = CollectorFixtures.containerId(c);
+                names[c] = "service-" + c;
+            }
+            generations = new ContainerReading[GENERATIONS][];
+            for (int g = 0; g < GENERATIONS; g++) {
+                generations[g] = CollectorFixtures.containerReadings(containers, interfacesPerContainer, g);
+            }
+            calculator = new ContainerMetricsCalculator(containers * (4 + 2 * interfacesPerContainer));
+            //모든 시리즈를 priming 해 두어 측정 중에는 slot 발급이 없도록 함
+            for (int c = 0; c < containers; c++) {
+                calculator.calculate(ids[c], names[c], generations[0][c]);
+            }
+            generation = 1;
+        }
+
+        ContainerReading[] next() {
+            ContainerReading[] readings = generations[generation];
+            generation = (generation + 1) % GENERATIONS;
+            return readings;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class HostState {
+
+        @Param({"16", "1000"})
+        public int hostInterfaces;
+
+        String[] names;
+        long[][] rx;
+        long[][] tx;
+        CounterDeltaTracker counters;
+        int generation;
+
+        @Setup
+        public void setUp() {
+            names = new String[hostInterfaces];
+            rx = new long[GENERATIONS][hostInterfaces];
+            tx = new long[GENERATIONS][hostInterfaces];
+            for (int i = 0; i < hostInterfaces; i++) {
+                names[i] = "veth" + Integer.toHexString(0x1000000 + i);
+                for (int g = 0; g < GENERATIONS; g++) {
+                    rx[g][i] = (1L << 32) * i + 1500L * g;
+                    tx[g][i] = (1L << 31) * i + 900L * g;
+                }
+            }
+            counters = new CounterDeltaTracker(hostInterfaces * 2);
+            generation = 0;
+        }
+    }
+
+    //컨테이너별 CPU 사용률 (calculateCpuUsage)
+    @Benchmark
+    public void containerCpuUsage(ContainerState state, Blackhole bh) {
+        ContainerReading[] readings = state.next();
+        for (int c = 0; c < readings.length; c++) {
+            bh.consume(state.calculator.calculateCpuUsage(state.ids[c], readings[c]));
+        }
+    }
+
+    //컨테이너별 인터페이스 delta (calculateNetworkDelta)
+    @Benchmark
+    public void containerNetworkDelta(ContainerState state, Blackhole bh) {
+        ContainerReading[] readings = state.next();
+        for (int c = 0; c < readings.length; c++) {
+            bh.consume(state.calculator.calculateNetworkDelta(state.ids[c], readings[c]));
+        }
+    }
+
+    //컨테이너 지표 전체 (CPU + 디스크 + 네트워크 delta, ContainerSample 생성)
+    @Benchmark
+    public void containerCalculate(ContainerState state, Blackhole bh) {
+        ContainerReading[] readings = state.next();
+        for (int c = 0; c < readings.length; c++) {
+            bh.consume(state.calculator.calculate(state.ids[c], state.names[c], readings[c]));
+        }
+    }
+
+    //호스트 인터페이스 delta (KafkaProducerRunner.computeHostNetworkDelta와 같은 호출 순서)
+    @Benchmark
+    public void hostNetworkDelta(HostState state, Blackhole bh) {
+        int g = state.generation;
+        state.generation = (g + 1) % GENERATIONS;
+        long[] rx = state.rx[g];
+        long[] tx = state.tx[g];
+        for (int i = 0; i < state.names.length; i++) {
+            String iface = state.names[i];
+            bh.consume(new InterfaceDelta(
+                    state.counters.delta(iface, "net", 0, rx[i]),
+                    state.counters.delta(iface, "net", 1, tx[i])));
+        }
+        state.counters.removeUntouchedGroups();
+    }
+}
@@ -0,0 +1,82 @@
+package kr.cs.interdata.datacollector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * /proc/stat, /proc/meminfo, /proc/diskstats, /proc/net/dev 파싱 비용 (파일 다시 읽기 포함)
+ *
+ * 임시 디렉터리에 만든 가짜 procfs 트리를 ProcSnapshot으로 읽는다.
+ * 파일은 page cache에 있으므로 실제 /proc보다 커널 쪽 비용(내용 생성)은 빠져 있다.
+ */
+@State(Scope.Benchmark)
+public class ProcParserBenchmark {
+
+    @Param({"32"})
+    public int cpus;
+
+    @Param({"4", "64"})
+    public int disks;
+
+    @Param({"16", "1000"})
+    public int interfaces;
+
+    private Path root;
+    private ProcSnapshot snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("collector-bench-proc");
+        CollectorFixtures.writeProcTree(root, cpus, disks, interfaces);
+        snapshot = new ProcSnapshot(root.toString());
+        snapshot.refresh();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        snapshot.close();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long procStat() {
+        snapshot.parseStat();
+        return snapshot.getCpuTotal();
+    }
+
+    @Benchmark
+    public long procMeminfo() {
+        snapshot.parseMeminfo();
+        return snapshot.getMemAvailableBytes();
+    }
+
+    @Benchmark
+    public long procDiskstats() {
+        snapshot.parseDiskstats();
+        return snapshot.getDiskReadBytes();
+    }
+
+    @Benchmark
+    public int procNetDev() {
+        snapshot.parseNetDev();
+        return snapshot.getNetInterfaceCount();
+    }
+
+    //tick 1회에 읽는 4개 파일 전체
+    @Benchmark
+    public ProcSnapshot refreshAll() {
+        return snapshot.refresh();
+    }
+}
@@ -0,0 +1,40 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.HostSample;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * payload 인코딩(json / binary) 비용
+ */
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"json", "binary"})
+    public String encoding;
+
+    @Param({"16", "1000"})
+    public int hostInterfaces;
+
+    @Param({"50", "500"})
+    public int containers;
+
+    private MetricEncoder encoder;
+    private HostSample payload;
+
+    @Setup
+    public void setUp() {
+        encoder = MetricEncoder.forName(encoding);
+        payload = CollectorFixtures.payload(hostInterfaces, containers, 2);
+    }
+
+    //combined 모드 레코드 1건 인코딩
+    @Benchmark
+    public byte[] encodeCombined() {
+        return encoder.encode(payload);
+    }
+}
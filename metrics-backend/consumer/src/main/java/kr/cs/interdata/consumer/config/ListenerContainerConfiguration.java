@@ -7,6 +7,7 @@ import java.util.Collection;
 //import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,13 +30,25 @@ public class ListenerContainerConfiguration {
     @Value("${KAFKA_CONSUMER_GROUP_ID}")
     private String groupId;
 
+    // 임계값 알림 전용 consumer group. 메트릭 group과 나눠서 메트릭 listener의 리밸런스(전달 지연으로 멈춘 경우 등)에 알림 consumer가 끌려가지 않게 함
+    @Value("${KAFKA_ALERT_CONSUMER_GROUP_ID:${KAFKA_CONSUMER_GROUP_ID}-alerts}")
+    private String alertGroupId;
+
+    // 병렬 컨슈머 수 (collector가 hostId를 key로 보내므로 파티션 수까지 늘려도 호스트별 순서가 유지됨)
+    @Value("${KAFKA_CONSUMER_CONCURRENCY:2}")
+    private int concurrency;
+
+    // 임계값 알림 poll 대기 시간(ms). 알림이 없을 때 fetch가 브로커에서 기다리는 최대 시간
+    @Value("${KAFKA_ALERT_FETCH_MAX_WAIT_MS:100}")
+    private int alertFetchMaxWaitMs;
+
     @Bean
-    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, String>> customContainerFactory() {
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, byte[]>> customContainerFactory() {
         Map<String, Object> props = new HashMap<>();
 
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);           // kafka 서버 주소 -> container용
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);  // 메시지 키를 역직렬화할 클래스 (여기선 문자열로 처리)
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);    // 메시지 값을 역직렬화할 클래스 (여기서도 문자열)
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);    // 메시지 값을 역직렬화할 클래스 (json/binary 모두 byte[]로 받고 헤더로 디코딩)
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);    // 이 Consumer가 속한 Consumer Group ID (같은 Group ID면 하나만 처리함)
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");     // 이전에 커밋된 offset이 없을 경우 가장 처음(offset 0)부터 소비
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);  // Kafka가 자동으로 offset을 커밋하지 않도록 설정
@@ -45,7 +58,7 @@ public class ListenerContainerConfiguration {
         logger.info("### [Kafka Consumer] bootstrap.servers = {}", bootstrapServers);
 
         DefaultKafkaConsumerFactory<Object, Object> cf = new DefaultKafkaConsumerFactory<>(props);
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
 
         factory.getContainerProperties().setConsumerRebalanceListener(new ConsumerAwareRebalanceListener() {
 
@@ -80,7 +93,37 @@ public class ListenerContainerConfiguration {
 
         factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL); // 수동 커밋
-        factory.setConcurrency(2); // 병렬 컨슈머 수
+        factory.setConcurrency(concurrency); // 병렬 컨슈머 수
+        factory.setConsumerFactory(cf);
+
+        return factory;
+    }
+
+    /**
+     * - collector가 보낸 임계값 알림 토픽 전용 container factory
+     *   메트릭 토픽과 다른 consumer(스레드)와 consumer group으로 받으므로 메트릭 backlog가 쌓여 있거나 메트릭 group이 리밸런스 중이어도 알림은 바로 처리된다.
+     *   알림은 작고 드물어서 한 번에 적게 가져오고, 브로커 대기 시간을 짧게 둔다.
+     */
+    @Bean
+    public KafkaListenerContainerFactory<ConcurrentMessageListenerContainer<String, byte[]>> alertContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, alertGroupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 20);                      // 알림은 적게 가져와서 바로 전달
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, alertFetchMaxWaitMs);    // 데이터가 없을 때 브로커 대기 시간 (기본 500ms)
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);                        // 1바이트만 있어도 바로 응답
+
+        DefaultKafkaConsumerFactory<Object, Object> cf = new DefaultKafkaConsumerFactory<>(props);
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL); // 수동 커밋
+        factory.setConcurrency(1);
         factory.setConsumerFactory(cf);
 
         return factory;
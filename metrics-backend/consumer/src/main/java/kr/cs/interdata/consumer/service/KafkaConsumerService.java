@@ -2,16 +2,32 @@ package kr.cs.interdata.consumer.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.MetricBinaryCodec;
+import kr.cs.interdata.metricsmodel.MetricFields;
+import kr.cs.interdata.metricsmodel.MetricJsonCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Slf4j
 @Service
 public class KafkaConsumerService {
@@ -20,10 +36,24 @@ public class KafkaConsumerService {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final MetricService metricService;
+    // batch 1개의 API 전달을 기다리는 최대 시간(ms). 넘으면 커밋하지 않고 다시 받음 (max.poll.interval.ms보다 작아야 함)
+    private final long deliveryTimeoutMs;
+    // 전달 실패 시 파티션을 멈추는 시간(ms). 연속 실패마다 2배씩 늘리고 maxPauseMs에서 멈춤
+    private final long pauseMs;
+    private final long maxPauseMs;
+    // 연속 전달 실패 횟수 (성공하면 0)
+    // listener container의 consumer 스레드마다 따로 셈 (메트릭/알림 listener와 병렬 consumer가 서로의 backoff에 영향을 주지 않도록)
+    private final ThreadLocal<AtomicInteger> consecutiveFailures = ThreadLocal.withInitial(AtomicInteger::new);
 
     @Autowired
-    public KafkaConsumerService(MetricService metricService) {
+    public KafkaConsumerService(MetricService metricService,
+                                @Value("${KAFKA_DELIVERY_TIMEOUT_MS:60000}") long deliveryTimeoutMs,
+                                @Value("${KAFKA_PAUSE_MS:1000}") long pauseMs,
+                                @Value("${KAFKA_MAX_PAUSE_MS:30000}") long maxPauseMs) {
         this.metricService = metricService;
+        this.deliveryTimeoutMs = Math.max(1, deliveryTimeoutMs);
+        this.pauseMs = Math.max(1, pauseMs);
+        this.maxPauseMs = Math.max(this.pauseMs, maxPauseMs);
     }
 
     /**
@@ -32,38 +62,170 @@ public class KafkaConsumerService {
      * 	listener Type : BatchMessageListener
      * 	method parameter : onMessage(ConsumerRecords<K, V> data)
      *
-     * @param records   지정 토픽에서 받아온 데이터 list
+     *  호스트 토픽과 컨테이너 토픽(collector split 모드)을 한 group에서 함께 구독한다. 두 토픽이 같으면 한 번만 구독한다.
+     *  호스트/컨테이너 레코드 모두 같은 HostSample 코덱으로 디코딩하고, 종류는 본문의 type 필드로 API 서버가 구분한다.
+     *  (토픽마다 listener를 따로 두면 토픽이 같을 때 같은 group에서 파티션을 나눠 받을 뿐 분리되지 않으므로 listener는 하나)
+     *
+     *  메시지 값은 byte[]로 받고, "metric-format" 헤더로 디코더를 고른다.
+     *  어느 형식이든 metrics-model의 코덱으로 HostSample에 한 번 디코딩해 검증한 뒤,
+     *  poll 1회분을 compact JSON으로 모아 API 서버의 batch 엔드포인트로 한 번에 전달한다. (크기가 크면 chunk로 나눔)
+     *  offset은 API가 batch를 모두 받아들인 뒤에만 커밋하고, 실패하면 파티션을 잠시 멈췄다가 전달하지 못한 첫 레코드부터 다시 받는다.
+     *   - binary-v1 : MetricBinaryCodec으로 디코딩
+     *   - 그 외(헤더 없음 포함) : MetricJsonCodec으로 디코딩
+     *
+     * @param records   호스트/컨테이너 토픽에서 받아온 데이터 list
      */
     @KafkaListener(
-            topics = "${KAFKA_TOPIC_NAME}",
+            topics = {"${KAFKA_HOST_TOPIC_NAME:${KAFKA_TOPIC_NAME}}", "${KAFKA_CONTAINER_TOPIC_NAME:${KAFKA_TOPIC_NAME}}"},
             groupId = "${KAFKA_CONSUMER_GROUP_ID}",
             containerFactory = "customContainerFactory"
     )
-    public void batchListener(ConsumerRecords<String, String> records, Acknowledgment ack) {
+    public void batchListener(ConsumerRecords<String, byte[]> records, Acknowledgment ack) {
 
-        for (ConsumerRecord<String, String> record : records) {
-            String json = record.value();
+        List<byte[]> metrics = new ArrayList<>(records.count());
+        // metrics[i]가 poll 안에서 몇 번째 레코드인지 (nack 위치 계산용)
+        int[] positions = new int[records.count()];
+        int position = 0;
+        for (ConsumerRecord<String, byte[]> record : records) {
+            String format = formatOf(record);
 
             try {
-                JsonNode metricsNode = parseJson(json);
+                HostSample sample = MetricBinaryCodec.FORMAT.equals(format)
+                        ? MetricBinaryCodec.decode(record.value())
+                        : MetricJsonCodec.decode(record.value());
+                positions[metrics.size()] = position;
+                metrics.add(MetricJsonCodec.encode(sample));
+
+                logger.debug("Kafka Record 디코딩 성공 ({}): {}", format, sample);
+            } catch (IllegalArgumentException e) {
+                logger.warn("메시지 형식 오류 - format: {}, key: {}, value: {}, 원인: {}", format, record.key(), valueForLog(record), e.getMessage());
+            } catch (Exception e) {
+                logger.error("예상치 못한 예외 발생 - key: {}, value: {}", record.key(), valueForLog(record), e);
+            }
+            position++;
+        }
+
+        // *******************************
+        //     transmit to API-server
+        // *******************************
+        if (metrics.isEmpty()) {
+            // 수동 커밋 (디코딩에 모두 실패한 레코드는 다시 받아도 같으므로 건너뜀)
+            ack.acknowledge();
+            return;
+        }
+        if (awaitDelivery(metricService.sendMetricBatch(metrics), positions, ack, "메트릭 배치")) {
+            logger.info("Kafka 메트릭 배치 전달: {}건 (poll {}건)", metrics.size(), records.count());
+        }
+    }
 
-                // *******************************
-                //     transmit to API-server
-                // *******************************
-                metricService.sendThresholdViolation(json);
+    /**
+     * 	- Kafka - collector가 보낸 임계값 위반 알림을 수신하고 처리하는 메서드
+     * 	메트릭 토픽과 별도의 container(alertContainerFactory)와 consumer group에서 받으므로 메트릭 처리가 밀려 있어도 먼저 전달된다.
+     *
+     * @param records   알림 토픽에서 받아온 데이터 list (JSON)
+     */
+    @KafkaListener(
+            topics = "${KAFKA_ALERT_TOPIC_NAME:metric-alerts}",
+            groupId = "${KAFKA_ALERT_CONSUMER_GROUP_ID:${KAFKA_CONSUMER_GROUP_ID}-alerts}",
+            containerFactory = "alertContainerFactory"
+    )
+    public void alertListener(ConsumerRecords<String, byte[]> records, Acknowledgment ack) {
 
-                logger.info("Kafka Record 처리 성공: {}", metricsNode);
+        List<String> alerts = new ArrayList<>(records.count());
+        int[] positions = new int[records.count()];
+        int position = 0;
+        for (ConsumerRecord<String, byte[]> record : records) {
+            try {
+                String json = new String(record.value(), StandardCharsets.UTF_8);
+                JsonNode alertNode = parseJson(json);
+                positions[alerts.size()] = position;
+                alerts.add(json);
 
+                logger.debug("임계값 알림 수신: {}", alertNode);
             } catch (InvalidJsonException e) {
-                logger.error("잘못된 JSON 형식 - key: {}, value: {}, error: {}", record.key(), record.value(), e.getMessage());
-            } catch (IllegalArgumentException e) {
-                logger.warn("JSON 필드 누락 - key: {}, value: {}, 원인: {}", record.key(), record.value(), e.getMessage());
+                logger.error("잘못된 알림 JSON 형식 - key: {}, value: {}, error: {}", record.key(), valueForLog(record), e.getMessage());
             } catch (Exception e) {
-                logger.error("예상치 못한 예외 발생 - key: {}, value: {}", record.key(), record.value(), e);
+                logger.error("예상치 못한 예외 발생 - key: {}, value: {}", record.key(), valueForLog(record), e);
             }
+            position++;
+        }
+
+        // *******************************
+        //     transmit to API-server
+        // *******************************
+        if (alerts.isEmpty()) {
+            // 수동 커밋
+            ack.acknowledge();
+            return;
+        }
+        if (awaitDelivery(metricService.sendThresholdAlerts(alerts), positions, ack, "임계값 알림")) {
+            logger.info("임계값 알림 처리 성공: {}건", alerts.size());
+        }
+    }
+
+    /**
+     * API 전달이 끝날 때까지 listener 스레드에서 기다린 뒤 커밋 여부를 정한다.
+     * listener가 전달을 기다리는 동안 다음 poll을 하지 않으므로, API가 느리면 consumer도 그만큼 천천히 가져온다.
+     *
+     * - 성공 : 수동 커밋
+     * - 실패(재시도 소진, in-flight 대기 초과, deliveryTimeoutMs 초과) : 전달하지 못한 첫 레코드 위치로 nack.
+     *   container가 그 앞 레코드까지 커밋하고 그 위치로 seek한 뒤 할당된 파티션을 pause하고, pause 시간이 지나면 resume해서 나머지를 다시 받는다.
+     *   (이미 전달된 앞쪽 레코드는 다시 보내지 않음. 실패 위치를 알 수 없는 deliveryTimeoutMs 초과는 batch 처음부터)
+     *   (pause 중에도 poll은 계속하므로 group에서 빠지지 않음) pause 시간은 이 consumer 스레드의 연속 실패마다 지수적으로 늘어난다.
+     *
+     * @param positions 전송한 항목 i가 poll 안에서 몇 번째 레코드인지
+     * @return 전달에 성공해 커밋했으면 true
+     */
+    private boolean awaitDelivery(CompletableFuture<Void> delivery, int[] positions, Acknowledgment ack, String what) {
+        Throwable failure;
+        try {
+            delivery.get(deliveryTimeoutMs, TimeUnit.MILLISECONDS);
+            consecutiveFailures.get().set(0);
+            // 수동 커밋
+            ack.acknowledge();
+            return true;
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (TimeoutException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        }
+
+        int index = failure instanceof MetricService.DeliveryException failed ? positions[failed.getIndex()] : 0;
+        Duration pause = nextPause();
+        logger.warn("{} API 전달 실패 - {}번째 레코드부터 커밋하지 않고 {}ms 동안 파티션을 멈춘 뒤 다시 받음 (연속 {}회, in-flight {}): {}",
+                what, index, pause.toMillis(), consecutiveFailures.get().get(), metricService.getInFlightCount(), String.valueOf(failure));
+        ack.nack(index, pause);
+        return false;
+    }
+
+    // 연속 실패 횟수에 따른 pause 시간 (pauseMs * 2^(n-1), 최대 maxPauseMs)
+    private Duration nextPause() {
+        int failures = consecutiveFailures.get().incrementAndGet();
+        long pause = pauseMs << Math.min(failures - 1, 20);
+        return Duration.ofMillis(Math.min(pause, maxPauseMs));
+    }
+
+    // 헤더에서 인코딩 형식 추출 (헤더가 없으면 json)
+    private String formatOf(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(MetricFields.FORMAT_HEADER);
+        if (header == null || header.value() == null) {
+            return "json";
+        }
+        return new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    // 로그 출력용 값 (바이너리는 크기만 출력)
+    private Object valueForLog(ConsumerRecord<String, byte[]> record) {
+        if (record.value() == null) {
+            return null;
+        }
+        if (MetricBinaryCodec.FORMAT.equals(formatOf(record))) {
+            return "<binary " + record.value().length + " bytes>";
         }
-        // 수동 커밋
-        ack.acknowledge();
+        return new String(record.value(), StandardCharsets.UTF_8);
     }
 
     // json 파싱
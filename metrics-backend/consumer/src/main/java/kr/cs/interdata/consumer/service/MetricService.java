@@ -3,10 +3,44 @@ package kr.cs.interdata.consumer.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 
+
+/**
+ * MetricService는 consumer가 검증한 메트릭/알림을 API 백엔드로 전달한다.
+ *
+ * - 전송 메서드는 API가 모든 요청을 받아들였을 때 완료되는 future를 반환한다. 호출 측(KafkaConsumerService)은
+ *   future가 성공한 뒤에만 offset을 커밋하므로, API가 느리거나 죽어 있어도 메트릭이 유실되지 않는다. (at-least-once)
+ * - 동시에 응답을 기다리는 요청 수는 maxInFlight로 제한한다. 자리가 없으면 acquireTimeoutMs까지 기다리고,
+ *   그래도 없으면 API가 밀린 것으로 보고 future를 TimeoutException으로 실패시킨다.
+ * - 5xx, 408/429, 연결 실패, 응답 시간 초과는 지수 backoff로 재시도한다. 그 외 4xx는 다시 보내도 같은 결과이므로 재시도하지 않는다.
+ *   메트릭 chunk가 거부되면 반으로 나눠 다시 보내 API가 실제로 거부한 메트릭만 골라내고, 그 메트릭만 dead-letter(error 로그)로 남긴 뒤
+ *   전달된 것으로 처리한다. (잘못된 메트릭 1건이 같은 chunk의 정상 메트릭을 버리거나 파티션을 막지 않도록)
+ * - 실패한 future는 DeliveryException으로 완료되며, 전달하지 못한 가장 앞 항목의 위치를 알려준다.
+ *   호출 측은 그 위치부터 다시 받으므로 이미 전달된 앞쪽 항목을 다시 보내지 않는다.
+ */
 @Service
 public class MetricService {
 
@@ -14,32 +48,255 @@ public class MetricService {
     private final Logger logger = LoggerFactory.getLogger(MetricService.class);
 
     private final WebClient webClient;
+    // 배치 요청 1회의 최대 본문 크기 (압축 전, bytes)
+    private final int batchMaxBytes;
+    // 본문이 이 크기(bytes) 이상이면 gzip으로 압축 (음수면 압축하지 않음)
+    private final int gzipMinBytes;
+    // 동시에 응답을 기다리는 요청 수 상한 (재시도 대기 중인 요청 포함)
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    // in-flight 자리를 기다리는 최대 시간(ms)
+    private final long acquireTimeoutMs;
+    // 요청 1회(시도 1번)의 응답 대기 시간
+    private final Duration requestTimeout;
+    // 재시도 정책 (지수 backoff + jitter)
+    private final Retry retry;
 
     @Autowired
-    public MetricService(WebClient webClient) {
+    public MetricService(WebClient webClient,
+                         @Value("${API_BATCH_MAX_BYTES:1048576}") int batchMaxBytes,
+                         @Value("${API_BATCH_GZIP_MIN_BYTES:1024}") int gzipMinBytes,
+                         @Value("${API_MAX_IN_FLIGHT:8}") int maxInFlight,
+                         @Value("${API_ACQUIRE_TIMEOUT_MS:5000}") long acquireTimeoutMs,
+                         @Value("${API_REQUEST_TIMEOUT_MS:10000}") long requestTimeoutMs,
+                         @Value("${API_RETRY_MAX_ATTEMPTS:5}") int retryMaxAttempts,
+                         @Value("${API_RETRY_INITIAL_BACKOFF_MS:200}") long retryInitialBackoffMs,
+                         @Value("${API_RETRY_MAX_BACKOFF_MS:5000}") long retryMaxBackoffMs) {
         this.webClient = webClient;  // WebClient를 주입받음
+        this.batchMaxBytes = Math.max(1, batchMaxBytes);
+        this.gzipMinBytes = gzipMinBytes;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.inFlight = new Semaphore(this.maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.requestTimeout = Duration.ofMillis(Math.max(1, requestTimeoutMs));
+        this.retry = Retry.backoff(Math.max(0, retryMaxAttempts), Duration.ofMillis(Math.max(1, retryInitialBackoffMs)))
+                .maxBackoff(Duration.ofMillis(Math.max(1, retryMaxBackoffMs)))
+                .filter(MetricService::isRetryable)
+                .doBeforeRetry(signal -> logger.warn("API 전송 재시도 {}회차: {}",
+                        signal.totalRetries() + 1, signal.failure().getMessage()));
     }
 
     /**
-     * - 메트릭을 API 백엔드로 전송하는 메서드.
+     * - 메트릭 여러 개를 NDJSON(한 줄에 메트릭 1개)으로 묶어 API 백엔드의 /api/metrics/batch로 전송하는 메서드.
+     *   본문이 batchMaxBytes를 넘으면 여러 요청으로 나누고, gzipMinBytes 이상인 본문은 gzip으로 압축한다.
      *
-     * @param metricData    메트릭 데이터
+     * @param metrics    메트릭 JSON 목록 (줄바꿈이 없는 compact JSON)
+     * @return 모든 chunk를 API가 받아들이면 완료되는 future
+     *         (재시도 후에도 실패하거나 in-flight 대기 초과 시 전달하지 못한 첫 메트릭의 위치를 담은 DeliveryException으로 완료)
+     */
+    public CompletableFuture<Void> sendMetricBatch(List<byte[]> metrics) {
+        List<Request> requests = new ArrayList<>();
+        int from = 0;
+        int size = 0;
+        for (int i = 0; i < metrics.size(); i++) {
+            int length = metrics.get(i).length + 1;
+            // 이번 메트릭을 더하면 최대 크기를 넘는 경우 지금까지 모은 chunk를 먼저 요청으로 만듦 (메트릭 1개가 최대 크기보다 커도 단독으로 전송)
+            if (i > from && size + length > batchMaxBytes) {
+                requests.add(new Request(from, postBatch(metrics, from, i)));
+                from = i;
+                size = 0;
+            }
+            size += length;
+        }
+        if (from < metrics.size()) {
+            requests.add(new Request(from, postBatch(metrics, from, metrics.size())));
+        }
+        return submit(requests);
+    }
+
+    /**
+     * metrics[from, to)를 NDJSON chunk 1개로 보내는 요청 (구독할 때 보냄)
+     * API가 chunk를 거부하면 반으로 나눠 차례로 다시 보내고, 1건까지 나눠도 거부된 메트릭만 dead-letter로 남긴다.
+     * 나눠 보낸 요청이 실패하면 그 요청의 시작 위치를 담은 DeliveryException으로 끝난다.
      */
-    public void sendThresholdViolation(String metricData) {
-        String url = "/api/metrics";
+    private Mono<Void> postBatch(List<byte[]> metrics, int from, int to) {
+        String url = "/api/metrics/batch";
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        for (int i = from; i < to; i++) {
+            chunk.writeBytes(metrics.get(i));
+            chunk.write('\n');
+        }
+        byte[] ndjson = chunk.toByteArray();
+        boolean gzip = gzipMinBytes >= 0 && ndjson.length >= gzipMinBytes;
+        byte[] body = gzip ? gzip(ndjson) : ndjson;
+        int count = to - from;
 
-        // API 백엔드로 POST 요청을 보내고 응답을 처리
-        webClient.post()
+        Mono<Void> request = webClient.post()
                 .uri(url)
-                .bodyValue(metricData)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .headers(headers -> {
+                    if (gzip) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .bodyValue(body)
                 .retrieve()
-                .bodyToMono(Void.class)   // 응답 본문 없음
-                .doOnError(error -> {
-                    // 에러 로그 처리
-                    logger.warn("메트릭 전송 실패: {}", error.getMessage());
+                .bodyToMono(Void.class);
+        return retrying(request)
+                .onErrorResume(MetricService::isRejected, error -> {
+                    if (count == 1) {
+                        logger.error("API가 거부한 메트릭 - 재전송하지 않고 dead-letter로 남김: {}, 원인: {}",
+                                new String(metrics.get(from), StandardCharsets.UTF_8), error.getMessage());
+                        return Mono.empty();
+                    }
+                    int mid = (from + to) >>> 1;
+                    logger.warn("메트릭 배치 {}건이 API에서 거부됨 - 나눠서 다시 보내 거부된 메트릭만 골라냄: {}", count, error.getMessage());
+                    return Mono.defer(() -> postBatch(metrics, from, mid))
+                            .then(Mono.defer(() -> postBatch(metrics, mid, to)));
+                })
+                .onErrorMap(error -> !(error instanceof DeliveryException), error -> {
+                    logger.warn("메트릭 배치 {}건 전송 실패: {}", count, error.getMessage());
+                    return new DeliveryException(from, error);
+                });
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            // 메모리 스트림이므로 발생하지 않음
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * - collector가 보낸 임계값 위반 알림(JSON)을 API 백엔드로 전송하는 메서드.
+     *
+     * @param alerts    임계값 위반 알림 데이터 목록 (알림 1건당 요청 1개)
+     * @return 모든 알림을 API가 받아들이면 완료되는 future
+     *         (재시도 후에도 실패하거나 in-flight 대기 초과 시 전달하지 못한 첫 알림의 위치를 담은 DeliveryException으로 완료)
+     */
+    public CompletableFuture<Void> sendThresholdAlerts(List<String> alerts) {
+        String url = "/api/metrics/alerts";
+
+        List<Request> requests = new ArrayList<>(alerts.size());
+        for (int i = 0; i < alerts.size(); i++) {
+            Mono<Void> request = webClient.post()
+                    .uri(url)
+                    .bodyValue(alerts.get(i))
+                    .retrieve()
+                    .bodyToMono(Void.class);
+            requests.add(new Request(i, withRetry(request, "임계값 알림")));
+        }
+        return submit(requests);
+    }
+
+    // 요청 1회마다 응답 시간 제한을 두고, 재시도 가능한 실패는 backoff 후 다시 보냄
+    private Mono<Void> retrying(Mono<Void> request) {
+        return request
+                .timeout(requestTimeout)
+                .retryWhen(retry);
+    }
+
+    // 재시도 후 재시도하지 않는 4xx는 로그만 남기고 완료 (요청 1개가 항목 1개인 경우)
+    private Mono<Void> withRetry(Mono<Void> request, String what) {
+        return retrying(request)
+                .onErrorResume(MetricService::isRejected, error -> {
+                    logger.error("{} 전송이 API에서 거부됨 (재시도하지 않음): {}", what, error.getMessage());
+                    return Mono.empty();
                 })
-                .subscribe();  // 비동기 방식으로 호출
-                // 응답 사용하지 않음
+                .doOnError(error -> logger.warn("{} 전송 실패: {}", what, error.getMessage()));
+    }
+
+    /**
+     * 요청들을 in-flight 상한 안에서 보낸다.
+     * 자리를 얻은 요청부터 바로 구독하고, 응답(재시도 포함)이 끝나면 자리를 반환한다.
+     * 자리를 얻지 못하면 남은 요청은 보내지 않는다. 이미 보낸 요청은 그대로 진행하고, 모두 끝난 뒤
+     * 실패했거나 보내지 못한 요청 중 가장 앞 위치를 담은 DeliveryException으로 future를 완료한다.
+     */
+    private CompletableFuture<Void> submit(List<Request> requests) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(requests.size());
+        DeliveryException notSent = null;
+        for (Request request : requests) {
+            try {
+                if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    notSent = new DeliveryException(request.index(), new TimeoutException(
+                            "API in-flight 요청이 " + maxInFlight + "개를 넘어 " + acquireTimeoutMs + "ms 동안 보낼 수 없습니다."));
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                notSent = new DeliveryException(request.index(), e);
+                break;
+            }
+            futures.add(request.mono()
+                    .onErrorMap(error -> !(error instanceof DeliveryException), error -> new DeliveryException(request.index(), error))
+                    .doFinally(signal -> inFlight.release())
+                    .toFuture());
+        }
+
+        DeliveryException unsent = notSent;
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .handle((ignored, error) -> {
+                    DeliveryException first = unsent;
+                    for (CompletableFuture<Void> future : futures) {
+                        if (future.isCompletedExceptionally()
+                                && future.exceptionNow() instanceof DeliveryException failed
+                                && (first == null || failed.getIndex() < first.getIndex())) {
+                            first = failed;
+                        }
+                    }
+                    if (first != null) {
+                        throw first;
+                    }
+                    return null;
+                });
+    }
+
+    // 다시 보내면 성공할 수 있는 실패인지 (5xx, 408, 429, 연결 실패, 응답 시간 초과)
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status >= 500
+                    || status == HttpStatus.REQUEST_TIMEOUT.value()
+                    || status == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    // API가 요청 자체를 거부한 실패인지 (재시도하지 않는 4xx)
+    private static boolean isRejected(Throwable error) {
+        return error instanceof WebClientResponseException response
+                && response.getStatusCode().is4xxClientError()
+                && !isRetryable(error);
+    }
+
+    //응답을 기다리는 요청 수
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    // 보낼 요청과 그 요청의 첫 항목 위치
+    private record Request(int index, Mono<Void> mono) {
+    }
+
+    /**
+     * 전달 실패 예외. 전달하지 못한 항목 중 가장 앞 항목의 위치(전송 메서드에 넘긴 목록 기준)를 담는다.
+     * 그 앞의 항목은 모두 API가 받아들였다.
+     */
+    public static class DeliveryException extends RuntimeException {
+        private final int index;
+
+        public DeliveryException(int index, Throwable cause) {
+            super("항목 " + index + "부터 전달 실패: " + cause, cause);
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
     }
 
 }
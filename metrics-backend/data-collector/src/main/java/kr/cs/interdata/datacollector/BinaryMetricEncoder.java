@@ -0,0 +1,30 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.MetricBinaryCodec;
+
+/**
+ * HostSample을 스키마 기반 바이너리 형식("binary-v1")으로 인코딩한다.
+ * 스키마와 인코딩/디코딩 구현은 metrics-model의 MetricBinaryCodec 하나를 consumer와 함께 쓴다.
+ * (스키마 설명은 MetricBinaryCodec 주석 참고)
+ *
+ * 인스턴스는 내부 버퍼를 재사용하므로 스레드 안전하지 않다.
+ */
+public class BinaryMetricEncoder implements MetricEncoder {
+
+    public static final String FORMAT = MetricBinaryCodec.FORMAT;
+    public static final byte MAGIC = MetricBinaryCodec.MAGIC;
+    public static final byte VERSION = MetricBinaryCodec.VERSION;
+
+    private final MetricBinaryCodec codec = new MetricBinaryCodec();
+
+    @Override
+    public String format() {
+        return FORMAT;
+    }
+
+    @Override
+    public byte[] encode(HostSample payload) {
+        return codec.encode(payload);
+    }
+}
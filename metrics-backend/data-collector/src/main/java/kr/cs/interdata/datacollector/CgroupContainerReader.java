@@ -0,0 +1,303 @@
+package kr.cs.interdata.datacollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * ┌──────────────── CgroupContainerReader에서 사용하는 호스트 cgroup 경로 정리 ────────────────┐
+ *
+ * 컨테이너 cgroup 디렉터리 (<id> = 64자리 컨테이너 ID)
+ *  - systemd 드라이버 : <root>/system.slice/docker-<id>.scope
+ *  - cgroupfs 드라이버: <root>/docker/<id>
+ *  cgroup v2(unified)는 <root> = /host/sys/fs/cgroup,
+ *  cgroup v1은 <root> = /host/sys/fs/cgroup/<controller> (cpuacct, memory, blkio)
+ *  v2 여부는 /host/sys/fs/cgroup/cgroup.controllers 존재로 판단한다.
+ *
+ * 읽는 파일 (포맷은 ContainerResourceMonitor 주석 참고)
+ *  - CPU    : v2 cpu.stat(usage_usec) / v1 cpuacct/cpuacct.usage(ns)
+ *  - 메모리 : v2 memory.current       / v1 memory/memory.usage_in_bytes
+ *  - 디스크 : v2 io.stat(rbytes/wbytes) / v1 blkio/blkio.throttle.io_service_bytes_recursive
+ *             (CFQ 스케줄러에서만 채워지는 blkio.io_service_bytes_recursive는 대체 경로)
+ *  - 네트워크: cgroup.procs의 첫 PID → /host/proc/<pid>/net/dev (컨테이너 네트워크 네임스페이스 기준)
+ *
+ * CPU 사용률 계산용 호스트 값 (Docker stats의 system_cpu_usage/online_cpus와 같은 방식)
+ *  - /host/proc/stat 첫 줄 "cpu" 의 user~steal 합 (jiffies) × (1e9 / USER_HZ) → ns
+ *  - "cpuN" 줄 개수 → 온라인 CPU 수
+ *
+ * └──────────────────────────────────────────────────────────────────────────┘
+ */
+
+/**
+ * CgroupContainerReader는 Docker 데몬을 거치지 않고 호스트에 마운트된 cgroup 파일에서 컨테이너 리소스 값을 직접 읽는다.
+ * 컨테이너별 디렉터리와 파일 리더는 한 번 찾은 뒤 캐시하므로, 수백 개의 컨테이너도 파일 read 몇 번으로 수집할 수 있다.
+ *
+ * 실행 중이 아닌 컨테이너는 cgroup 디렉터리가 없으므로 read()가 null을 반환한다.
+ * 서로 다른 컨테이너의 read()는 동시에 호출해도 되지만, 같은 컨테이너는 한 번에 하나씩만 읽어야 한다.
+ * sync()는 read()와 동시에 호출해도 되지만, 읽고 있는 컨테이너의 ID는 sync()에 넘기는 목록에 포함해야 한다.
+ * (목록에 없는 컨테이너의 리더는 sync()가 닫음)
+ */
+public class CgroupContainerReader implements ContainerMetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(CgroupContainerReader.class);
+
+    private static final String DEFAULT_CGROUP_ROOT = "/host/sys/fs/cgroup";
+    private static final String DEFAULT_PROC_ROOT = "/host/proc";
+
+    // /proc/stat 시간 단위(USER_HZ). 리눅스에서는 사실상 항상 100
+    private static final long NANOS_PER_JIFFY = 1_000_000_000L / 100;
+    // /proc/stat cpu 줄에서 합산할 필드 수 (user nice system idle iowait irq softirq steal)
+    private static final int CPU_STAT_FIELDS = 8;
+
+    private static final byte[] CPU_TOTAL_PREFIX = "cpu ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CPU_PREFIX = "cpu".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path cgroupRoot;
+    private final Path procRoot;
+    private final boolean unified;
+
+    private final ProcFileReader procStat;
+    // sync()가 쓰고 컨테이너별 가상 스레드의 read()가 읽음
+    private volatile long systemCpuUsageNanos = -1;
+    private volatile long onlineCpus = -1;
+
+    // 컨테이너 ID -> 찾아둔 cgroup 파일 리더 (read()는 컨테이너별 가상 스레드에서 동시에 호출될 수 있음)
+    private final Map<String, ContainerFiles> containers = new ConcurrentHashMap<>();
+
+    public CgroupContainerReader() {
+        this(DEFAULT_CGROUP_ROOT, DEFAULT_PROC_ROOT);
+    }
+
+    public CgroupContainerReader(String cgroupRoot, String procRoot) {
+        this.cgroupRoot = Paths.get(cgroupRoot);
+        this.procRoot = Paths.get(procRoot);
+        this.unified = Files.exists(this.cgroupRoot.resolve("cgroup.controllers"));
+        this.procStat = new ProcFileReader(this.procRoot.resolve("stat"));
+        logger.info("cgroup container reader: root={}, version={}", cgroupRoot, unified ? "v2" : "v1");
+    }
+
+    @Override
+    public void sync(Collection<String> containerIds) {
+        // 사라진 컨테이너의 리더 정리
+        Set<String> current = Set.copyOf(containerIds);
+        containers.entrySet().removeIf(e -> {
+            if (current.contains(e.getKey())) return false;
+            e.getValue().close();
+            return true;
+        });
+
+        // 모든 컨테이너가 공유하는 호스트 CPU 시간은 tick마다 한 번만 읽음
+        readHostCpu();
+    }
+
+    @Override
+    public ContainerReading read(String containerId) {
+        ContainerFiles files = containers.get(containerId);
+        if (files == null) {
+            files = resolve(containerId);
+            if (files == null) {
+                //실행 중이 아니거나 알 수 없는 cgroup 레이아웃
+                return null;
+            }
+            ContainerFiles existing = containers.putIfAbsent(containerId, files);
+            if (existing != null) {
+                files.close();
+                files = existing;
+            }
+        }
+
+        long cpu = files.readCpuNanos();
+        if (cpu < 0) {
+            //컨테이너가 재시작/종료되어 디렉터리가 사라짐 → 다음 tick에 다시 찾음
+            ContainerFiles removed = containers.remove(containerId);
+            if (removed != null) {
+                removed.close();
+            }
+            return null;
+        }
+        long memory = files.readLong(files.memory);
+        long[] io = files.readDiskIO();
+        Map<String, ContainerReading.InterfaceReading> network = files.readNetwork();
+
+        return new ContainerReading(cpu, systemCpuUsageNanos, onlineCpus,
+                Math.max(memory, 0), io[0], io[1], network, System.nanoTime());
+    }
+
+    //파일 read가 멈출 수 있으므로 호출 측에서 deadline을 두고 읽어야 함
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        containers.values().forEach(ContainerFiles::close);
+        containers.clear();
+        procStat.close();
+    }
+
+    //호스트 /proc/stat에서 전체 CPU 시간(ns)과 온라인 CPU 수 갱신
+    private void readHostCpu() {
+        if (!procStat.load()) {
+            systemCpuUsageNanos = -1;
+            onlineCpus = -1;
+            return;
+        }
+        long total = -1;
+        long cpus = 0;
+        while (procStat.hasMore()) {
+            if (procStat.consume(CPU_TOTAL_PREFIX)) {
+                // "cpu  user nice system idle iowait irq softirq steal ..."
+                total = 0;
+                for (int i = 0; i < CPU_STAT_FIELDS; i++) {
+                    long v = procStat.readLong();
+                    if (v > 0) total += v;
+                }
+            } else if (procStat.consume(CPU_PREFIX)) {
+                // "cpuN ..."
+                cpus++;
+            } else {
+                // cpu 줄이 끝나면 나머지(intr, ctxt 등)는 읽지 않음
+                break;
+            }
+            procStat.nextLine();
+        }
+        systemCpuUsageNanos = total < 0 ? -1 : total * NANOS_PER_JIFFY;
+        onlineCpus = cpus > 0 ? cpus : -1;
+    }
+
+    //컨테이너의 cgroup 디렉터리를 찾아 파일 리더 구성 (없으면 null)
+    private ContainerFiles resolve(String containerId) {
+        String[] candidates = {
+                "system.slice/docker-" + containerId + ".scope",
+                "docker/" + containerId
+        };
+        for (String relative : candidates) {
+            if (unified) {
+                Path dir = cgroupRoot.resolve(relative);
+                if (Files.isDirectory(dir)) {
+                    return new ContainerFiles(
+                            dir.resolve("cpu.stat"), true,
+                            dir.resolve("memory.current"),
+                            new Path[]{dir.resolve("io.stat")},
+                            dir.resolve("cgroup.procs"));
+                }
+            } else {
+                Path cpuDir = cgroupRoot.resolve("cpuacct").resolve(relative);
+                if (Files.isDirectory(cpuDir)) {
+                    Path memDir = cgroupRoot.resolve("memory").resolve(relative);
+                    Path blkioDir = cgroupRoot.resolve("blkio").resolve(relative);
+                    return new ContainerFiles(
+                            cpuDir.resolve("cpuacct.usage"), false,
+                            memDir.resolve("memory.usage_in_bytes"),
+                            new Path[]{
+                                    blkioDir.resolve("blkio.throttle.io_service_bytes_recursive"),
+                                    blkioDir.resolve("blkio.io_service_bytes_recursive")
+                            },
+                            cpuDir.resolve("cgroup.procs"));
+                }
+            }
+        }
+        logger.debug("cgroup directory not found: {}", containerId);
+        return null;
+    }
+
+    /**
+     * 컨테이너 1개의 cgroup 파일 리더 묶음
+     */
+    private class ContainerFiles {
+
+        private final ProcFileReader cpu;
+        private final boolean v2;
+        private final ProcFileReader memory;
+        private final ProcFileReader[] io;
+        private final ProcFileReader procs;
+        private ProcFileReader netDev;
+        private final Map<String, long[]> netScratch = new LinkedHashMap<>();
+
+        ContainerFiles(Path cpu, boolean v2, Path memory, Path[] io, Path procs) {
+            this.cpu = new ProcFileReader(cpu);
+            this.v2 = v2;
+            this.memory = new ProcFileReader(memory);
+            this.io = new ProcFileReader[io.length];
+            for (int i = 0; i < io.length; i++) {
+                this.io[i] = new ProcFileReader(io[i]);
+            }
+            this.procs = new ProcFileReader(procs);
+        }
+
+        long readCpuNanos() {
+            if (!cpu.load()) return -1;
+            return v2 ? ContainerResourceMonitor.parseCpuStatUsageNanos(cpu) : cpu.readLong();
+        }
+
+        long readLong(ProcFileReader r) {
+            return r.load() ? r.readLong() : -1;
+        }
+
+        long[] readDiskIO() {
+            long[] total = new long[2];
+            for (ProcFileReader r : io) {
+                if (!r.load()) continue;
+                if (v2) {
+                    ContainerResourceMonitor.parseIoStatV2(r, total);
+                } else {
+                    ContainerResourceMonitor.parseBlkioV1(r, total);
+                }
+                // throttle 파일에 값이 있으면 대체 경로는 읽지 않음
+                if (total[0] > 0 || total[1] > 0) break;
+            }
+            return total;
+        }
+
+        Map<String, ContainerReading.InterfaceReading> readNetwork() {
+            // 첫 시도에서 실패하면 PID가 바뀌었을 수 있으므로 한 번 다시 찾음
+            for (int attempt = 0; attempt < 2; attempt++) {
+                if (netDev == null && !openNetDev()) {
+                    return Map.of();
+                }
+                if (netDev.load()) {
+                    netScratch.clear();
+                    ContainerResourceMonitor.parseNetDev(netDev, netScratch);
+                    Map<String, ContainerReading.InterfaceReading> result = new LinkedHashMap<>();
+                    netScratch.forEach((iface, v) -> {
+                        // 컨테이너 네임스페이스의 lo는 Docker stats에도 포함되지 않음
+                        if (!"lo".equals(iface)) {
+                            result.put(iface, new ContainerReading.InterfaceReading(v[0], v[1]));
+                        }
+                    });
+                    return result;
+                }
+                netDev.close();
+                netDev = null;
+            }
+            return Map.of();
+        }
+
+        //cgroup.procs의 첫 PID로 컨테이너 네임스페이스의 net/dev 리더를 엶
+        private boolean openNetDev() {
+            if (!procs.load()) return false;
+            long pid = procs.readLong();
+            if (pid <= 0) return false;
+            netDev = new ProcFileReader(procRoot.resolve(Long.toString(pid)).resolve("net").resolve("dev"));
+            return true;
+        }
+
+        void close() {
+            cpu.close();
+            memory.close();
+            for (ProcFileReader r : io) r.close();
+            procs.close();
+            if (netDev != null) netDev.close();
+        }
+    }
+}
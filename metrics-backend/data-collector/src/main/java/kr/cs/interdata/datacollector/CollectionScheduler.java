@@ -0,0 +1,122 @@
+package kr.cs.interdata.datacollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * CollectionScheduler는 수집 작업을 고정 주기(fixed-rate)로 실행하는 스케줄러이다.
+ *
+ * - 각 tick은 시작 시각 기준 (anchor + n * interval)에 맞춰 실행되므로, 작업 시간만큼 주기가 밀리는 drift가 누적되지 않는다.
+ * - 첫 tick은 벽시계(wall clock) 기준 interval 경계(예: 1000ms → 매 초 정각)에 정렬한다.
+ * - 작업이 interval을 넘겨 끝나면(overrun) 밀린 tick을 몰아서 실행하지 않고 건너뛴 뒤(skip-not-queue) 다음 경계에서 다시 실행한다.
+ * - 마지막 cycle 소요 시간과 누적 skip 횟수를 조회할 수 있다.
+ */
+public class CollectionScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionScheduler.class);
+
+    private final long intervalNanos;
+
+    private volatile boolean running = false;
+    private volatile long lastCycleNanos = 0;
+    private volatile long skippedTicks = 0;
+    private volatile long completedTicks = 0;
+
+    /**
+     * @param intervalMs 수집 주기(밀리초), 1 이상
+     */
+    public CollectionScheduler(long intervalMs) {
+        if (intervalMs <= 0) {
+            throw new IllegalArgumentException("intervalMs must be positive: " + intervalMs);
+        }
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    /**
+     * 현재 스레드에서 stop()이 호출되거나 인터럽트될 때까지 task를 고정 주기로 반복 실행한다.
+     * task에서 발생한 예외는 로깅만 하고 다음 tick을 계속 진행한다.
+     *
+     * @param task 매 tick마다 실행할 수집 작업
+     */
+    public void run(Runnable task) {
+        running = true;
+
+        // 첫 tick을 벽시계 기준 interval 경계에 맞춘다. 이후 tick은 단조 시계(nanoTime) 기준으로 계산.
+        long intervalMs = TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+        long wallNow = System.currentTimeMillis();
+        long delayToBoundaryMs = intervalMs - (wallNow % intervalMs);
+        long nextTick = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayToBoundaryMs);
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            if (!sleepUntil(nextTick)) {
+                break;
+            }
+
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.error("수집 작업 실행 중 예외 발생", e);
+            }
+            long end = System.nanoTime();
+
+            lastCycleNanos = end - start;
+            completedTicks++;
+            logger.debug("collection cycle took {} ms", TimeUnit.NANOSECONDS.toMillis(lastCycleNanos));
+
+            // 다음 tick 계산: 작업이 다음 경계를 넘겼다면 밀린 tick은 건너뛴다.
+            nextTick += intervalNanos;
+            if (end > nextTick) {
+                long missed = (end - nextTick) / intervalNanos + 1;
+                nextTick += missed * intervalNanos;
+                skippedTicks += missed;
+                logger.warn("collection cycle overran: took {} ms (interval {} ms), skipped {} tick(s), total skipped {}",
+                        TimeUnit.NANOSECONDS.toMillis(lastCycleNanos), intervalMs, missed, skippedTicks);
+            }
+        }
+        running = false;
+    }
+
+    //지정한 nanoTime 시각까지 대기. 인터럽트되면 false 반환
+    private boolean sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted() || !running) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //실행 루프 종료 요청
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getIntervalMs() {
+        return TimeUnit.NANOSECONDS.toMillis(intervalNanos);
+    }
+
+    //마지막 cycle 소요 시간(나노초)
+    public long getLastCycleNanos() {
+        return lastCycleNanos;
+    }
+
+    //overrun으로 건너뛴 누적 tick 수
+    public long getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    //정상 실행된 누적 tick 수
+    public long getCompletedTicks() {
+        return completedTicks;
+    }
+}
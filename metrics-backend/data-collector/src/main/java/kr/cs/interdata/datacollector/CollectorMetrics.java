@@ -0,0 +1,223 @@
+package kr.cs.interdata.datacollector;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CollectorMetrics는 수집기 자체의 동작 지표를 Micrometer에 등록한다. (/actuator/prometheus 로 노출)
+ *
+ * - collector_phase_seconds{phase=...}     : 수집 단계별 소요 시간 히스토그램
+ * - collector_produced_bytes_total / collector_produced_records_total : 인코딩해서 전송 요청한 양
+ * - collector_send_errors_total            : Kafka 전송 실패(콜백 예외, send() 거부) 누적 수
+ * - collector_ticks_skipped_total / collector_ticks_completed_total : 스케줄러 tick
+ * - collector_spool_*                      : 전송 실패 spool 깊이/바이트/가장 오래된 레코드 나이/버린 레코드
+ * - collector_counter_resets_total / collector_counter_wraps_total : delta 계산 중 카운터 reset/wraparound
+ * - collector_container_read_timeouts_total : 컨테이너 읽기 deadline 초과 누적 수 (사라진 컨테이너 포함)
+ * - collector_container_read_timeouts_by_container_total{container=...} : 현재 컨테이너별 deadline 초과 누적 수
+ *   (deadline을 처음 넘긴 컨테이너부터 등록하고, 컨테이너가 사라지면 제거)
+ * - collector_threshold_alerts_total{direction=...} : collector에서 임계값을 평가해 alert 토픽으로 보낸 위반 수
+ * - host_filesystem_size_bytes / host_filesystem_free_bytes{mount=...,device=...,fstype=...} : 파일시스템별 용량 (장치당 1개)
+ * - host_disk_total_bytes / host_disk_free_bytes : 장치 중복 없이 합산한 호스트 디스크 용량
+ *   (capacity 그룹 주기마다 recordFilesystems()로 갱신, 사라진 파일시스템은 제거)
+ *
+ * 카운터 값은 각 컴포넌트가 이미 가지고 있는 값을 scrape 시점에 읽으므로(FunctionCounter, Gauge) 수집 경로에 추가 비용이 없다.
+ */
+@Component
+public class CollectorMetrics {
+
+    /**
+     * 수집 cycle의 단계
+     */
+    public enum Phase {
+        HOST_READ("host_read"),             // 호스트 /proc, /sys 읽기
+        CONTAINER_LIST("container_list"),   // 컨테이너 목록 조회 및 수집 소스 동기화
+        CONTAINER_STATS("container_stats"), // 컨테이너 1개의 최신 값 읽기
+        DELTA("delta"),                     // 호스트/컨테이너 delta 및 사용률 계산 (tick당 합계)
+        SERIALIZE("serialize"),             // payload 인코딩 (레코드 1건)
+        KAFKA_SEND("kafka_send");           // send() 호출 (레코드 1건, ack 대기 제외)
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final String CONTAINER_READ_TIMEOUTS_BY_CONTAINER = "collector.container.read.timeouts.by.container";
+
+    private final MeterRegistry registry;
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Counter producedBytes;
+    private final Counter producedRecords;
+    private final Counter overThresholdAlerts;
+    private final Counter underThresholdAlerts;
+    private final MultiGauge filesystemSize;
+    private final MultiGauge filesystemFree;
+    private final AtomicLong diskTotalBytes = new AtomicLong();
+    private final AtomicLong diskFreeBytes = new AtomicLong();
+
+    public CollectorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("collector.phase")
+                    .description("수집 단계별 소요 시간")
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+        }
+        this.producedBytes = Counter.builder("collector.produced.bytes")
+                .description("인코딩해서 전송 요청한 바이트")
+                .baseUnit("bytes")
+                .register(registry);
+        this.producedRecords = Counter.builder("collector.produced.records")
+                .description("전송 요청한 레코드 수")
+                .register(registry);
+        this.overThresholdAlerts = thresholdAlertCounter(ThresholdAlert.DIRECTION_OVER);
+        this.underThresholdAlerts = thresholdAlertCounter(ThresholdAlert.DIRECTION_UNDER);
+        this.filesystemSize = MultiGauge.builder("host.filesystem.size")
+                .description("파일시스템 전체 용량")
+                .baseUnit("bytes")
+                .register(registry);
+        this.filesystemFree = MultiGauge.builder("host.filesystem.free")
+                .description("파일시스템 사용 가능 용량")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("host.disk.total", diskTotalBytes, AtomicLong::get)
+                .description("호스트 디스크 전체 용량 (장치 중복 없이 합산)")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("host.disk.free", diskFreeBytes, AtomicLong::get)
+                .description("호스트 디스크 사용 가능 용량 (장치 중복 없이 합산)")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    //단계 소요 시간 기록
+    public void recordPhase(Phase phase, long nanos) {
+        phaseTimers.get(phase).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    //전송 요청한 레코드 1건 기록
+    public void recordProduced(int bytes) {
+        producedRecords.increment();
+        producedBytes.increment(bytes);
+    }
+
+    //alert 토픽으로 보낸 임계값 위반 1건 기록
+    public void recordThresholdAlert(ThresholdAlert alert) {
+        (ThresholdAlert.DIRECTION_UNDER.equals(alert.direction()) ? underThresholdAlerts : overThresholdAlerts).increment();
+    }
+
+    //capacity 그룹을 읽은 tick의 파일시스템별 용량과 호스트 합계 기록 (목록에 없는 파일시스템의 gauge는 제거)
+    public void recordFilesystems(HostReading reading) {
+        List<MultiGauge.Row<?>> size = new ArrayList<>(reading.filesystems().size());
+        List<MultiGauge.Row<?>> free = new ArrayList<>(reading.filesystems().size());
+        for (HostReading.FilesystemSample fs : reading.filesystems()) {
+            Tags tags = Tags.of("mount", fs.mountPoint(), "device", fs.device(), "fstype", fs.fsType());
+            size.add(MultiGauge.Row.of(tags, fs.totalBytes()));
+            free.add(MultiGauge.Row.of(tags, fs.freeBytes()));
+        }
+        filesystemSize.register(size, true);
+        filesystemFree.register(free, true);
+        diskTotalBytes.set(reading.diskTotalBytes());
+        diskFreeBytes.set(reading.diskFreeBytes());
+    }
+
+    //스케줄러 tick 지표 등록
+    public void bindScheduler(CollectionScheduler scheduler) {
+        FunctionCounter.builder("collector.ticks.skipped", scheduler, CollectionScheduler::getSkippedTicks)
+                .description("overrun으로 건너뛴 tick 수")
+                .register(registry);
+        FunctionCounter.builder("collector.ticks.completed", scheduler, CollectionScheduler::getCompletedTicks)
+                .description("실행한 tick 수")
+                .register(registry);
+        Gauge.builder("collector.tick.last.duration", scheduler, s -> s.getLastCycleNanos() / 1e9)
+                .description("마지막 cycle 소요 시간")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    //Kafka 전송 및 spool 지표 등록
+    public void bindSender(SpoolingKafkaSender sender) {
+        FunctionCounter.builder("collector.send.errors", sender, SpoolingKafkaSender::getSendErrorCount)
+                .description("Kafka 전송 실패 수")
+                .register(registry);
+        Gauge.builder("collector.spool.depth", sender, SpoolingKafkaSender::getSpoolDepth)
+                .description("spool에 쌓인 레코드 수")
+                .register(registry);
+        Gauge.builder("collector.spool.depth.bytes", sender, SpoolingKafkaSender::getSpoolDepthBytes)
+                .description("spool에 쌓인 바이트")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("collector.spool.oldest.age", sender, s -> s.getSpoolOldestAgeMillis() / 1000.0)
+                .description("spool에서 가장 오래된 레코드의 대기 시간")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("collector.spool.dropped", sender, SpoolingKafkaSender::getSpoolDroppedCount)
+                .description("spool 공간 부족으로 버린 레코드 수")
+                .register(registry);
+    }
+
+    //delta 계산기의 reset/wraparound 횟수 등록 (tracker: host | container)
+    public void bindCounterTracker(String tracker, CounterDeltaTracker counters) {
+        FunctionCounter.builder("collector.counter.resets", counters, CounterDeltaTracker::getResetCount)
+                .description("카운터 감소를 reset으로 처리한 횟수")
+                .tag("tracker", tracker)
+                .register(registry);
+        FunctionCounter.builder("collector.counter.wraps", counters, CounterDeltaTracker::getWrapCount)
+                .description("32bit wraparound로 처리한 횟수")
+                .tag("tracker", tracker)
+                .register(registry);
+        Gauge.builder("collector.counter.series", counters, CounterDeltaTracker::size)
+                .description("추적 중인 카운터 시리즈 수")
+                .tag("tracker", tracker)
+                .register(registry);
+    }
+
+    //컨테이너 읽기 deadline 초과 누적 수 등록
+    public void bindContainerReadTimeouts(AtomicLong timeouts) {
+        FunctionCounter.builder("collector.container.read.timeouts", timeouts, AtomicLong::get)
+                .description("컨테이너 읽기 deadline 초과 수")
+                .register(registry);
+    }
+
+    //컨테이너 1개의 읽기 deadline 초과 누적 수 등록
+    public void bindContainerReadTimeouts(String containerId, AtomicLong timeouts) {
+        FunctionCounter.builder(CONTAINER_READ_TIMEOUTS_BY_CONTAINER, timeouts, AtomicLong::get)
+                .description("컨테이너별 읽기 deadline 초과 수")
+                .tag("container", containerId)
+                .register(registry);
+    }
+
+    //사라진 컨테이너의 deadline 초과 누적 수 제거
+    public void unbindContainerReadTimeouts(String containerId) {
+        Meter meter = registry.find(CONTAINER_READ_TIMEOUTS_BY_CONTAINER).tag("container", containerId).meter();
+        if (meter != null) {
+            registry.remove(meter);
+        }
+    }
+
+    private Counter thresholdAlertCounter(String direction) {
+        return Counter.builder("collector.threshold.alerts")
+                .description("collector에서 발견해 alert 토픽으로 보낸 임계값 위반 수")
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
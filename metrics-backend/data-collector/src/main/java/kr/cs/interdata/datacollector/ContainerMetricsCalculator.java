@@ -0,0 +1,183 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.ContainerSample;
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ContainerMetricsCalculator는 컨테이너의 최신 누적값(ContainerReading)으로 payload에 실을 지표를 계산한다.
+ *
+ * - CPU 사용률, 디스크/네트워크 delta는 컨테이너 ID를 그룹으로 하는 CounterDeltaTracker로 직전 값과 비교해 구한다.
+ *   네트워크 시리즈 이름은 "net/인터페이스명"이므로 "cpu", "disk"라는 인터페이스가 있어도 다른 시리즈와 섞이지 않는다.
+ * - 컨테이너는 남아 있고 인터페이스만 사라지면 그 인터페이스의 시리즈는 다음 계산에서 정리한다.
+ * - 수집 소스나 Docker 호출과 무관하므로 벤치마크(collector-benchmarks)에서도 그대로 사용한다.
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 호출한다.
+ */
+public class ContainerMetricsCalculator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerMetricsCalculator.class);
+
+    private static final String DISK_SERIES = "disk";
+    private static final String CPU_SERIES = "cpu";
+    private static final String NET_SERIES_PREFIX = "net/";
+    private static final int FIELD_READ = 0, FIELD_WRITE = 1;
+    private static final int FIELD_RX = 0, FIELD_TX = 1;
+    private static final int FIELD_CONTAINER_CPU = 0, FIELD_SYSTEM_CPU = 1;
+
+    // 그룹: 컨테이너 ID
+    private final CounterDeltaTracker counters;
+    // 인터페이스명 -> 네트워크 시리즈 이름 (tick마다 문자열을 조합하지 않도록 캐시, 인터페이스 이름 종류는 몇 개뿐)
+    private final Map<String, String> networkSeriesNames = new HashMap<>();
+
+    public ContainerMetricsCalculator() {
+        this(256);
+    }
+
+    public ContainerMetricsCalculator(int initialCapacity) {
+        this.counters = new CounterDeltaTracker(initialCapacity);
+    }
+
+    //주어진 컨테이너만 남기고 나머지 컨테이너의 직전 값 정리
+    public void retainContainers(Collection<String> containerIds) {
+        counters.retainGroups(containerIds);
+    }
+
+    //delta 계산기 (지표 등록용)
+    public CounterDeltaTracker getCounters() {
+        return counters;
+    }
+
+    /**
+     * 컨테이너 1개의 최신 값으로 지표와 직전 호출 대비 delta를 계산한다.
+     *
+     * @param containerId   컨테이너 ID (delta 시리즈 그룹)
+     * @param containerName payload에 실을 컨테이너 이름
+     * @param stats         최신 값
+     */
+    public ContainerSample calculate(String containerId, String containerName, ContainerReading stats) {
+        // CPU 사용률(%)
+        double cpuUsagePercent = calculateCpuUsage(containerId, stats);
+
+        // Memory 사용량(바이트)
+        long memoryUsedBytes = stats.memoryUsedBytes();
+
+        // Disk I/O delta
+        long diskReadDelta = counters.delta(containerId, DISK_SERIES, FIELD_READ, stats.diskReadBytes());
+        long diskWriteDelta = counters.delta(containerId, DISK_SERIES, FIELD_WRITE, stats.diskWriteBytes());
+
+        // Network delta
+        Map<String, InterfaceDelta> networkDelta = calculateNetworkDelta(containerId, stats);
+
+        return new ContainerSample(
+                containerName,
+                cpuUsagePercent,
+                memoryUsedBytes,
+                diskReadDelta,
+                diskWriteDelta,
+                networkDelta,
+                false);
+    }
+
+    //cpu 사용률 계산
+    //이전 상태와 비교해서 delta로 계산
+    public double calculateCpuUsage(String containerId, ContainerReading stats) {
+        //읽지 못한 값(-1)은 null로 취급
+        Long totalUsage = stats.cpuUsageNanos() >= 0 ? stats.cpuUsageNanos() : null;
+        Long systemUsage = stats.systemCpuUsageNanos() >= 0 ? stats.systemCpuUsageNanos() : null;
+        Long cpuCount = stats.onlineCpus() >= 0 ? stats.onlineCpus() : null;
+
+        //직전 tick 대비 증가량 (첫 샘플이거나 값을 모르면 0)
+        long cpuDelta = counters.delta(containerId, CPU_SERIES, FIELD_CONTAINER_CPU, stats.cpuUsageNanos());
+        long systemDelta = counters.delta(containerId, CPU_SERIES, FIELD_SYSTEM_CPU, stats.systemCpuUsageNanos());
+
+        double cpuUsagePercent = 0.0;
+
+        if (cpuUsageCondition(totalUsage, cpuDelta, systemUsage, systemDelta, cpuCount, containerId)) {
+            cpuUsagePercent = ((double) cpuDelta / systemDelta) * cpuCount * 100.0;
+        }
+
+        return cpuUsagePercent;
+    }
+
+    /**
+     * 컨테이너의 CPU 사용률을 계산하기 전, 필요한 조건이 모두 만족하는지 확인하는 함수.
+     *
+     * 검사하는 조건(모두 만족해야 정상 계산 가능):
+     *   1. totalUsage(누적 컨테이너 CPU)이 null이 아님
+     *   2. systemUsage(누적 시스템 CPU)가 null이 아님
+     *   3. cpuCount(코어 수)가 null이 아님
+     *   4. systemDelta(직전 tick 대비 시스템 CPU 증가량)가 양수 (첫 샘플이면 0)
+     *   5. totalDelta(직전 tick 대비 컨테이너 CPU 증가량)가 양수 (컨테이너 누적 사용량도 증가해야 정상)
+     *   6. cpuCount가 1 이상 양의 값이어야 함
+     *
+     * 반환값:
+     *   - true: 계산 가능한 상태(정상)
+     *   - false: 위 조건 중 하나 이상이 실패 (계산하지 않음, 로그 등으로 추가 분석 필요)
+     */
+    private boolean cpuUsageCondition(
+            Long totalUsage, long totalDelta,
+            Long systemUsage, long systemDelta,
+            Long cpuCount, String containerId
+    ) {
+        boolean condTotalUsageNotNull   = totalUsage != null;
+        boolean condSystemUsageNotNull  = systemUsage != null;
+        boolean condCpuCountNotNull     = cpuCount != null;
+        boolean condSystemUsageInc      = condSystemUsageNotNull && systemDelta > 0;
+        boolean condTotalUsageInc       = condTotalUsageNotNull && totalDelta > 0;
+        boolean condCpuCountPositive    = condCpuCountNotNull && cpuCount > 0;
+
+        if (!condTotalUsageNotNull) {
+            // 누적 CPU 사용량(totalUsage)이 null인 경우
+            logger.debug("totalUsage is null for container: {}", containerId);
+        }
+        if (!condSystemUsageNotNull) {
+            // 시스템 전체 CPU 사용량(systemUsage)이 null인 경우
+            logger.debug("systemUsage is null for container: {}", containerId);
+        }
+        if (!condCpuCountNotNull) {
+            // CPU 코어 개수(cpuCount)가 null인 경우
+            logger.debug("cpuCount is null for container: {}", containerId);
+        }
+        if (condSystemUsageNotNull && !condSystemUsageInc) {
+            // systemUsage는 존재하지만 이전 값보다 증가하지 않은 경우
+            logger.debug("systemUsage is not increased: {} (delta={}, containerId: {})", systemUsage, systemDelta, containerId);
+        }
+        if (condTotalUsageNotNull && !condTotalUsageInc) {
+            // totalUsage는 존재하지만 이전 값보다 증가하지 않은 경우
+            logger.debug("totalUsage is not increased: {} (delta={}, containerId: {})", totalUsage, totalDelta, containerId);
+        }
+        if (condCpuCountNotNull && !condCpuCountPositive) {
+            // cpuCount는 존재하지만 0이거나 음수인 경우
+            logger.debug("cpuCount is not positive: {} (containerId: {})", cpuCount, containerId);
+        }
+
+        return condTotalUsageNotNull &&
+                condSystemUsageNotNull &&
+                condCpuCountNotNull &&
+                condSystemUsageInc &&
+                condTotalUsageInc &&
+                condCpuCountPositive;
+    }
+
+    //컨테이너 네트워크 delta 계산
+    public Map<String, InterfaceDelta> calculateNetworkDelta(String containerId, ContainerReading stats) {
+        Map<String, InterfaceDelta> networkDelta = new LinkedHashMap<>();
+        //그룹 = 컨테이너 ID, 시리즈 = "net/인터페이스명" (처음 보는 인터페이스는 0)
+        stats.network().forEach((iface, net) -> {
+            String series = networkSeriesNames.computeIfAbsent(iface, k -> NET_SERIES_PREFIX + k);
+            networkDelta.put(iface, new InterfaceDelta(
+                    counters.delta(containerId, series, FIELD_RX, net.rxBytes()),
+                    counters.delta(containerId, series, FIELD_TX, net.txBytes())));
+        });
+        //이번 샘플에 없는 인터페이스의 직전 값 정리
+        counters.removeUntouchedSeries(containerId, NET_SERIES_PREFIX);
+        return networkDelta;
+    }
+}
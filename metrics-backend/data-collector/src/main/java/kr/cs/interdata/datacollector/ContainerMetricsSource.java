@@ -0,0 +1,61 @@
+package kr.cs.interdata.datacollector;
+
+import com.github.dockerjava.api.DockerClient;
+
+import java.io.Closeable;
+import java.util.Collection;
+
+/**
+ * ContainerMetricsSource는 컨테이너별 ContainerReading을 제공하는 수집 소스이다.
+ * CONTAINER_METRICS_SOURCE 설정으로 선택한다.
+ *
+ * 구현체:
+ *  - ContainerStatsStreamManager : Docker stats 스트리밍 구독 ("docker", 기본값)
+ *  - CgroupContainerReader       : 호스트 cgroup 파일 직접 읽기 ("cgroup")
+ *
+ * 매 tick마다 sync()를 한 번 호출한 뒤 컨테이너별로 read()를 호출한다.
+ */
+public interface ContainerMetricsSource extends Closeable {
+
+    /**
+     * tick 시작 시 현재 컨테이너 목록에 맞춰 내부 상태(구독, 경로 캐시 등)를 갱신한다.
+     *
+     * @param containerIds 실행 중인 컨테이너 ID 목록 (이전 tick에서 시작한 read()가 아직 끝나지 않은 컨테이너 포함)
+     */
+    void sync(Collection<String> containerIds);
+
+    /**
+     * @param containerId 컨테이너 ID
+     * @return 컨테이너의 최신 값, 읽을 수 없으면 null
+     */
+    ContainerReading read(String containerId);
+
+    /**
+     * read()가 I/O로 멈출 수 있는지 여부.
+     * true이면 호출 측은 컨테이너별로 분리된 (가상) 스레드에서 deadline을 두고 읽는다.
+     */
+    default boolean isBlocking() {
+        return false;
+    }
+
+    //자원 해제 (IOException 없음)
+    @Override
+    void close();
+
+    /**
+     * 설정 값(CONTAINER_METRICS_SOURCE)에 맞는 수집 소스를 생성한다.
+     *
+     * @param name          "cgroup" 또는 "docker"
+     * @param dockerClient  docker 소스에서 사용할 클라이언트
+     * @throws IllegalArgumentException 그 외 값 (오타로 수집 소스가 조용히 바뀌지 않도록 시작 시 실패)
+     */
+    static ContainerMetricsSource forName(String name, DockerClient dockerClient) {
+        if ("cgroup".equalsIgnoreCase(name)) {
+            return new CgroupContainerReader();
+        }
+        if ("docker".equalsIgnoreCase(name)) {
+            return new ContainerStatsStreamManager(dockerClient);
+        }
+        throw new IllegalArgumentException("알 수 없는 CONTAINER_METRICS_SOURCE: " + name + " (docker | cgroup)");
+    }
+}
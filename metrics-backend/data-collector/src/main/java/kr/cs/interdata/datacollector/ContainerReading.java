@@ -0,0 +1,43 @@
+package kr.cs.interdata.datacollector;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * ContainerReading은 컨테이너 1개의 리소스 누적값/순간값을 수집 소스(Docker stats 스트림, cgroup 파일)와 무관하게 담는 불변 객체이다.
+ * delta 및 CPU 사용률 계산은 호출 측(KafkaProducerRunner)에서 한다.
+ * 읽지 못한 값은 -1로 표시한다.
+ *
+ * @param cpuUsageNanos       컨테이너 누적 CPU 사용 시간(ns)
+ * @param systemCpuUsageNanos 호스트 전체 누적 CPU 시간(ns, 모든 코어 합)
+ * @param onlineCpus          온라인 CPU 코어 수
+ * @param memoryUsedBytes     현재 메모리 사용량(바이트)
+ * @param diskReadBytes       누적 디스크 읽기 바이트
+ * @param diskWriteBytes      누적 디스크 쓰기 바이트
+ * @param network             인터페이스 이름 -> 누적 송수신 바이트
+ * @param sampledAtNanos      값을 읽은(수신한) 시각 (System.nanoTime 기준, 오래된 샘플 판단용)
+ */
+public record ContainerReading(
+        long cpuUsageNanos,
+        long systemCpuUsageNanos,
+        long onlineCpus,
+        long memoryUsedBytes,
+        long diskReadBytes,
+        long diskWriteBytes,
+        Map<String, InterfaceReading> network,
+        long sampledAtNanos
+) {
+
+    public ContainerReading {
+        network = Collections.unmodifiableMap(network);
+    }
+
+    /**
+     * 네트워크 인터페이스 1개의 누적 트래픽
+     *
+     * @param rxBytes 누적 수신 바이트
+     * @param txBytes 누적 송신 바이트
+     */
+    public record InterfaceReading(long rxBytes, long txBytes) {
+    }
+}
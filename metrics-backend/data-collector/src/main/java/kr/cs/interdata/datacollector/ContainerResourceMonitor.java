@@ -1,9 +1,11 @@
 package kr.cs.interdata.datacollector;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -83,6 +85,19 @@ public class ContainerResourceMonitor {
     private static final String CG_IO_STAT_V2 = "/sys/fs/cgroup/io.stat";
     private static final String PROC_NET_DEV = "/proc/net/dev";
 
+    private static final byte[] USAGE_USEC_PREFIX = "usage_usec".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RBYTES_PREFIX = "rbytes=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WBYTES_PREFIX = "wbytes=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] READ_OP = "Read".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WRITE_OP = "Write".getBytes(StandardCharsets.US_ASCII);
+
+    //경로별 재사용 리더 (버퍼/파일 채널 재사용, 리더 단위로 동기화)
+    private static final Map<String, ProcFileReader> READERS = new ConcurrentHashMap<>();
+
+    private static ProcFileReader reader(String path) {
+        return READERS.computeIfAbsent(path, ProcFileReader::new);
+    }
+
 
     //주어진 파일 경로의 텍스트를 읽어 반환
     public static String readFile(String path) {
@@ -97,71 +112,96 @@ public class ContainerResourceMonitor {
     //주어진 파일 경로의 내용을 long 타입으로 파싱해서 반환
     public static Long readLongFromFile(String path) {
         //성공하면 long값, 실패하면 null값 반환
-        String content = readFile(path);
-        if (content == null) return null;
-        try {
-            return Long.parseLong(content);
-        } catch (NumberFormatException e) {
-            logger.log(Level.SEVERE, "Failed to parse long from file: " + path + " (content: " + content + ")", e);
-            return null;
+        ProcFileReader r = reader(path);
+        synchronized (r) {
+            if (!r.load()) {
+                logger.log(Level.SEVERE, "Failed to read file: " + path);
+                return null;
+            }
+            long value = r.readLong();
+            if (value < 0) {
+                logger.log(Level.SEVERE, "Failed to parse long from file: " + path);
+                return null;
+            }
+            return value;
         }
     }
 
     // 네트워크 인터페이스별 누적 수신/송신 바이트 수를 반환
     public static Map<String, Long[]> getNetworkStats() {
         Map<String, Long[]> networkStats = new HashMap<>();
-        String netDev = readFile(PROC_NET_DEV);
-        if (netDev == null) return networkStats;
-        String[] lines = netDev.split("\n");
+        ProcFileReader r = reader(PROC_NET_DEV);
+        Map<String, long[]> parsed = new LinkedHashMap<>();
+        synchronized (r) {
+            if (!r.load()) return networkStats;
+            parseNetDev(r, parsed);
+        }
+        parsed.forEach((iface, v) -> networkStats.put(iface, new Long[]{v[0], v[1]}));
+        return networkStats;
+    }
+
+    // 로드된 net/dev 리더에서 인터페이스별 [수신 바이트, 송신 바이트]를 out에 채움
+    static void parseNetDev(ProcFileReader r, Map<String, long[]> out) {
         //첫 2줄은 헤더여서 2번째 줄부터 파싱
-        for (int i = 2; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.isEmpty()) continue;
-            String[] parts = line.split(":");
-            if (parts.length < 2) continue;
-            String iface = parts[0].trim();
-            String[] data = parts[1].trim().split("\\s+");
-            if (data.length < 16) continue;
-            try {
-                long bytesReceived = Long.parseLong(data[0]);//수신 바이트
-                long bytesSent = Long.parseLong(data[8]);//송신 바이트
-                networkStats.put(iface, new Long[]{bytesReceived, bytesSent});
-            } catch (NumberFormatException e) {
-                logger.log(Level.WARNING, "Failed to parse network stats for interface: " + iface, e);
+        r.nextLine();
+        r.nextLine();
+        while (r.hasMore()) {
+            if (r.isEndOfLine()) {
+                r.nextLine();
+                continue;
             }
+            String iface = r.readToken((byte) ':', null);
+            if (!r.skipPast((byte) ':')) {
+                r.nextLine();
+                continue;
+            }
+            long bytesReceived = r.readLong();//수신 바이트
+            r.skipTokens(7);
+            long bytesSent = r.readLong();//송신 바이트
+            if (bytesReceived < 0 || bytesSent < 0) {
+                logger.log(Level.WARNING, "Failed to parse network stats for interface: " + iface);
+            } else {
+                out.put(iface, new long[]{bytesReceived, bytesSent});
+            }
+            r.nextLine();
         }
-        return networkStats;
     }
 
     // CPU 누적 사용량(나노초) 반환 (cgroup v1/v2 모두 지원)
     public static Long getCpuUsageNano() {
         //누적 CPU 사용량을 반환
-        String v1Path = CG_CPUACCT_USAGE_V1;
-        if (Files.exists(Paths.get(v1Path))) {
-            try {
-                String content = Files.readString(Paths.get(v1Path)).trim();
-                return Long.parseLong(content);
-            } catch (IOException | NumberFormatException e) {
-                logger.log(Level.WARNING, "Failed to read v1 cpuacct.usage", e);
+        if (Files.exists(Paths.get(CG_CPUACCT_USAGE_V1))) {
+            Long usage = readLongFromFile(CG_CPUACCT_USAGE_V1);
+            if (usage == null) {
+                logger.log(Level.WARNING, "Failed to read v1 cpuacct.usage");
             }
-        } else {
-            String v2Path = CG_CPU_STAT_V2;
-            if (Files.exists(Paths.get(v2Path))) {
-                try {
-                    for (String line : Files.readAllLines(Paths.get(v2Path))) {
-                        if (line.startsWith("usage_usec")) {
-                            String[] parts = line.split("\\s+");
-                            return Long.parseLong(parts[1]) * 1000L; // 마이크로초 → 나노초
-                        }
-                    }
-                } catch (IOException | NumberFormatException e) {
-                    logger.log(Level.WARNING, "Failed to read v2 cpu.stat", e);
+            return usage;
+        } else if (Files.exists(Paths.get(CG_CPU_STAT_V2))) {
+            ProcFileReader r = reader(CG_CPU_STAT_V2);
+            synchronized (r) {
+                if (!r.load()) {
+                    logger.log(Level.WARNING, "Failed to read v2 cpu.stat");
+                    return null;
                 }
+                long nanos = parseCpuStatUsageNanos(r);
+                return nanos < 0 ? null : nanos;
             }
         }
         return null;
     }
 
+    // 로드된 v2 cpu.stat 리더에서 usage_usec를 나노초로 변환해 반환 (없으면 -1)
+    static long parseCpuStatUsageNanos(ProcFileReader r) {
+        while (r.hasMore()) {
+            if (r.consume(USAGE_USEC_PREFIX)) {
+                long usec = r.readLong();
+                return usec < 0 ? -1 : usec * 1000L; // 마이크로초 → 나노초
+            }
+            r.nextLine();
+        }
+        return -1;
+    }
+
     // 컨테이너의 현재 메모리 사용량(바이트)을 반환
     public static Long getMemoryUsage() {
         Long memoryUsage = readLongFromFile(CG_MEM_USAGE_V1);
@@ -173,52 +213,57 @@ public class ContainerResourceMonitor {
 
     // 디스크 I/O (누적) 읽기/쓰기 바이트 수 반환
     public static long[] getDiskIO() {
-        long diskReadBytes = 0;
-        long diskWriteBytes = 0;
-        String blkioData = readFile(CG_BLKIO_V1);
-        if (blkioData == null) {
-            blkioData = readFile(CG_IO_STAT_V2);
-            if (blkioData != null) {
-                String[] lines = blkioData.split("\n");
-                for (String line : lines) {
-                    String[] parts = line.trim().split("\\s+");
-                    for (String part : parts) {
-                        if (part.startsWith("rbytes=")) {
-                            try {
-                                diskReadBytes += Long.parseLong(part.substring(7));
-                            } catch (NumberFormatException e) {
-                                logger.log(Level.WARNING, "Failed to parse rbytes: " + part, e);
-                            }
-                        } else if (part.startsWith("wbytes=")) {
-                            try {
-                                diskWriteBytes += Long.parseLong(part.substring(7));
-                            } catch (NumberFormatException e) {
-                                logger.log(Level.WARNING, "Failed to parse wbytes: " + part, e);
-                            }
-                        }
-                    }
-                }
+        long[] io = new long[2];
+        ProcFileReader r = reader(CG_BLKIO_V1);
+        synchronized (r) {
+            if (r.load()) {
+                parseBlkioV1(r, io);
+                return io;
+            }
+        }
+        r = reader(CG_IO_STAT_V2);
+        synchronized (r) {
+            if (r.load()) {
+                parseIoStatV2(r, io);
             }
-        } else {
-            String[] lines = blkioData.split("\n");
-            for (String line : lines) {
-                String[] parts = line.trim().split("\\s+");
-                if (parts.length == 3) {
-                    String op = parts[1];
-                    try {
-                        long value = Long.parseLong(parts[2]);
-                        if ("Read".equalsIgnoreCase(op)) {
-                            diskReadBytes += value;
-                        } else if ("Write".equalsIgnoreCase(op)) {
-                            diskWriteBytes += value;
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.log(Level.WARNING, "Failed to parse blkio value: " + line, e);
-                    }
+        }
+        return io;
+    }
+
+    // 로드된 v1 blkio 리더의 Read/Write 합계를 io[0], io[1]에 더함
+    static void parseBlkioV1(ProcFileReader r, long[] io) {
+        // v1: "8:0 Read 123456"
+        while (r.hasMore()) {
+            r.skipToken();
+            r.skipSpaces();
+            if (r.consumeTokenIgnoreCase(READ_OP)) {
+                long value = r.readLong();
+                if (value > 0) io[0] += value;
+            } else if (r.consumeTokenIgnoreCase(WRITE_OP)) {
+                long value = r.readLong();
+                if (value > 0) io[1] += value;
+            }
+            r.nextLine();
+        }
+    }
+
+    // 로드된 v2 io.stat 리더의 rbytes/wbytes 합계를 io[0], io[1]에 더함
+    static void parseIoStatV2(ProcFileReader r, long[] io) {
+        // v2: "8:0 rbytes=987654 wbytes=123456 rios=12 wios=34 ..."
+        while (r.hasMore()) {
+            while (!r.isEndOfLine()) {
+                if (r.consume(RBYTES_PREFIX)) {
+                    long value = r.readLong();
+                    if (value > 0) io[0] += value;
+                } else if (r.consume(WBYTES_PREFIX)) {
+                    long value = r.readLong();
+                    if (value > 0) io[1] += value;
+                } else {
+                    r.skipToken();
                 }
             }
+            r.nextLine();
         }
-        return new long[]{diskReadBytes, diskWriteBytes};
     }
 
     // 리소스 누적값을 모두 Map으로 반환 (변화량 계산은 외부 while문에서)
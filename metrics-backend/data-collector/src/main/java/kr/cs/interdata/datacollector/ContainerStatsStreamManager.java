@@ -0,0 +1,213 @@
+package kr.cs.interdata.datacollector;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.BlkioStatEntry;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ContainerStatsStreamManager는 컨테이너마다 Docker stats 스트리밍 구독을 1개씩 유지하고, 가장 최근에 받은 샘플을 보관한다.
+ * 샘플은 도착할 때 ContainerReading으로 변환해 두므로, 같은 샘플을 다시 읽으면 같은 인스턴스가 반환된다.
+ *
+ * 1회성 statsCmd는 Docker가 샘플을 만드는 데 약 1초가 걸리므로 컨테이너 수만큼 tick 지연이 커진다.
+ * 스트림은 Docker가 약 1초마다 새 샘플을 밀어주므로, 수집 tick은 read()로 최신값만 읽으면 된다.
+ *
+ * 사용 방법:
+ *  - 매 tick마다 sync(실행 중인 컨테이너 ID 목록)를 호출해 새로 시작한 컨테이너는 구독을 시작하고, 중지되거나 사라진 컨테이너는 구독을 닫는다.
+ *  - 구독이 에러/종료로 끊기면 목록과 최근 샘플에서 빠지고, 다음 sync()에서 다시 구독한다.
+ *  - 닫힌 구독에 늦게 도착한 샘플은 버린다. (사라진 컨테이너의 샘플이 남지 않도록)
+ */
+public class ContainerStatsStreamManager implements ContainerMetricsSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContainerStatsStreamManager.class);
+
+    private final DockerClient dockerClient;
+
+    // 컨테이너 ID -> 스트리밍 구독
+    private final Map<String, StatsSubscription> subscriptions = new ConcurrentHashMap<>();
+    // 컨테이너 ID -> 가장 최근에 받은 샘플
+    private final Map<String, ContainerReading> latest = new ConcurrentHashMap<>();
+
+    public ContainerStatsStreamManager(DockerClient dockerClient) {
+        this.dockerClient = dockerClient;
+    }
+
+    /**
+     * 구독 목록을 현재 컨테이너 목록에 맞춘다.
+     *
+     * @param containerIds 실행 중인 컨테이너 ID 목록
+     */
+    @Override
+    public void sync(Collection<String> containerIds) {
+        Set<String> current = Set.copyOf(containerIds);
+
+        // 사라진 컨테이너 구독 종료
+        subscriptions.keySet().removeIf(id -> {
+            if (current.contains(id)) {
+                return false;
+            }
+            StatsSubscription subscription = subscriptions.get(id);
+            if (subscription != null) {
+                subscription.stop();
+            }
+            closeQuietly(subscription);
+            logger.debug("stats stream stopped: {}", id);
+            return true;
+        });
+
+        // 새 컨테이너(또는 끊긴 구독) 구독 시작 (실패한 컨테이너는 건너뛰고 다음 sync()에서 재시도)
+        for (String id : current) {
+            subscriptions.computeIfAbsent(id, this::subscribe);
+        }
+    }
+
+    /**
+     * @param containerId 컨테이너 ID
+     * @return 가장 최근 샘플, 아직 한 번도 받지 못했으면 null
+     */
+    @Override
+    public ContainerReading read(String containerId) {
+        return latest.get(containerId);
+    }
+
+    //현재 유지 중인 구독 수
+    public int getSubscriptionCount() {
+        return subscriptions.size();
+    }
+
+    @Override
+    public void close() {
+        subscriptions.values().forEach(this::closeQuietly);
+        subscriptions.clear();
+        latest.clear();
+    }
+
+    //구독 시작, 실패하면 null (computeIfAbsent에 등록되지 않음)
+    private StatsSubscription subscribe(String containerId) {
+        try {
+            StatsSubscription subscription = dockerClient.statsCmd(containerId).exec(new StatsSubscription(containerId));
+            logger.debug("stats stream started: {}", containerId);
+            return subscription;
+        } catch (RuntimeException e) {
+            logger.warn("stats stream subscribe failed: {} ({})", containerId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void closeQuietly(StatsSubscription subscription) {
+        if (subscription == null) return;
+        try {
+            subscription.close();
+        } catch (Exception e) {
+            logger.debug("stats stream close failed: {}", e.getMessage());
+        }
+    }
+
+    //Docker Statistics -> ContainerReading 변환 (값이 없으면 -1, 메모리/디스크는 0, collector-benchmarks에서도 사용)
+    static ContainerReading toReading(Statistics stats) {
+        long cpuUsage = -1, systemUsage = -1, onlineCpus = -1;
+        CpuStatsConfig cpu = stats.getCpuStats();
+        if (cpu != null) {
+            if (cpu.getCpuUsage() != null && cpu.getCpuUsage().getTotalUsage() != null) {
+                cpuUsage = cpu.getCpuUsage().getTotalUsage();
+            }
+            if (cpu.getSystemCpuUsage() != null) systemUsage = cpu.getSystemCpuUsage();
+            if (cpu.getOnlineCpus() != null) onlineCpus = cpu.getOnlineCpus();
+        }
+
+        long memory = 0;
+        if (stats.getMemoryStats() != null && stats.getMemoryStats().getUsage() != null) {
+            memory = stats.getMemoryStats().getUsage();
+        }
+
+        long read = 0, write = 0;
+        List<BlkioStatEntry> ioStats = stats.getBlkioStats() != null
+                ? stats.getBlkioStats().getIoServiceBytesRecursive() : null;
+        if (ioStats != null) {
+            for (BlkioStatEntry entry : ioStats) {
+                Long value = entry.getValue();
+                if (value == null) continue;
+                if ("Read".equalsIgnoreCase(entry.getOp())) {
+                    read += value;
+                } else if ("Write".equalsIgnoreCase(entry.getOp())) {
+                    write += value;
+                }
+            }
+        }
+
+        Map<String, ContainerReading.InterfaceReading> network = new LinkedHashMap<>();
+        if (stats.getNetworks() != null) {
+            stats.getNetworks().forEach((iface, net) -> network.put(iface, new ContainerReading.InterfaceReading(
+                    net.getRxBytes() != null ? net.getRxBytes() : 0L,
+                    net.getTxBytes() != null ? net.getTxBytes() : 0L)));
+        }
+
+        return new ContainerReading(cpuUsage, systemUsage, onlineCpus, memory, read, write, network, System.nanoTime());
+    }
+
+    /**
+     * 컨테이너 1개의 stats 스트림 콜백. 샘플이 올 때마다 latest를 덮어쓴다.
+     * 닫힌 뒤(stop)에는 샘플을 버리고, 이 구독이 넣은 샘플만 latest에서 지운다.
+     */
+    private class StatsSubscription extends ResultCallback.Adapter<Statistics> {
+
+        private final String containerId;
+        private volatile boolean stopped;
+        // 이 구독이 마지막으로 latest에 넣은 샘플
+        private volatile ContainerReading lastReading;
+
+        StatsSubscription(String containerId) {
+            this.containerId = containerId;
+        }
+
+        @Override
+        public void onNext(Statistics stats) {
+            if (stats == null || stopped) {
+                return;
+            }
+            ContainerReading reading = toReading(stats);
+            lastReading = reading;
+            latest.put(containerId, reading);
+            // put 직전에 닫혔으면 방금 넣은 샘플을 되돌림
+            if (stopped) {
+                latest.remove(containerId, reading);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            logger.warn("stats stream error: {} ({})", containerId, throwable.getMessage());
+            // 목록에서 빼두면 다음 sync()에서 다시 구독
+            stop();
+            subscriptions.remove(containerId, this);
+            super.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            logger.debug("stats stream completed: {}", containerId);
+            stop();
+            subscriptions.remove(containerId, this);
+            super.onComplete();
+        }
+
+        //더 이상 샘플을 받지 않고, 이 구독의 마지막 샘플을 latest에서 지움
+        void stop() {
+            stopped = true;
+            ContainerReading reading = lastReading;
+            if (reading != null) {
+                latest.remove(containerId, reading);
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package kr.cs.interdata.datacollector;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CounterDeltaTracker는 누적 카운터(디스크/네트워크 바이트, CPU 시간 등)의 직전 값을 보관하고 tick 간 delta를 계산한다.
+ *
+ * 시리즈는 (그룹, 이름, 필드 번호)로 구분하며(예: 컨테이너 ID, "eth0", RX/TX) 처음 보는 시리즈에 정수 ID를 발급한다.
+ * 직전 값은 ID를 인덱스로 하는 long[] 슬롯에 저장하므로 시리즈마다 Long 박싱이나 "iface:rx" 같은 키 문자열 조합이 생기지 않는다. 그룹은 보통 컨테이너 ID나 네트워크 인터페이스이고,
+ * 그룹 단위로 한꺼번에 정리(retainGroups, removeUntouchedGroups)하거나 그룹 안의 사라진 시리즈만 정리(removeUntouchedSeries)하면
+ * 비워진 슬롯은 다음 시리즈가 재사용한다.
+ *
+ * delta 규칙:
+ *  - 첫 샘플(priming)  : 값만 저장하고 0 반환 (누적 총량이 그대로 delta로 나가지 않도록)
+ *  - 값을 모름(음수)   : 0 반환, 다음 정상 값부터 다시 priming
+ *  - 값이 증가/동일    : 현재 - 직전
+ *  - 32bit wraparound : 직전 값이 2^32 바로 아래였고 현재 값이 작으면, 2^32를 넘어 한 바퀴 돈 것으로 보고 넘어간 만큼을 더함
+ *  - 그 외 감소(reset) : 컨테이너 재시작 등으로 카운터가 다시 시작한 것으로 보고 0 반환, 현재 값이 새 기준값
+ *                       (재시작 후 누적값이 한 tick의 delta로 튀어 CPU 사용률 등이 치솟지 않도록 그 샘플은 건너뜀)
+ *
+ * 한 스레드(수집 tick)에서만 사용하며 스레드 안전하지 않다.
+ */
+public class CounterDeltaTracker {
+
+    private static final long MAX_UINT32 = 0xFFFFFFFFL;
+    // 이 폭 안에서 2^32 근처 → 0 근처로 떨어질 때만 wraparound로 판단 (1/8 = 512MB)
+    private static final long WRAP_WINDOW = MAX_UINT32 >>> 3;
+
+    private static final byte SLOT_FREE = 0;
+    private static final byte SLOT_UNPRIMED = 1;
+    private static final byte SLOT_PRIMED = 2;
+
+    // 그룹 이름 -> 그룹 (시리즈 이름 -> 시리즈(필드별 슬롯 ID))
+    private final Map<String, Group> groups = new HashMap<>();
+
+    // 슬롯 ID -> 직전 값 / 상태
+    private long[] previous;
+    private byte[] states;
+    private int slotCount;
+
+    // 정리된 그룹에서 반환된 빈 슬롯
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    private long resetCount;
+    private long wrapCount;
+
+    public CounterDeltaTracker() {
+        this(64);
+    }
+
+    public CounterDeltaTracker(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 8);
+        this.previous = new long[capacity];
+        this.states = new byte[capacity];
+    }
+
+    /**
+     * 시리즈 ID를 반환한다. 처음 보는 시리즈면 슬롯을 새로 발급한다.
+     * 호출 측이 ID를 보관해 두면 이후 delta(int, long)로 Map 조회 없이 계산할 수 있다.
+     *
+     * @param group 그룹 (컨테이너 ID, 인터페이스 키 등)
+     * @param name  그룹 안의 시리즈 이름 ("disk", "eth0" 등)
+     * @param field 같은 이름 안의 필드 번호 (read/write, rx/tx 등을 0, 1, ...로 구분)
+     */
+    public int seriesId(String group, String name, int field) {
+        Group g = groups.computeIfAbsent(group, k -> new Group());
+        g.touched = true;
+        Series series = g.series.get(name);
+        if (series == null) {
+            series = new Series();
+            g.series.put(name, series);
+        }
+        series.touched = true;
+        if (series.ids.length <= field) {
+            int from = series.ids.length;
+            series.ids = Arrays.copyOf(series.ids, field + 1);
+            for (int i = from; i < series.ids.length; i++) {
+                series.ids[i] = allocate();
+            }
+        }
+        return series.ids[field];
+    }
+
+    /**
+     * (그룹, 이름, 필드) 시리즈의 현재 누적값을 기록하고 직전 값과의 delta를 반환한다.
+     */
+    public long delta(String group, String name, int field, long value) {
+        return delta(seriesId(group, name, field), value);
+    }
+
+    /**
+     * 슬롯의 현재 누적값을 기록하고 직전 값과의 delta를 반환한다.
+     *
+     * @param id    seriesId()로 받은 시리즈 ID
+     * @param value 현재 누적값 (음수면 값을 모르는 것으로 취급)
+     * @return 직전 tick 대비 증가량, 계산할 수 없으면 0
+     */
+    public long delta(int id, long value) {
+        if (value < 0) {
+            states[id] = SLOT_UNPRIMED;
+            return 0;
+        }
+        long prev = previous[id];
+        byte state = states[id];
+        previous[id] = value;
+        states[id] = SLOT_PRIMED;
+
+        if (state != SLOT_PRIMED) {
+            return 0;
+        }
+        if (value >= prev) {
+            return value - prev;
+        }
+        if (prev <= MAX_UINT32 && prev > MAX_UINT32 - WRAP_WINDOW && value < WRAP_WINDOW) {
+            wrapCount++;
+            return (MAX_UINT32 - prev) + 1 + value;
+        }
+        resetCount++;
+        return 0;
+    }
+
+    /**
+     * 주어진 그룹만 남기고 나머지 그룹의 시리즈를 모두 정리한다. (사라진 컨테이너 정리용)
+     */
+    public void retainGroups(Collection<String> keep) {
+        groups.entrySet().removeIf(e -> {
+            if (keep.contains(e.getKey())) return false;
+            release(e.getValue());
+            return true;
+        });
+    }
+
+    /**
+     * 마지막 호출 이후 한 번도 조회되지 않은 그룹을 정리한다. (사라진 네트워크 인터페이스 정리용)
+     * 남은 그룹은 다시 "조회되지 않음" 상태로 돌아간다.
+     */
+    public void removeUntouchedGroups() {
+        groups.values().removeIf(g -> {
+            if (g.touched) {
+                g.touched = false;
+                return false;
+            }
+            release(g);
+            return true;
+        });
+    }
+
+    /**
+     * 그룹 안에서 이름이 prefix로 시작하는 시리즈 중, 마지막 호출 이후 한 번도 조회되지 않은 시리즈를 정리한다.
+     * (컨테이너는 남아 있지만 네트워크 인터페이스만 사라진 경우 등) 남은 시리즈는 다시 "조회되지 않음" 상태로 돌아간다.
+     */
+    public void removeUntouchedSeries(String group, String prefix) {
+        Group g = groups.get(group);
+        if (g == null) return;
+        g.series.entrySet().removeIf(e -> {
+            if (!e.getKey().startsWith(prefix)) return false;
+            Series series = e.getValue();
+            if (series.touched) {
+                series.touched = false;
+                return false;
+            }
+            release(series);
+            return true;
+        });
+    }
+
+    //현재 추적 중인 시리즈 수
+    public int size() {
+        return slotCount - freeCount;
+    }
+
+    //카운터 감소를 reset으로 처리한 누적 횟수
+    public long getResetCount() {
+        return resetCount;
+    }
+
+    //32bit wraparound로 처리한 누적 횟수
+    public long getWrapCount() {
+        return wrapCount;
+    }
+
+    private int allocate() {
+        int id;
+        if (freeCount > 0) {
+            id = freeSlots[--freeCount];
+        } else {
+            if (slotCount == previous.length) {
+                previous = Arrays.copyOf(previous, slotCount * 2);
+                states = Arrays.copyOf(states, slotCount * 2);
+            }
+            id = slotCount++;
+        }
+        states[id] = SLOT_UNPRIMED;
+        return id;
+    }
+
+    private void release(Group group) {
+        for (Series series : group.series.values()) {
+            release(series);
+        }
+    }
+
+    private void release(Series series) {
+        for (int id : series.ids) {
+            states[id] = SLOT_FREE;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = id;
+        }
+    }
+
+    /**
+     * 그룹 1개의 시리즈 이름 -> 시리즈
+     */
+    private static final class Group {
+        private final Map<String, Series> series = new HashMap<>(4);
+        private boolean touched;
+    }
+
+    /**
+     * 시리즈 1개의 필드별 슬롯 ID
+     */
+    private static final class Series {
+        private int[] ids = new int[0];
+        private boolean touched;
+    }
+}
@@ -1,14 +1,17 @@
 package kr.cs.interdata.datacollector;
 
-import com.github.dockerjava.api.model.Container;
-import com.github.dockerjava.api.model.Statistics;
-import com.github.dockerjava.core.InvocationBuilder;
-import com.google.gson.Gson;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import kr.cs.interdata.metricsmodel.ContainerSample;
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+import kr.cs.interdata.metricsmodel.MetricFields;
+import kr.cs.interdata.producer.routing.MetricTopicRouter;
+import kr.cs.interdata.producer.routing.MetricType;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
-import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
@@ -16,20 +19,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.*;
-
-
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.github.dockerjava.api.model.BlkioStatEntry;
-
 
 @SpringBootApplication
 public class DataCollectorApplication {
@@ -45,66 +44,301 @@ class KafkaProducerRunner implements CommandLineRunner {
 
     private static final String HOSTNAME_PATH = "/host/etc/hostname";
 
+    // CounterDeltaTracker 시리즈 이름 / 필드 번호
+    private static final String HOST_DISK_GROUP = "disk";
+    private static final String DISK_SERIES = "disk";
+    private static final String NET_SERIES = "net";
+    private static final int FIELD_READ = 0, FIELD_WRITE = 1;
+    private static final int FIELD_RX = 0, FIELD_TX = 1;
+
     @Value("${BOOTSTRAP_SERVER}")
     private String kafkaBootstrapServer;
 
+    //기본 토픽 (종류별 토픽을 설정하지 않으면 모든 메트릭을 여기로 보냄)
     @Value("${KAFKA_TOPIC_NAME}")
     private String kafkaTopic;
 
+    //호스트 메트릭 토픽 (비우면 KAFKA_TOPIC_NAME)
+    @Value("${KAFKA_HOST_TOPIC_NAME:}")
+    private String kafkaHostTopic;
+
+    //split 모드의 컨테이너 전용 레코드 토픽 (비우면 KAFKA_TOPIC_NAME)
+    @Value("${KAFKA_CONTAINER_TOPIC_NAME:}")
+    private String kafkaContainerTopic;
+
+    //collector에서 발견한 임계값 위반을 보내는 토픽 (메트릭 토픽과 분리해 backlog가 있어도 먼저 처리됨)
+    @Value("${KAFKA_ALERT_TOPIC_NAME:metric-alerts}")
+    private String kafkaAlertTopic;
+
     @Value("${HOST_ID:host-001}")
     private String hostId;
 
     @Value("${HOST_NAME:localhost}")
     private String hostName;
 
+    //수집 주기(ms)
+    @Value("${COLLECT_INTERVAL_MS:1000}")
+    private long collectIntervalMs;
+
+    //지표 그룹별 수집 주기(ms). 수집 주기의 배수로 설정 (cpu/memory/network는 기본 매 tick)
+    @Value("${SAMPLE_CPU_INTERVAL_MS:${COLLECT_INTERVAL_MS:1000}}")
+    private long sampleCpuIntervalMs;
+
+    @Value("${SAMPLE_MEMORY_INTERVAL_MS:${COLLECT_INTERVAL_MS:1000}}")
+    private long sampleMemoryIntervalMs;
+
+    @Value("${SAMPLE_NETWORK_INTERVAL_MS:${COLLECT_INTERVAL_MS:1000}}")
+    private long sampleNetworkIntervalMs;
+
+    @Value("${SAMPLE_DISK_INTERVAL_MS:5000}")
+    private long sampleDiskIntervalMs;
+
+    @Value("${SAMPLE_TEMPERATURE_INTERVAL_MS:60000}")
+    private long sampleTemperatureIntervalMs;
+
+    //파일시스템 용량(statvfs) 갱신 주기. payload에는 실리지 않음
+    @Value("${SAMPLE_CAPACITY_INTERVAL_MS:60000}")
+    private long sampleCapacityIntervalMs;
+
+    //window 집계: 이 tick 수만큼 모은 뒤 지표별 min/max/mean/last/count 요약 1건만 발행 (1이면 매 tick 발행)
+    //예: COLLECT_INTERVAL_MS=200, METRIC_WINDOW_TICKS=5 → 200ms마다 읽고 1초마다 발행
+    @Value("${METRIC_WINDOW_TICKS:1}")
+    private int metricWindowTicks;
+
+    //임계값을 조회할 api-backend 주소 (비우면 collector에서 임계값을 평가하지 않음)
+    //예: http://api-backend:8004
+    @Value("${THRESHOLD_API_URL:}")
+    private String thresholdApiUrl;
+
+    //임계값 조회 주기(ms). 임계값 변경은 최대 이 시간만큼 늦게 반영됨
+    @Value("${THRESHOLD_POLL_INTERVAL_MS:30000}")
+    private long thresholdPollIntervalMs;
+
+    //window 집계 메트릭에서 임계값과 비교할 통계 (min | max | mean | last, api-backend와 같게 설정)
+    @Value("${THRESHOLD_WINDOW_STATISTIC:max}")
+    private String thresholdWindowStatistic;
+
+    //Kafka 메시지 인코딩 형식 (json | binary)
+    @Value("${METRIC_ENCODING:json}")
+    private String metricEncoding;
+
+    //Kafka 레코드 발행 방식 (combined: 호스트+컨테이너 1건 | split: 호스트 1건 + 컨테이너 묶음별 1건)
+    @Value("${METRIC_PUBLISH_MODE:combined}")
+    private String metricPublishMode;
+
+    //split 모드에서 레코드 1건에 담는 최대 컨테이너 수 (1이면 컨테이너마다 1건)
+    @Value("${METRIC_CONTAINER_BATCH_SIZE:1}")
+    private int containerBatchSize;
+
+    //컨테이너 메트릭 수집 소스 (docker | cgroup)
+    @Value("${CONTAINER_METRICS_SOURCE:docker}")
+    private String containerMetricsSource;
+
+    //컨테이너별 읽기 deadline(ms). 넘기면 직전 값을 stale로 표시해 보냄
+    @Value("${CONTAINER_READ_TIMEOUT_MS:500}")
+    private long containerReadTimeoutMs;
+
+    //전송 실패 레코드를 쌓아 둘 spool 파일 경로 (비우면 spool 사용 안 함)
+    @Value("${SPOOL_PATH:/var/lib/data-collector/metrics.spool}")
+    private String spoolPath;
+
+    //spool 최대 크기(바이트). 가득 차면 가장 오래된 레코드부터 버림 (기본 64MB)
+    @Value("${SPOOL_MAX_BYTES:67108864}")
+    private long spoolMaxBytes;
+
+    //브로커 복구 후 spool 재전송 속도 (초당 레코드 수)
+    @Value("${SPOOL_REPLAY_RATE:200}")
+    private int spoolReplayRate;
+
+    //send()가 buffer.memory 소진/메타데이터 대기로 막힐 수 있는 최대 시간(ms). 넘기면 spool로 보냄
+    @Value("${KAFKA_MAX_BLOCK_MS:1000}")
+    private long kafkaMaxBlockMs;
+
     private final MachineResourceMonitor hostMonitor = new MachineResourceMonitor();
-    private final DockerStatsCollector dockerCollector = new DockerStatsCollector();
-
-    // 호스트 delta 계산용
-    private long prevDiskReadBytes = 0;
-    private long prevDiskWriteBytes = 0;
-    private final Map<String, Long> prevNetRecv = new HashMap<>();
-    private final Map<String, Long> prevNetSent = new HashMap<>();
-
-    // 컨테이너 delta 계산용
-    private final Map<String, Long> prevContainerDiskRead = new ConcurrentHashMap<>();
-    private final Map<String, Long> prevContainerDiskWrite = new ConcurrentHashMap<>();
-    private final Map<String, Map<String, Long>> prevContainerNet = new ConcurrentHashMap<>();
-    private final Map<String, Long> prevContainerTotalUsage = new ConcurrentHashMap<>();
-    private final Map<String, Long> prevContainerSystemUsage = new ConcurrentHashMap<>();
-
-    // 컨테이너 병렬 수집용
-    private final ExecutorService pool = Executors.newFixedThreadPool(
-            Math.max(2, Runtime.getRuntime().availableProcessors())
-    );
+    //호스트 이름 파일 (바뀐 경우에만 다시 읽음)
+    private final WatchedTextFile hostnameFile = new WatchedTextFile(HOSTNAME_PATH);
+    private final DockerStatsCollector dockerCollector;
+    // 컨테이너 메트릭 수집 소스 (run()에서 설정에 맞게 생성)
+    private ContainerMetricsSource containerSource;
+
+    // 호스트 디스크 delta 계산용 (그룹: "disk")
+    private final CounterDeltaTracker hostCounters = new CounterDeltaTracker();
+    // 호스트 네트워크 delta 계산용 (그룹: 인터페이스 키, network 그룹을 수집한 tick에만 정리)
+    private final CounterDeltaTracker interfaceCounters = new CounterDeltaTracker();
+    // 지표 그룹별 수집 주기 (run()에서 설정에 맞게 생성)
+    private TieredSampler sampler;
+    // window 집계 (METRIC_WINDOW_TICKS > 1일 때만 생성) 및 현재 window에서 지난 tick 수
+    private MetricWindowAggregator metricWindow;
+    private int windowTick;
+    // 임계값 캐시 (THRESHOLD_API_URL이 있을 때만 생성) 및 평가기
+    private ThresholdSettingsClient thresholdClient;
+    private EdgeThresholdEvaluator edgeEvaluator;
+    private final ObjectWriter alertWriter = new ObjectMapper().writerFor(ThresholdAlert.class);
+    // 메시지 종류별 토픽 (run()에서 설정에 맞게 생성)
+    private MetricTopicRouter topicRouter;
+
+    // 컨테이너 지표 및 delta 계산 (그룹: 컨테이너 ID)
+    private final ContainerMetricsCalculator containerCalculator = new ContainerMetricsCalculator(256);
+
+    // 직전 tick에서 계산에 사용한 샘플과 결과 (스트림에서 새 샘플이 아직 오지 않은 경우 재사용)
+    private final Map<String, ContainerReading> lastConsumedReading = new HashMap<>();
+    private final Map<String, ContainerSample> lastContainerMetrics = new HashMap<>();
+
+    // 마지막으로 반영한 컨테이너 레지스트리 버전과 그 때의 ID 목록
+    private long containerMembershipVersion = -1;
+    private Set<String> currentContainerIds;
+
+    // 컨테이너별 읽기용 가상 스레드 (blocking 소스일 때만 사용)
+    private final ExecutorService containerReadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    // 아직 끝나지 않은 컨테이너별 읽기 (이전 tick의 읽기가 멈춰 있으면 다시 제출하지 않음)
+    private final Map<String, Future<ContainerReading>> inFlightReads = new ConcurrentHashMap<>();
+    // 컨테이너별 deadline 초과 누적 횟수
+    private final Map<String, AtomicLong> containerTimeoutCounts = new ConcurrentHashMap<>();
+    // 전체 deadline 초과 누적 횟수 (사라진 컨테이너 포함)
+    private final AtomicLong containerReadTimeouts = new AtomicLong();
+
+    // 수집기 자체 지표 (단계별 소요 시간, 전송량 등)
+    private final CollectorMetrics metrics;
+    // 현재 tick에서 delta 계산에 쓴 시간 합계 (tick 끝에 한 번 기록)
+    private long tickDeltaNanos;
+
+    //reconcileIntervalMs: 이벤트 누락 대비 컨테이너 전체 목록 재조회 주기 (CONTAINER_RECONCILE_INTERVAL_MS, 기본 5분)
+    KafkaProducerRunner(CollectorMetrics metrics,
+                        @Value("${CONTAINER_RECONCILE_INTERVAL_MS:300000}") long reconcileIntervalMs) {
+        this.metrics = metrics;
+        this.dockerCollector = new DockerStatsCollector(reconcileIntervalMs);
+        metrics.bindCounterTracker("host", hostCounters);
+        metrics.bindCounterTracker("interface", interfaceCounters);
+        metrics.bindCounterTracker("container", containerCalculator.getCounters());
+        metrics.bindContainerReadTimeouts(containerReadTimeouts);
+    }
 
     @Override
     public void run(String... args) throws Exception {
         //run 메서드는 애플리케이션 시작 시 실행되며, Kafka 프로듀서를 통해 주기적으로 리소스 데이터를 수집 및 전송함.
         Properties props = buildKafkaProperties();
-        // JSON 출력 시 보기 좋게 들여쓰기를 활성화한 ObjectMapper 생성
-        ObjectMapper prettyMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        // METRIC_ENCODING에 맞는 인코더 (기본 json: 기존 consumer와 호환)
+        MetricEncoder encoder = MetricEncoder.forName(metricEncoding);
+        logger.info("metric encoding: {}, publish mode: {}", encoder.format(), metricPublishMode);
+        topicRouter = new MetricTopicRouter(
+                MetricTopicRouter.topics(kafkaHostTopic, kafkaContainerTopic, null, kafkaAlertTopic), kafkaTopic);
+        logger.info("metric topics: {}", topicRouter.describe());
+        // CONTAINER_METRICS_SOURCE에 맞는 컨테이너 수집 소스 (기본 docker stats 스트림)
+        containerSource = ContainerMetricsSource.forName(containerMetricsSource, dockerCollector.getDockerClient());
+        logger.info("container metrics source: {}", containerSource.getClass().getSimpleName());
+        sampler = new TieredSampler(collectIntervalMs, TieredSampler.intervals(sampleCpuIntervalMs, sampleMemoryIntervalMs,
+                sampleNetworkIntervalMs, sampleDiskIntervalMs, sampleTemperatureIntervalMs, sampleCapacityIntervalMs));
+        logger.info("metric group intervals: {}", sampler.describe());
+        if (metricWindowTicks > 1) {
+            metricWindow = new MetricWindowAggregator(metricWindowTicks, collectIntervalMs);
+            logger.info("metric window: {} ticks ({}ms)", metricWindowTicks, metricWindowTicks * collectIntervalMs);
+        }
+        if (thresholdApiUrl != null && !thresholdApiUrl.isBlank()) {
+            thresholdClient = new ThresholdSettingsClient(thresholdApiUrl, thresholdPollIntervalMs);
+            edgeEvaluator = new EdgeThresholdEvaluator(thresholdWindowStatistic);
+            logger.info("edge threshold evaluation: {} (poll {}ms)", thresholdApiUrl, thresholdPollIntervalMs);
+        }
 
-        // Kafka 프로듀서 생성 및 try-with-resources를 통해 자동 자원 해제 처리
-        try (Producer<String, String> producer = new KafkaProducer<>(props)) {
-            while (true) {
-                // 1. 호스트 정보 수집 및 delta 계산
-                Map<String, Object> hostData = collectHostResource();
+        // Kafka 프로듀서 생성 및 try-with-resources를 통해 자동 자원 해제 처리 (컨테이너 수집 소스 포함)
+        try (Producer<String, byte[]> producer = new KafkaProducer<>(props);
+             DiskSpool spool = openSpool();
+             SpoolingKafkaSender sender = new SpoolingKafkaSender(producer, spool, spoolReplayRate, kafkaMaxBlockMs + 5_000);
+             ContainerMetricsSource source = containerSource;
+             ThresholdSettingsClient thresholds = thresholdClient;
+             ExecutorService readers = containerReadExecutor) {
+            // COLLECT_INTERVAL_MS 주기로 수집/전송 (drift 보정, overrun 시 밀린 tick은 skip)
+            CollectionScheduler scheduler = new CollectionScheduler(collectIntervalMs);
+            metrics.bindScheduler(scheduler);
+            metrics.bindSender(sender);
+            logger.info("collection scheduler started: interval={}ms", collectIntervalMs);
+            scheduler.run(() -> collectAndSend(sender, encoder));
+        }
+    }
 
-                // 2. 컨테이너 정보 수집 및 delta 계산
-                Map<String, Map<String, Object>> containersData = collectAllContainerResource();
+    //1회 수집 cycle: 호스트/컨테이너 수집 → payload 조립 → 인코딩 → 카프카 전송
+    private void collectAndSend(SpoolingKafkaSender sender, MetricEncoder encoder) {
+        tickDeltaNanos = 0;
+        // 1. 호스트 정보 수집 및 delta 계산
+        HostSample hostData = collectHostResource();
+
+        // 2. 컨테이너 정보 수집 및 delta 계산
+        Map<String, ContainerSample> containersData = collectAllContainerResource();
+        metrics.recordPhase(CollectorMetrics.Phase.DELTA, tickDeltaNanos);
+
+        // window 집계 모드: window가 끝나는 tick에만 요약 1건 발행 (컨테이너는 collectContainerStats에서 기록)
+        if (metricWindow != null) {
+            metricWindow.recordHost(hostData);
+            if (++windowTick < metricWindow.getWindowTicks()) {
+                return;
+            }
+            windowTick = 0;
+            HostSample summary = metricWindow.flush(hostData, containersData);
+            hostData = summary.withContainers(Map.of());
+            containersData = summary.containers();
+        }
 
-                // 3. 통합 JSON 조립
-                hostData.put("containers", containersData);
+        // 3. payload 조립 및 전송
+        //    모든 레코드의 key는 hostId → 같은 호스트의 레코드는 같은 파티션에 순서대로 쌓이고, consumer는 파티션 수만큼 병렬 처리
+        if (!"split".equalsIgnoreCase(metricPublishMode)) {
+            //호스트 + 모든 컨테이너를 레코드 1건으로
+            publish(sender, encoder, hostData.withContainers(containersData));
+            return;
+        }
 
-                // 4. JSON 문자열로 변환 (pretty print) 후 콘솔에 출력
-                String prettyJson = prettyMapper.writeValueAsString(hostData);
-                System.out.println(prettyJson);
+        //호스트 레코드 1건 + 컨테이너 묶음(containerBatchSize개)마다 레코드 1건
+        publish(sender, encoder, hostData);
+        int batchSize = Math.max(1, containerBatchSize);
+        Map<String, ContainerSample> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, ContainerSample> entry : containersData.entrySet()) {
+            batch.put(entry.getKey(), entry.getValue());
+            if (batch.size() == batchSize) {
+                publish(sender, encoder, hostData.containersOnly(batch));
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            publish(sender, encoder, hostData.containersOnly(batch));
+        }
+    }
 
-                //카프카에 메시지 전송
-                sendKafkaRecord(producer, kafkaTopic, prettyJson);
+    //payload 1건을 설정된 형식으로 인코딩해 종류별 토픽에 hostId를 key로 전송
+    private void publish(SpoolingKafkaSender sender, MetricEncoder encoder, HostSample payload) {
+        //임계값을 받아 둔 경우 먼저 평가해 위반은 alert 토픽으로 바로 보내고, api-backend가 다시 평가하지 않도록 표시
+        ThresholdSettingsClient.Thresholds thresholds = thresholdClient != null ? thresholdClient.current() : null;
+        if (thresholds != null) {
+            sendAlerts(sender, payload.hostId(), edgeEvaluator.evaluate(payload, thresholds));
+            payload = payload.withEdgeEvaluated();
+        }
 
+        byte[] message;
+        long start = System.nanoTime();
+        try {
+            message = encoder.encode(payload);
+        } catch (RuntimeException e) {
+            logger.error("메트릭 인코딩 실패 (format={}, type={})", encoder.format(), payload.type(), e);
+            return;
+        }
+        metrics.recordPhase(CollectorMetrics.Phase.SERIALIZE, System.nanoTime() - start);
+        metrics.recordProduced(message.length);
+        logger.debug("metric encoded: format={}, type={}, containers={}, bytes={}",
+                encoder.format(), payload.type(), payload.containers().size(), message.length);
+
+        //카프카에 메시지 전송 (실패하면 spool에 쌓였다가 재전송)
+        start = System.nanoTime();
+        MetricType type = MetricFields.TYPE_CONTAINERS.equals(payload.type()) ? MetricType.CONTAINER : MetricType.HOST;
+        sender.send(topicRouter.topicFor(type), MetricTopicRouter.partitionKey(payload.hostId()), message, encoder.format());
+        metrics.recordPhase(CollectorMetrics.Phase.KAFKA_SEND, System.nanoTime() - start);
+    }
 
+    //임계값 위반을 JSON으로 alert 토픽에 전송 (spool 대기열을 건너뜀)
+    private void sendAlerts(SpoolingKafkaSender sender, String key, List<ThresholdAlert> alerts) {
+        for (ThresholdAlert alert : alerts) {
+            try {
+                sender.sendImmediately(topicRouter.topicFor(MetricType.ALERT), MetricTopicRouter.partitionKey(key),
+                        alertWriter.writeValueAsBytes(alert), JsonMetricEncoder.FORMAT);
+                metrics.recordThresholdAlert(alert);
+            } catch (JsonProcessingException e) {
+                logger.error("임계값 알림 직렬화 실패: {}", alert, e);
             }
         }
     }
@@ -130,310 +364,282 @@ class KafkaProducerRunner implements CommandLineRunner {
         //기본값도 이 정도
         //이보다 더 커지면 send()가 블로킹 되거나 예외가 발생할 수 있음.
         props.put("buffer.memory", 33554432);//프로듀서 버터 메모리 크기
+        //브로커 장애 시 send()가 수집 tick을 오래 막지 않도록 짧게 두고, 막힌 레코드는 spool로 보냄
+        props.put("max.block.ms", kafkaMaxBlockMs);
         props.put("key.serializer", StringSerializer.class.getName());//메시지 키 직렬화 방식
-        props.put("value.serializer", StringSerializer.class.getName());//메시지 값 직렬화 방식
+        props.put("value.serializer", ByteArraySerializer.class.getName());//메시지 값 직렬화 방식 (인코딩은 MetricEncoder가 담당)
         return props;
     }
 
-    //카프카 메시지를 생성하고 전송, 결과를 콜백으로 처립
-    private void sendKafkaRecord(Producer<String, String> producer, String topic, String message) {
-        ProducerRecord<String, String> record = new ProducerRecord<>(topic, message);
-
-        //비동기 전송 및 전송 결과 처리 콜백
-        producer.send(record, (metadata, exception) -> {
-            if (exception != null) {
-                System.err.println("Kafka 전송 실패: " + exception.getMessage());
-            } else {
-                System.out.println("Kafka 전송 성공: " + metadata.topic() + " offset=" + metadata.offset());
-            }
-        });
+    //spool 파일 열기 (SPOOL_PATH가 비었거나 열 수 없으면 null → spool 없이 전송)
+    private DiskSpool openSpool() {
+        if (spoolPath == null || spoolPath.isBlank()) {
+            logger.info("metric spool disabled");
+            return null;
+        }
+        try {
+            DiskSpool spool = new DiskSpool(Path.of(spoolPath), spoolMaxBytes);
+            logger.info("metric spool: {} ({} bytes, replay {}/s)", spoolPath, spoolMaxBytes, spoolReplayRate);
+            return spool;
+        } catch (IOException | RuntimeException e) {
+            logger.error("metric spool open failed, sending without spool: {}", spoolPath, e);
+            return null;
+        }
     }
 
 
 
     // 호스트 리소스 수집 및 delta 계산
-    private Map<String, Object> collectHostResource() {
-        //호스트 리소스 정보를 json 문자열로 읽어옴
-        String jsonStr = hostMonitor.getResourcesAsJson();
-        Map<String, Object> resourceMap = new Gson().fromJson(jsonStr, Map.class);
+    private HostSample collectHostResource() {
+        //이번 tick에 due인 그룹만 HostReading로 읽어옴 (나머지 그룹은 payload에서 빠짐)
+        long start = System.nanoTime();
+        int groups = sampler.due(start);
+        HostReading sample = hostMonitor.getSample(groups);
+        long deltaStart = System.nanoTime();
+        metrics.recordPhase(CollectorMetrics.Phase.HOST_READ, deltaStart - start);
+        // 파일시스템 용량은 payload 대신 host_filesystem_* / host_disk_* 지표로 노출
+        if (sample.sampled(MetricGroup.CAPACITY)) {
+            metrics.recordFilesystems(sample);
+        }
 
         // disk delta
-        //이전값과 현재값 차이를 계산
-        long currDiskReadBytes = ((Number) resourceMap.get("diskReadBytes")).longValue();
-        long currDiskWriteBytes = ((Number) resourceMap.get("diskWriteBytes")).longValue();
-        long deltaDiskRead = currDiskReadBytes - prevDiskReadBytes;
-        long deltaDiskWrite = currDiskWriteBytes - prevDiskWriteBytes;
-        prevDiskReadBytes = currDiskReadBytes;
-        prevDiskWriteBytes = currDiskWriteBytes;
+        //이전값과 현재값 차이를 계산 (첫 수집은 0), disk 주기 동안의 delta를 수집 주기 1회분으로 환산
+        Long deltaDiskRead = null;
+        Long deltaDiskWrite = null;
+        if (sample.sampled(MetricGroup.DISK_IO)) {
+            deltaDiskRead = sampler.perTick(MetricGroup.DISK_IO,
+                    hostCounters.delta(HOST_DISK_GROUP, DISK_SERIES, FIELD_READ, sample.diskReadBytes()));
+            deltaDiskWrite = sampler.perTick(MetricGroup.DISK_IO,
+                    hostCounters.delta(HOST_DISK_GROUP, DISK_SERIES, FIELD_WRITE, sample.diskWriteBytes()));
+        }
 
         // network delta
         //이전값과 현재값 차이를 계산
-        Map<String, Object> netInfo = (Map<String, Object>) resourceMap.get("network");
-        Map<String, Map<String, Object>> netDelta = computeHostNetworkDelta(netInfo);
-
-        Map<String, Object> result = new LinkedHashMap<>();
-        result.put("type", "host");
-        result.put("hostId", resourceMap.get("hostId"));
-        try {
-            hostName = Files.readString(Paths.get(HOSTNAME_PATH)).trim();
-        } catch (Exception e) {
-            hostName = "unknown";
+        Map<String, InterfaceDelta> netDelta = null;
+        if (sample.sampled(MetricGroup.NETWORK)) {
+            netDelta = computeHostNetworkDelta(sample.network());
+            //이번 수집에 보이지 않은 인터페이스(사라진 veth 등)의 이전 값 정리
+            interfaceCounters.removeUntouchedGroups();
         }
-        result.put("name", hostName);
-        result.put("timeStamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date()));
-        result.put("cpuUsagePercent", resourceMap.get("cpuUsagePercent"));
-        result.put("memoryUsedBytes", resourceMap.get("memoryUsedBytes"));
-        result.put("diskReadBytesDelta", deltaDiskRead);
-        result.put("diskWriteBytesDelta", deltaDiskWrite);
-        result.put("networkDelta", netDelta);//각 네트워크 인터페이스별 delta
-        result.put("temperatures", resourceMap.get("temperatures"));
-
-        return result;
+        tickDeltaNanos += System.nanoTime() - deltaStart;
+
+        // 온도: 센서 이름 -> °C
+        Map<String, Double> temperatures = null;
+        if (sample.sampled(MetricGroup.TEMPERATURE)) {
+            temperatures = new LinkedHashMap<>();
+            for (HostReading.SensorSample sensor : sample.temperatures()) {
+                temperatures.put(sensor.label(), sensor.celsius());
+            }
+        }
+
+        //한 번도 읽지 못했을 때만 "unknown" (일시적인 읽기 오류에는 마지막 이름 유지)
+        String currentHostName = hostnameFile.read();
+        hostName = currentHostName != null ? currentHostName : "unknown";
+
+        return new HostSample(
+                MetricFields.TYPE_HOST,
+                sample.hostId(),
+                hostName,
+                new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date()),
+                sample.sampled(MetricGroup.CPU) ? sample.cpuUsagePercent() : null,
+                sample.sampled(MetricGroup.MEMORY) ? sample.memoryUsedBytes() : null,
+                deltaDiskRead,
+                deltaDiskWrite,
+                netDelta,//각 네트워크 인터페이스별 delta
+                temperatures,
+                Map.of());
     }
 
     //네트워크 인터페이스별로 delta값을 계산해서 반환
-    private Map<String, Map<String, Object>> computeHostNetworkDelta(Map<String, Object> netInfo) {
-        Map<String, Map<String, Object>> netDelta = new HashMap<>();
-        for (String iface : netInfo.keySet()) {
-            Map<String, Object> ifaceInfo = (Map<String, Object>) netInfo.get(iface);
-            //각 인터페이스의 현재 수신 및 송신 바이트
-            long currRecv = ((Number) ifaceInfo.get("bytesReceived")).longValue();
-            long currSent = ((Number) ifaceInfo.get("bytesSent")).longValue();
-            //이전 값이 없으면 curr로 ㅊ초기화
-            long prevRecv = prevNetRecv.getOrDefault(iface, currRecv);
-            long prevSent = prevNetSent.getOrDefault(iface, currSent);
-
-            Map<String, Object> delta = new HashMap<>();
-            delta.put("rxBytesDelta", currRecv - prevRecv);
-            delta.put("txBytesDelta", currSent - prevSent);
-            netDelta.put(iface, delta);
-
-            //다음 계산을 위해 현재 값 저장
-            prevNetRecv.put(iface, currRecv);
-            prevNetSent.put(iface, currSent);
+    private Map<String, InterfaceDelta> computeHostNetworkDelta(List<HostReading.InterfaceSample> interfaces) {
+        Map<String, InterfaceDelta> netDelta = new LinkedHashMap<>();
+        for (HostReading.InterfaceSample ifaceInfo : interfaces) {
+            String iface = ifaceInfo.key();
+            //각 인터페이스의 누적 수신 및 송신 바이트로 delta 계산 (처음 보는 인터페이스는 0)
+            long recvDelta = sampler.perTick(MetricGroup.NETWORK,
+                    interfaceCounters.delta(iface, NET_SERIES, FIELD_RX, ifaceInfo.bytesReceived()));
+            long sentDelta = sampler.perTick(MetricGroup.NETWORK,
+                    interfaceCounters.delta(iface, NET_SERIES, FIELD_TX, ifaceInfo.bytesSent()));
+
+            netDelta.put(iface, new InterfaceDelta(recvDelta, sentDelta));
         }
         return netDelta;
     }
 
     // 모든 컨테이너 리소스 수집 및 delta 계산
-    private Map<String, Map<String, Object>> collectAllContainerResource() {
-        List<Container> containers = dockerCollector.listAllContainers();
-        Map<String, Map<String, Object>> containersMap = new ConcurrentHashMap<>();
-
-        //현재 살아있는 컨테이너 ID 목록 기록
-        Set<String> currentContainerIds = containers.stream()
-                .map(Container::getId)
-                .collect(Collectors.toSet());
-
-        // 이전 상태 Map에서 더 이상 존재하지 않는 containerId 제거
-        prevContainerDiskRead.keySet().removeIf(id -> !currentContainerIds.contains(id));
-        prevContainerDiskWrite.keySet().removeIf(id -> !currentContainerIds.contains(id));
-        prevContainerNet.keySet().removeIf(id -> !currentContainerIds.contains(id));
-        prevContainerTotalUsage.keySet().removeIf(id -> !currentContainerIds.contains(id));
-        prevContainerSystemUsage.keySet().removeIf(id -> !currentContainerIds.contains(id));
-
-        //멀티스레드로 컨테이너 통계 병렬 수집
-        List<Future<?>> futures = new ArrayList<>();
-        for (Container container : containers) {
-            futures.add(pool.submit(() -> {
-                Map<String, Object> stats = collectContainerStats(container);
-                containersMap.put(container.getId(), stats);
-            }));
+    private Map<String, ContainerSample> collectAllContainerResource() {
+        //이벤트로 유지되는 컨테이너 레지스트리 중 실행 중인 컨테이너만 (전체 목록 조회는 reconcile 주기에만)
+        //중지된 컨테이너는 stats 스트림/cgroup이 없으므로 구독하거나 읽지 않고 payload에서도 빠짐
+        long listStart = System.nanoTime();
+        Collection<DockerStatsCollector.ContainerInfo> containers = dockerCollector.getRunningContainers();
+        Map<String, ContainerSample> containersMap = new LinkedHashMap<>();
+
+        //컨테이너 구성이 바뀐 tick에만 ID 목록을 다시 만들고 이전 상태 정리
+        long version = dockerCollector.getMembershipVersion();
+        if (version != containerMembershipVersion || currentContainerIds == null) {
+            Set<String> ids = new HashSet<>();
+            for (DockerStatsCollector.ContainerInfo container : containers) {
+                ids.add(container.id());
+            }
+            currentContainerIds = ids;
+            containerMembershipVersion = version;
+
+            // 이전 상태 Map에서 더 이상 존재하지 않는 containerId 제거
+            containerCalculator.retainContainers(ids);
+            lastConsumedReading.keySet().retainAll(ids);
+            lastContainerMetrics.keySet().retainAll(ids);
+            containerTimeoutCounts.keySet().removeIf(id -> {
+                if (ids.contains(id)) return false;
+                metrics.unbindContainerReadTimeouts(id);
+                return true;
+            });
+            //사라진 컨테이너의 읽기는 취소하지 않고 끝날 때까지 inFlightReads에 남김
+            //(취소된 future는 읽기 스레드가 아직 read() 안에 있어도 isDone()이 true가 되므로 sync 판단에 쓸 수 없음)
         }
-        // 병렬 수집 완료 대기
-        for (Future<?> f : futures) {
-            try { f.get(); } catch (Exception ignored) {}
+
+        //컨테이너 목록에 맞춰 수집 소스 갱신 (stats 스트림 구독 시작/종료, cgroup 경로 정리)
+        containerSource.sync(syncContainerIds());
+        metrics.recordPhase(CollectorMetrics.Phase.CONTAINER_LIST, System.nanoTime() - listStart);
+
+        //컨테이너별 최신 값 읽기 (deadline을 넘긴 컨테이너는 빠짐)
+        Map<String, ContainerReading> readings = readAllContainers(containers);
+
+        //각 컨테이너의 최신 값으로 지표 계산 (Docker 호출 없음)
+        long now = System.nanoTime();
+        for (DockerStatsCollector.ContainerInfo container : containers) {
+            boolean timedOut = !readings.containsKey(container.id());
+            ContainerSample stats = collectContainerStats(container, readings.get(container.id()), timedOut, now);
+            //아직 샘플이 없거나 계산에 실패한 컨테이너는 payload에서 제외
+            if (stats != null) {
+                containersMap.put(container.id(), stats);
+            }
         }
         return containersMap;
     }
 
-    // 컨테이너별 리소스 수집 및 delta 계산
-    private Map<String, Object> collectContainerStats(Container container) {
-        try (InvocationBuilder.AsyncResultCallback<Statistics> callback = new InvocationBuilder.AsyncResultCallback<>()) {
-            dockerCollector.getDockerClient().statsCmd(container.getId()).exec(callback);
-            Statistics stats = callback.awaitResult();
-
-            return calculateContainerStats(container, stats);
-        } catch (Exception e) {
-            //통계 수집 실패하면 빈 결과 반환
-            return new LinkedHashMap<>();
+    /**
+     * 모든 컨테이너의 최신 값을 읽는다.
+     * 수집 소스가 blocking(cgroup 파일 read 등)이면 컨테이너마다 가상 스레드에서 읽고, tick 공통 deadline까지만 기다린다.
+     * deadline을 넘긴 읽기는 취소하지 않고 계속 진행시키며, 끝나면 다음 tick에서 결과를 사용한다.
+     *
+     * @return 컨테이너 ID -> 읽은 값 (값이 없으면 null, deadline을 넘긴 컨테이너는 키 자체가 없음)
+     */
+    private Map<String, ContainerReading> readAllContainers(Collection<DockerStatsCollector.ContainerInfo> containers) {
+        Map<String, ContainerReading> readings = new HashMap<>();
+        if (!containerSource.isBlocking()) {
+            //메모리에 있는 값을 읽는 소스(stats 스트림)는 바로 읽음
+            for (DockerStatsCollector.ContainerInfo container : containers) {
+                readings.put(container.id(), readContainer(container.id()));
+            }
+            return readings;
         }
-    }
-
-    //실제 지표  계산
-    private Map<String, Object> calculateContainerStats(Container container, Statistics stats) {
-        Map<String, Object> result = new LinkedHashMap<>();
-        String containerName = Arrays.stream(container.getNames()).findFirst().orElse("unknown");
-        result.put("name", containerName);
-
-        // CPU 사용률(%)
-        double cpuUsagePercent = calculateCpuUsage(container.getId(), stats);
-        result.put("cpuUsagePercent", cpuUsagePercent);
 
-        // Memory 사용량(바이트)
-        long memoryUsedBytes = calculateMemoryUsage(stats);
-        result.put("memoryUsedBytes", memoryUsedBytes);
-
-        // Disk I/O delta
-        Map<String, Long> diskDeltas = calculateDiskDelta(container.getId(), stats);
-        result.put("diskReadBytesDelta", diskDeltas.getOrDefault("readDelta", 0L));
-        result.put("diskWriteBytesDelta", diskDeltas.getOrDefault("writeDelta", 0L));
-
-        // Network delta
-        Map<String, Object> networkDelta = calculateNetworkDelta(container.getId(), stats);
-        result.put("networkDelta", networkDelta);
+        //컨테이너별 읽기 제출 (이전 tick에서 아직 끝나지 않은 읽기는 그대로 기다림)
+        for (DockerStatsCollector.ContainerInfo container : containers) {
+            inFlightReads.computeIfAbsent(container.id(),
+                    id -> containerReadExecutor.submit(() -> readContainer(id)));
+        }
 
-        return result;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(containerReadTimeoutMs);
+        for (DockerStatsCollector.ContainerInfo container : containers) {
+            String id = container.id();
+            Future<ContainerReading> future = inFlightReads.get(id);
+            if (future == null) continue;
+            try {
+                ContainerReading reading = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                inFlightReads.remove(id, future);
+                readings.put(id, reading);
+            } catch (TimeoutException e) {
+                long count = containerTimeoutCounts.computeIfAbsent(id, k -> {
+                    AtomicLong counter = new AtomicLong();
+                    metrics.bindContainerReadTimeouts(k, counter);
+                    return counter;
+                }).incrementAndGet();
+                containerReadTimeouts.incrementAndGet();
+                logger.warn("container read timed out: {} (deadline={}ms, timeouts={})", id, containerReadTimeoutMs, count);
+            } catch (ExecutionException e) {
+                inFlightReads.remove(id, future);
+                readings.put(id, null);
+                logger.warn("container read failed: {} ({})", id, e.getCause().toString());
+            } catch (CancellationException e) {
+                inFlightReads.remove(id, future);
+                readings.put(id, null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return readings;
     }
 
-    //cpu 사용률 계산
-    //이전 상태와 비교해서 delta로 계산
-    private double calculateCpuUsage(String containerId, Statistics stats) {
-        Long totalUsage = stats.getCpuStats().getCpuUsage().getTotalUsage();
-        Long systemUsage = stats.getCpuStats().getSystemCpuUsage();
-        Long cpuCount = stats.getCpuStats().getOnlineCpus();
-
-        //이전 값 없으면 현재로 대입
-        long prevTotal = prevContainerTotalUsage.getOrDefault(containerId, totalUsage != null ? totalUsage : 0L);
-        long prevSystem = prevContainerSystemUsage.getOrDefault(containerId, systemUsage != null ? systemUsage : 0L);
-
-        double cpuUsagePercent = 0.0;
-
-        if (cpuUsageCondition(totalUsage, prevTotal, systemUsage, prevSystem, cpuCount, containerId)) {
-            double cpuDelta = totalUsage - prevTotal;
-            double systemDelta = systemUsage - prevSystem;
-            cpuUsagePercent = (cpuDelta / systemDelta) * cpuCount * 100.0;
+    //컨테이너 1개 읽기 (소요 시간 기록, 가상 스레드에서도 호출됨)
+    private ContainerReading readContainer(String containerId) {
+        long start = System.nanoTime();
+        try {
+            return containerSource.read(containerId);
+        } finally {
+            metrics.recordPhase(CollectorMetrics.Phase.CONTAINER_STATS, System.nanoTime() - start);
         }
-
-        //다음 계산을 위해 현재값 저장
-        prevContainerTotalUsage.put(containerId, totalUsage != null ? totalUsage : 0L);
-        prevContainerSystemUsage.put(containerId, systemUsage != null ? systemUsage : 0L);
-
-        return cpuUsagePercent;
     }
 
     /**
-     * 컨테이너의 CPU 사용률을 계산하기 전, 필요한 조건이 모두 만족하는지 확인하는 함수.
-     *
-     * 검사하는 조건(모두 만족해야 정상 계산 가능):
-     *   1. totalUsage(누적 컨테이너 CPU)이 null이 아님
-     *   2. systemUsage(누적 시스템 CPU)가 null이 아님
-     *   3. cpuCount(코어 수)가 null이 아님
-     *   4. systemUsage가 prevSystem 보다 증가했음 (CPU 누적량이 정상적으로 커져야 함)
-     *   5. totalUsage가 prevTotal 보다 증가했음 (컨테이너 누적 사용량도 증가해야 정상)
-     *   6. cpuCount가 1 이상 양의 값이어야 함
-     *
-     * 반환값:
-     *   - true: 계산 가능한 상태(정상)
-     *   - false: 위 조건 중 하나 이상이 실패 (계산하지 않음, 로그 등으로 추가 분석 필요)
+     * sync()에 넘길 컨테이너 ID 목록.
+     * deadline을 넘겨 아직 읽고 있는 컨테이너는 목록에서 사라졌더라도 포함해서, 읽는 중인 리더를 sync()가 닫지 않게 한다.
+     * 사라진 컨테이너의 읽기가 끝나면 목록에서 빼고, 그 다음 sync()에서 리더가 정리된다.
      */
-    private boolean cpuUsageCondition(
-            Long totalUsage, long prevTotal,
-            Long systemUsage, long prevSystem,
-            Long cpuCount, String containerId
-    ) {
-        boolean condTotalUsageNotNull   = totalUsage != null;
-        boolean condSystemUsageNotNull  = systemUsage != null;
-        boolean condCpuCountNotNull     = cpuCount != null;
-        boolean condSystemUsageInc      = condSystemUsageNotNull && systemUsage > prevSystem;
-        boolean condTotalUsageInc       = condTotalUsageNotNull && totalUsage > prevTotal;
-        boolean condCpuCountPositive    = condCpuCountNotNull && cpuCount > 0;
-
-        if (!condTotalUsageNotNull) {
-            // 누적 CPU 사용량(totalUsage)이 null인 경우
-            logger.debug("totalUsage is null for container: {}", containerId);
+    private Collection<String> syncContainerIds() {
+        inFlightReads.entrySet().removeIf(e -> !currentContainerIds.contains(e.getKey()) && e.getValue().isDone());
+        if (currentContainerIds.containsAll(inFlightReads.keySet())) {
+            return currentContainerIds;
         }
-        if (!condSystemUsageNotNull) {
-            // 시스템 전체 CPU 사용량(systemUsage)이 null인 경우
-            logger.debug("systemUsage is null for container: {}", containerId);
-        }
-        if (!condCpuCountNotNull) {
-            // CPU 코어 개수(cpuCount)가 null인 경우
-            logger.debug("cpuCount is null for container: {}", containerId);
-        }
-        if (condSystemUsageNotNull && !condSystemUsageInc) {
-            // systemUsage는 존재하지만 이전 값보다 증가하지 않은 경우
-            logger.debug("systemUsage is not increased: {} <= {} (containerId: {})", systemUsage, prevSystem, containerId);
-        }
-        if (condTotalUsageNotNull && !condTotalUsageInc) {
-            // totalUsage는 존재하지만 이전 값보다 증가하지 않은 경우
-            logger.debug("totalUsage is not increased: {} <= {} (containerId: {})", totalUsage, prevTotal, containerId);
-        }
-        if (condCpuCountNotNull && !condCpuCountPositive) {
-            // cpuCount는 존재하지만 0이거나 음수인 경우
-            logger.debug("cpuCount is not positive: {} (containerId: {})", cpuCount, containerId);
-        }
-
-        return condTotalUsageNotNull &&
-                condSystemUsageNotNull &&
-                condCpuCountNotNull &&
-                condSystemUsageInc &&
-                condTotalUsageInc &&
-                condCpuCountPositive;
+        Set<String> ids = new HashSet<>(currentContainerIds);
+        ids.addAll(inFlightReads.keySet());
+        return ids;
     }
 
-    //메모리 사용량 계산
-    private long calculateMemoryUsage(Statistics stats) {
-        try {
-            if (stats.getMemoryStats() != null && stats.getMemoryStats().getUsage() != null) {
-                return stats.getMemoryStats().getUsage();
-            }
-        } catch (Exception ignored) {
+    // 컨테이너별 최신 샘플로 리소스 지표 및 delta 계산
+    private ContainerSample collectContainerStats(DockerStatsCollector.ContainerInfo container,
+                                                                 ContainerReading stats, boolean timedOut, long now) {
+        String containerId = container.id();
+        ContainerReading last = lastConsumedReading.get(containerId);
+
+        if (!timedOut && stats == null) {
+            //읽기는 끝났지만 값이 없음 (구독 직후 첫 샘플 전, 중지된 컨테이너 등) → payload에서 제외
+            lastConsumedReading.remove(containerId);
+            lastContainerMetrics.remove(containerId);
+            return null;
         }
-        return 0L;
-    }
 
-    //disk I/o delta 계산
-    private Map<String, Long> calculateDiskDelta(String containerId, Statistics stats) {
-        long read = 0, write = 0;
-        List<BlkioStatEntry> ioStats = stats.getBlkioStats().getIoServiceBytesRecursive();
-        if (ioStats != null) {
-            for (BlkioStatEntry entry : ioStats) {
-                String op = entry.getOp();
-                Long value = entry.getValue();
-                if ("Read".equalsIgnoreCase(op)) {
-                    read += (value != null ? value : 0);
-                } else if ("Write".equalsIgnoreCase(op)) {
-                    write += (value != null ? value : 0);
-                }
+        //deadline을 넘겼거나 직전 tick 이후 새 샘플이 오지 않았으면 직전 결과 유지
+        //(같은 샘플로 다시 계산하면 delta와 CPU 사용률이 0으로 나옴)
+        if (timedOut || stats == last) {
+            ContainerSample previous = lastContainerMetrics.get(containerId);
+            if (previous == null) {
+                return null;
             }
+            //deadline을 넘겼거나 같은 샘플이 2 주기 넘게 유지되면 stale로 표시
+            boolean stale = timedOut
+                    || now - last.sampledAtNanos() > TimeUnit.MILLISECONDS.toNanos(collectIntervalMs * 2);
+            return stale ? previous.asStale() : previous;
         }
-        long prevRead = prevContainerDiskRead.getOrDefault(containerId, read);
-        long prevWrite = prevContainerDiskWrite.getOrDefault(containerId, write);
-
-        Map<String, Long> delta = new HashMap<>();
-        delta.put("readDelta", read - prevRead);
-        delta.put("writeDelta", write - prevWrite);
-
-        //다음 계산을 위해 이전 값 저장
-        prevContainerDiskRead.put(containerId, read);
-        prevContainerDiskWrite.put(containerId, write);
-
-        return delta;
-    }
 
-    //컨테이너 네트워크 delta 계산
-    private Map<String, Object> calculateNetworkDelta(String containerId, Statistics stats) {
-        Map<String, Object> networkDelta = new LinkedHashMap<>();
-        if (stats.getNetworks() != null) {
-            Map<String, Long> prevNet = prevContainerNet.getOrDefault(containerId, new ConcurrentHashMap<>());
-            stats.getNetworks().forEach((iface, net) -> {
-                long rx = net.getRxBytes();
-                long tx = net.getTxBytes();
-                long prevRx = prevNet.getOrDefault(iface + ":rx", rx);
-                long prevTx = prevNet.getOrDefault(iface + ":tx", tx);
-
-                Map<String, Object> ifaceData = new LinkedHashMap<>();
-                ifaceData.put("rxBytesDelta", rx - prevRx);
-                ifaceData.put("txBytesDelta", tx - prevTx);
-                networkDelta.put(iface, ifaceData);
-
-                //다음 계산을 위해 현재값 저장
-                prevNet.put(iface + ":rx", rx);
-                prevNet.put(iface + ":tx", tx);
-            });
-            prevContainerNet.put(containerId, prevNet);
+        long start = System.nanoTime();
+        try {
+            ContainerSample result = containerCalculator.calculate(containerId, container.name(), stats);
+            lastConsumedReading.put(containerId, stats);
+            lastContainerMetrics.put(containerId, result);
+            if (metricWindow != null) {
+                //delta는 두 샘플 사이 시간 기준으로 환산해서 기록
+                metricWindow.recordContainer(containerId, result,
+                        last != null ? stats.sampledAtNanos() - last.sampledAtNanos() : 0);
+            }
+            return result;
+        } catch (Exception e) {
+            //지표 계산 실패하면 null 반환
+            logger.warn("container stats failed: {} ({})", containerId, e.toString());
+            return null;
+        } finally {
+            tickDeltaNanos += System.nanoTime() - start;
         }
-        return networkDelta;
     }
-}
\ No newline at end of file
+}
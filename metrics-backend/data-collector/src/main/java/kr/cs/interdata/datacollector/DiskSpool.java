@@ -0,0 +1,376 @@
+package kr.cs.interdata.datacollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * ┌──────────────────────────── spool 파일 구조 ────────────────────────────┐
+ *
+ *  header (64B)
+ *    magic(int, "SPL1") version(int) readOffset(long) writeOffset(long) count(long) nextSequence(long)
+ *  data (capacity 바이트)
+ *    [bodyLength(int) body]*   readOffset ~ writeOffset 구간이 아직 보내지 못한 레코드
+ *  body
+ *    sequence(long, 레코드마다 1씩 증가, 재시작해도 이어짐)
+ *    createdAtMillis(long)
+ *    topicLength(short) topic(UTF-8)
+ *    keyLength(short, -1 = null) key(UTF-8)
+ *    formatLength(byte) format(US-ASCII)
+ *    value(나머지 바이트)
+ *
+ *  레코드는 항상 writeOffset 뒤에 덧붙이고(append-only), 보낸 레코드는 readOffset만 앞으로 옮긴다.
+ *  뒤쪽 공간이 모자라면 남은 레코드를 파일 앞으로 당기고(compact), 그래도 모자라면 가장 오래된 레코드부터 버린다.
+ * └─────────────────────────────────────────────────────────────────────┘
+ */
+
+/**
+ * DiskSpool은 Kafka로 보내지 못한 인코딩된 메트릭을 메모리 매핑된 파일에 순서대로 쌓아 두는 bounded FIFO이다.
+ *
+ * - 파일 크기는 생성 시 정한 용량(header + capacity)으로 고정되며, 가득 차면 가장 오래된 레코드를 버린다.
+ * - offset/개수는 파일 header에 있으므로 collector가 재시작되어도 남은 레코드를 이어서 보낼 수 있다.
+ *   (레코드 바이트를 먼저 쓰고 header를 나중에 갱신하므로, 비정상 종료 시에는 마지막 레코드만 잃을 수 있다)
+ * - 열 때 header의 offset/개수와 레코드 길이가 맞는지 확인하고, 읽는 중 길이가 맞지 않는 레코드를 만나면
+ *   (compact 도중 비정상 종료 등) 남은 레코드를 모두 버리고 비운다.
+ * - 모든 메서드는 synchronized이다. (수집 스레드의 append, Kafka 콜백의 append, 재전송 스레드의 peek/commit)
+ */
+public class DiskSpool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskSpool.class);
+
+    private static final int MAGIC = 0x53504C31; // "SPL1"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int OFF_READ = 8;
+    private static final int OFF_WRITE = 16;
+    private static final int OFF_COUNT = 24;
+    private static final int OFF_SEQUENCE = 32;
+    private static final int COMPACT_CHUNK = 64 * 1024;
+    // 본문 최소 길이: sequence(8) + createdAt(8) + topicLength(2) + keyLength(2) + formatLength(1)
+    private static final int MIN_BODY_LENGTH = 8 + 8 + 2 + 2 + 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private final long end;
+
+    private long readOffset;
+    private long writeOffset;
+    private long count;
+    // 다음에 추가할 레코드의 번호 (commit이 같은 위치로 옮겨진 다른 레코드를 지우지 않도록 레코드를 구분)
+    private long nextSequence;
+    private long droppedCount;
+
+    /**
+     * @param path          spool 파일 경로 (없으면 생성)
+     * @param capacityBytes 레코드를 쌓을 데이터 영역 크기
+     */
+    public DiskSpool(Path path, long capacityBytes) throws IOException {
+        if (capacityBytes <= 0 || capacityBytes > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("spool 용량 범위 오류: " + capacityBytes);
+        }
+        this.path = path;
+        this.end = HEADER_SIZE + capacityBytes;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existingSize = channel.size();
+        this.buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, end);
+
+        if (existingSize == end && buf.getInt(0) == MAGIC && buf.getInt(4) == VERSION && loadHeader()) {
+            if (count > 0) {
+                logger.info("spool restored: {} records, {} bytes ({})", count, writeOffset - readOffset, path);
+            }
+        } else {
+            if (existingSize > 0) {
+                logger.warn("spool file reset (size/format mismatch or corrupted records): {}", path);
+            }
+            buf.putInt(0, MAGIC);
+            buf.putInt(4, VERSION);
+            reset();
+        }
+    }
+
+    /**
+     * 레코드를 spool 끝에 추가한다. 공간이 모자라면 가장 오래된 레코드를 버린다.
+     *
+     * @return 추가 여부 (레코드 하나가 spool 전체보다 크면 false)
+     */
+    public synchronized boolean append(String topic, String key, String format, byte[] value) {
+        byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : null;
+        byte[] formatBytes = format.getBytes(StandardCharsets.US_ASCII);
+        int bodyLength = 8 + 8 + 2 + topicBytes.length + 2 + (keyBytes != null ? keyBytes.length : 0)
+                + 1 + formatBytes.length + value.length;
+        long need = 4L + bodyLength;
+        if (need > end - HEADER_SIZE) {
+            droppedCount++;
+            return false;
+        }
+        ensureRoom(need);
+
+        int p = (int) writeOffset;
+        buf.putInt(p, bodyLength);
+        p += 4;
+        buf.putLong(p, nextSequence++);
+        p += 8;
+        buf.putLong(p, System.currentTimeMillis());
+        p += 8;
+        buf.putShort(p, (short) topicBytes.length);
+        buf.put(p + 2, topicBytes);
+        p += 2 + topicBytes.length;
+        if (keyBytes != null) {
+            buf.putShort(p, (short) keyBytes.length);
+            buf.put(p + 2, keyBytes);
+            p += 2 + keyBytes.length;
+        } else {
+            buf.putShort(p, (short) -1);
+            p += 2;
+        }
+        buf.put(p, (byte) formatBytes.length);
+        buf.put(p + 1, formatBytes);
+        p += 1 + formatBytes.length;
+        buf.put(p, value);
+
+        writeOffset += need;
+        count++;
+        storeHeader();
+        return true;
+    }
+
+    /**
+     * 가장 오래된 레코드를 꺼내지 않고 읽는다.
+     *
+     * @return 가장 오래된 레코드, 비어 있으면 null
+     */
+    public synchronized Entry peek() {
+        if (count == 0) {
+            return null;
+        }
+        int offset = (int) readOffset;
+        int bodyLength = bodyLengthAt(readOffset);
+        if (bodyLength < 0) {
+            discardCorrupted("record length");
+            return null;
+        }
+        int bodyEnd = offset + 4 + bodyLength;
+        int p = offset + 4;
+        long sequence = buf.getLong(p);
+        p += 8;
+        long createdAt = buf.getLong(p);
+        p += 8;
+        int topicLength = buf.getShort(p);
+        if (topicLength < 0 || p + 2 + topicLength + 2 > bodyEnd) {
+            discardCorrupted("topic length");
+            return null;
+        }
+        String topic = readString(p + 2, topicLength, StandardCharsets.UTF_8);
+        p += 2 + topicLength;
+        int keyLength = buf.getShort(p);
+        String key = null;
+        p += 2;
+        if (keyLength < -1 || p + Math.max(keyLength, 0) + 1 > bodyEnd) {
+            discardCorrupted("key length");
+            return null;
+        }
+        if (keyLength >= 0) {
+            key = readString(p, keyLength, StandardCharsets.UTF_8);
+            p += keyLength;
+        }
+        int formatLength = buf.get(p);
+        if (formatLength < 0 || p + 1 + formatLength > bodyEnd) {
+            discardCorrupted("format length");
+            return null;
+        }
+        String format = readString(p + 1, formatLength, StandardCharsets.US_ASCII);
+        p += 1 + formatLength;
+        byte[] value = new byte[bodyEnd - p];
+        buf.get(p, value);
+        return new Entry(offset, bodyLength, sequence, createdAt, topic, key, format, value);
+    }
+
+    /**
+     * peek()으로 읽은 레코드를 보냈으므로 spool에서 제거한다.
+     * 그 사이 공간 부족으로 이미 버려진 레코드면(compact로 다른 레코드가 같은 위치에 왔어도) 아무것도 하지 않는다.
+     */
+    public synchronized void commit(Entry entry) {
+        if (count == 0 || entry.offset() != readOffset || buf.getLong((int) readOffset + 4) != entry.sequence()) {
+            return;
+        }
+        readOffset += 4L + entry.bodyLength();
+        count--;
+        if (count == 0) {
+            reset();
+        } else {
+            storeHeader();
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return count == 0;
+    }
+
+    //쌓여 있는 레코드 수
+    public synchronized long getDepth() {
+        return count;
+    }
+
+    //쌓여 있는 레코드 바이트
+    public synchronized long getDepthBytes() {
+        return writeOffset - readOffset;
+    }
+
+    //가장 오래된 레코드가 쌓인 뒤 지난 시간(ms), 비어 있으면 0
+    public synchronized long getOldestAgeMillis() {
+        if (count == 0) return 0;
+        return Math.max(0, System.currentTimeMillis() - buf.getLong((int) readOffset + 12));
+    }
+
+    //공간 부족으로 버린 누적 레코드 수 (프로세스 시작 이후)
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buf.force();
+        channel.close();
+    }
+
+    //need 바이트를 쓸 수 있을 때까지 compact → 오래된 레코드 버리기
+    private void ensureRoom(long need) {
+        while (end - writeOffset < need) {
+            if (count == 0) {
+                reset();
+            } else if (readOffset > HEADER_SIZE) {
+                compact();
+            } else {
+                dropOldest();
+            }
+        }
+    }
+
+    //아직 보내지 않은 구간을 데이터 영역 앞으로 당김 (앞으로만 옮기므로 chunk 단위 복사로 안전)
+    private void compact() {
+        int src = (int) readOffset;
+        int length = (int) (writeOffset - readOffset);
+        byte[] chunk = new byte[Math.min(COMPACT_CHUNK, Math.max(length, 1))];
+        for (int copied = 0; copied < length; copied += chunk.length) {
+            int n = Math.min(chunk.length, length - copied);
+            buf.get(src + copied, chunk, 0, n);
+            buf.put(HEADER_SIZE + copied, chunk, 0, n);
+        }
+        readOffset = HEADER_SIZE;
+        writeOffset = HEADER_SIZE + length;
+        storeHeader();
+    }
+
+    private void dropOldest() {
+        int bodyLength = bodyLengthAt(readOffset);
+        if (bodyLength < 0) {
+            discardCorrupted("record length");
+            return;
+        }
+        readOffset += 4L + bodyLength;
+        count--;
+        droppedCount++;
+        if (droppedCount == 1 || droppedCount % 1000 == 0) {
+            logger.warn("spool full, dropping oldest records (dropped={}, path={})", droppedCount, path);
+        }
+    }
+
+    //offset 위치 레코드의 본문 길이 (writeOffset을 넘거나 최소 길이보다 작으면 -1)
+    private int bodyLengthAt(long offset) {
+        if (offset + 4 > writeOffset) {
+            return -1;
+        }
+        int bodyLength = buf.getInt((int) offset);
+        if (bodyLength < MIN_BODY_LENGTH || offset + 4 + bodyLength > writeOffset) {
+            return -1;
+        }
+        return bodyLength;
+    }
+
+    //레코드 구조가 깨진 spool은 어디서부터 다시 읽을지 알 수 없으므로 남은 레코드를 모두 버림
+    private void discardCorrupted(String reason) {
+        logger.error("spool corrupted ({} at offset {}), discarding {} records: {}", reason, readOffset, count, path);
+        droppedCount += count;
+        reset();
+    }
+
+    private void reset() {
+        readOffset = HEADER_SIZE;
+        writeOffset = HEADER_SIZE;
+        count = 0;
+        storeHeader();
+    }
+
+    private boolean loadHeader() {
+        long r = buf.getLong(OFF_READ);
+        long w = buf.getLong(OFF_WRITE);
+        long c = buf.getLong(OFF_COUNT);
+        long seq = buf.getLong(OFF_SEQUENCE);
+        if (r < HEADER_SIZE || w < r || w > end || c < 0 || (c == 0) != (r == w) || seq < 0) {
+            return false;
+        }
+        readOffset = r;
+        writeOffset = w;
+        count = c;
+        nextSequence = seq;
+
+        // 레코드 길이를 따라가며 header의 개수와 끝 위치가 맞는지 확인
+        long offset = r;
+        long records = 0;
+        while (offset < w) {
+            int bodyLength = bodyLengthAt(offset);
+            if (bodyLength < 0) {
+                return false;
+            }
+            offset += 4L + bodyLength;
+            records++;
+        }
+        return records == c;
+    }
+
+    private void storeHeader() {
+        buf.putLong(OFF_READ, readOffset);
+        buf.putLong(OFF_WRITE, writeOffset);
+        buf.putLong(OFF_COUNT, count);
+        buf.putLong(OFF_SEQUENCE, nextSequence);
+    }
+
+    private String readString(int offset, int length, java.nio.charset.Charset charset) {
+        byte[] bytes = new byte[length];
+        buf.get(offset, bytes);
+        return new String(bytes, charset);
+    }
+
+    /**
+     * spool에 쌓인 레코드 1개
+     *
+     * @param offset          spool 파일 안의 위치 (commit 확인용)
+     * @param bodyLength      레코드 본문 길이 (commit 확인용)
+     * @param sequence        레코드 번호 (commit 확인용)
+     * @param createdAtMillis spool에 쌓인 시각
+     * @param topic           보낼 Kafka 토픽
+     * @param key             Kafka 레코드 key (없으면 null)
+     * @param format          인코딩 형식 (metric-format 헤더 값)
+     * @param value           인코딩된 메트릭
+     */
+    public record Entry(long offset, int bodyLength, long sequence, long createdAtMillis,
+                        String topic, String key, String format, byte[] value) {
+    }
+}
@@ -1,22 +1,63 @@
 package kr.cs.interdata.datacollector;
 
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.model.Container;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
 import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
 import com.github.dockerjava.transport.DockerHttpClient;
 import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DockerStatsCollector는 Docker API를 통해 컨테이너 리스트 및 리소스 정보를 수집할 수 있는 유틸리티 클래스이다.
  * OS 환경에 따라 Docker 데몬의 접속 주소를 자동으로 설정하며, 외부에서 DockerClient 인스턴스를 직접 사용할 수 있도록 제공한다.
+ *
+ * 컨테이너 목록은 Docker 이벤트 스트림(create/start/die/destroy/rename)으로 메모리 레지스트리를 갱신해 유지한다.
+ * 레지스트리에는 중지된 컨테이너도 남고, 실행 여부는 start/die 이벤트로 따로 표시한다.
+ * 전체 목록 조회(listAllContainers)는 처음 한 번, 이벤트 스트림이 끊겼을 때, 그리고 느린 주기(reconcile)로만 호출한다.
+ * 목록 조회 중에 도착한 이벤트가 더 최신이므로, reconcile은 조회 시작 이후 이벤트가 온 컨테이너는 목록 값으로 덮어쓰지 않는다.
  */
 public class DockerStatsCollector {
 
+    private static final Logger logger = LoggerFactory.getLogger(DockerStatsCollector.class);
+
+    /**
+     * 레지스트리에 보관하는 컨테이너 정보
+     *
+     * @param id      컨테이너 ID
+     * @param name    컨테이너 이름 (Docker 목록과 같이 "/" 로 시작)
+     * @param running 실행 중 여부 (start 이후 die 전까지)
+     */
+    public record ContainerInfo(String id, String name, boolean running) {
+    }
+
+    // 컨테이너 ID -> 컨테이너 정보
+    private final Map<String, ContainerInfo> registry = new ConcurrentHashMap<>();
+    // 실행 중인 컨테이너의 ID 집합이 바뀔 때마다 증가 (이름 변경, 중지된 컨테이너의 생성/삭제는 포함하지 않음)
+    // 이벤트 스레드와 수집 스레드(reconcile)가 함께 올림
+    private final AtomicLong membershipVersion = new AtomicLong();
+    // 이벤트 반영과 reconcile 병합을 직렬화하는 lock (목록 조회 자체는 lock 밖에서 수행)
+    private final Object registryLock = new Object();
+    // 반영한 이벤트 수 및 컨테이너 ID -> 마지막 이벤트 번호 (registryLock 안에서만 접근)
+    private long eventSequence;
+    private final Map<String, Long> lastEventSequence = new HashMap<>();
+    // 이벤트 스트림이 끊겨 전체 목록 재조회가 필요한지 여부
+    private volatile boolean stale = true;
+    private volatile ResultCallback.Adapter<Event> eventSubscription;
+    private final long reconcileIntervalNanos;
+    private long lastReconcileNanos;
+
     /**
      * 외부에서 접근 가능한 DockerClient 인스턴스
      */
@@ -25,8 +66,10 @@ public class DockerStatsCollector {
 
     /**
      * 생성자: OS 환경에 따라 DockerHost를 자동 설정하고 DockerClient 초기화
+     *
+     * @param reconcileIntervalMs 이벤트 누락 대비 전체 목록 재조회 주기(ms)
      */
-    public DockerStatsCollector() {
+    public DockerStatsCollector(long reconcileIntervalMs) {
         // 환경변수에서 DOCKER_HOST 값을 우선 사용
         String dockerHost = System.getenv("DOCKER_HOST");
         if (dockerHost == null || dockerHost.isEmpty()) {
@@ -48,6 +91,8 @@ public class DockerStatsCollector {
 
         // DockerClient 초기화
         this.dockerClient = DockerClientImpl.getInstance(config, httpClient);
+
+        this.reconcileIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1000L, reconcileIntervalMs));
     }
 
     /**
@@ -76,4 +121,191 @@ public class DockerStatsCollector {
                 .withShowAll(true) // 중지된 컨테이너도 포함
                 .exec();
     }
+
+    /**
+     * 레지스트리에 있는 컨테이너 목록을 반환한다 (중지된 컨테이너 포함).
+     * 이벤트 스트림이 끊겼거나 reconcile 주기가 지났을 때만 Docker에 전체 목록을 요청한다.
+     *
+     * @return 컨테이너 정보 스냅샷
+     */
+    public Collection<ContainerInfo> getContainers() {
+        ensureEventStream();
+        long now = System.nanoTime();
+        if (stale || now - lastReconcileNanos >= reconcileIntervalNanos) {
+            reconcile(now);
+        }
+        return List.copyOf(registry.values());
+    }
+
+    /**
+     * 레지스트리에서 실행 중인 컨테이너만 반환한다.
+     * 중지된 컨테이너는 stats 스트림이나 cgroup 디렉터리가 없으므로 수집 대상에서 뺄 때 사용한다.
+     *
+     * @return 실행 중인 컨테이너 정보 스냅샷
+     */
+    public Collection<ContainerInfo> getRunningContainers() {
+        List<ContainerInfo> running = new ArrayList<>();
+        for (ContainerInfo container : getContainers()) {
+            if (container.running()) {
+                running.add(container);
+            }
+        }
+        return running;
+    }
+
+    /**
+     * @return 실행 중인 컨테이너 ID 집합이 바뀔 때마다 증가하는 값. 호출 측은 이 값이 바뀐 경우에만 이전 상태를 정리하면 된다.
+     */
+    public long getMembershipVersion() {
+        return membershipVersion.get();
+    }
+
+    //전체 목록으로 레지스트리를 다시 맞춤 (조회 시작 이후 이벤트가 온 컨테이너는 이벤트 쪽 상태를 유지)
+    private void reconcile(long now) {
+        long listedAt;
+        synchronized (registryLock) {
+            listedAt = eventSequence;
+        }
+        List<Container> containers;
+        try {
+            containers = listAllContainers();
+        } catch (Exception e) {
+            //실패하면 기존 레지스트리를 유지하고 다음 tick에 재시도
+            logger.warn("container list failed: {}", e.getMessage());
+            return;
+        }
+        Map<String, ContainerInfo> listed = new HashMap<>();
+        for (Container c : containers) {
+            String name = c.getNames() != null && c.getNames().length > 0 ? c.getNames()[0] : "unknown";
+            listed.put(c.getId(), new ContainerInfo(c.getId(), name, "running".equals(c.getState())));
+        }
+        synchronized (registryLock) {
+            Set<String> runningBefore = runningIds(registry.values());
+            registry.keySet().removeIf(id -> !listed.containsKey(id) && !changedSince(id, listedAt));
+            for (Map.Entry<String, ContainerInfo> e : listed.entrySet()) {
+                // 조회 도중 die/destroy 등이 반영된 컨테이너는 목록의 이전 상태로 되돌리지 않음
+                if (!changedSince(e.getKey(), listedAt)) {
+                    registry.put(e.getKey(), e.getValue());
+                }
+            }
+            // 조회 시작 전 이벤트는 목록에 이미 반영되었으므로 번호를 버림 (사라진 컨테이너 ID 정리)
+            lastEventSequence.values().removeIf(seq -> seq <= listedAt);
+            if (!runningBefore.equals(runningIds(registry.values()))) {
+                membershipVersion.incrementAndGet();
+            }
+        }
+        stale = false;
+        lastReconcileNanos = now;
+        logger.debug("container registry reconciled: {} containers", listed.size());
+    }
+
+    //listedAt 이후 이 컨테이너의 이벤트를 반영했는지 여부 (registryLock 안에서 호출)
+    private boolean changedSince(String id, long listedAt) {
+        Long seq = lastEventSequence.get(id);
+        return seq != null && seq > listedAt;
+    }
+
+    private static Set<String> runningIds(Collection<ContainerInfo> containers) {
+        Set<String> ids = new HashSet<>();
+        for (ContainerInfo container : containers) {
+            if (container.running()) ids.add(container.id());
+        }
+        return ids;
+    }
+
+    //이벤트 스트림이 없으면 구독 시작 (구독 전후 사이의 이벤트는 이어지는 reconcile로 보정)
+    private void ensureEventStream() {
+        if (eventSubscription != null) return;
+        // 콜백이 exec() 반환 전에 끊김을 알릴 수 있으므로 먼저 등록해 둠
+        ContainerEventCallback callback = new ContainerEventCallback();
+        eventSubscription = callback;
+        stale = true;
+        try {
+            dockerClient.eventsCmd()
+                    .withEventTypeFilter(EventType.CONTAINER)
+                    .withEventFilter("create", "start", "die", "destroy", "rename")
+                    .exec(callback);
+        } catch (Exception e) {
+            logger.warn("docker event stream subscribe failed: {}", e.getMessage());
+            eventSubscription = null;
+        }
+    }
+
+    //컨테이너 이벤트 1건을 레지스트리에 반영
+    private void onContainerEvent(Event event) {
+        String id = event.getId();
+        String action = event.getAction();
+        if (id == null || action == null) return;
+
+        Map<String, String> attributes = event.getActor() != null ? event.getActor().getAttributes() : null;
+        String name = attributes != null ? attributes.get("name") : null;
+        String displayName = name != null ? "/" + name : "unknown";
+
+        synchronized (registryLock) {
+            lastEventSequence.put(id, ++eventSequence);
+            applyEvent(id, action, displayName);
+        }
+        logger.debug("container event: {} {}", action, id);
+    }
+
+    //이벤트 1건에 맞게 레지스트리 항목을 바꿈 (registryLock 안에서 호출)
+    private void applyEvent(String id, String action, String displayName) {
+        switch (action) {
+            // create: 아직 실행 전이므로 목록에만 추가 (start를 놓쳐 이미 실행 중으로 알고 있으면 유지)
+            case "create" -> registry.compute(id, (k, v) -> new ContainerInfo(id, displayName, v != null && v.running()));
+            case "start" -> {
+                ContainerInfo previous = registry.put(id, new ContainerInfo(id, displayName, true));
+                if (previous == null || !previous.running()) {
+                    membershipVersion.incrementAndGet();
+                }
+            }
+            case "rename" -> registry.computeIfPresent(id, (k, v) -> new ContainerInfo(id, displayName, v.running()));
+            // die: 중지된 컨테이너도 목록에 남음 (listAllContainers의 showAll과 동일)
+            case "die" -> {
+                ContainerInfo previous = registry.get(id);
+                if (previous != null && previous.running()) {
+                    registry.put(id, new ContainerInfo(id, previous.name(), false));
+                    membershipVersion.incrementAndGet();
+                }
+            }
+            case "destroy" -> {
+                ContainerInfo previous = registry.remove(id);
+                if (previous != null && previous.running()) {
+                    membershipVersion.incrementAndGet();
+                }
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Docker 이벤트 스트림 콜백. 스트림이 끊기면 전체 목록 재조회 후 다시 구독한다.
+     */
+    private class ContainerEventCallback extends ResultCallback.Adapter<Event> {
+
+        @Override
+        public void onNext(Event event) {
+            onContainerEvent(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            logger.warn("docker event stream error: {}", throwable.getMessage());
+            streamClosed();
+            super.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            streamClosed();
+            super.onComplete();
+        }
+
+        private void streamClosed() {
+            if (eventSubscription == this) {
+                eventSubscription = null;
+            }
+            stale = true;
+        }
+    }
 }
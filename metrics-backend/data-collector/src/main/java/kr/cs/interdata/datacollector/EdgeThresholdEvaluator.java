@@ -0,0 +1,169 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.ContainerSample;
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+import kr.cs.interdata.metricsmodel.MetricFields;
+import kr.cs.interdata.metricsmodel.WindowStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EdgeThresholdEvaluator는 Kafka로 보내기 전의 payload를 api-backend와 같은 규칙으로 임계값과 비교한다.
+ *
+ * - 호스트: cpu, memory, diskReadDelta, diskWriteDelta, networkTx/Rx, temperature (이번 tick에 수집한 그룹만)
+ * - 컨테이너: cpu, memory, diskReadDelta, diskWriteDelta, networkTx/Rx (stale 컨테이너는 제외)
+ * - 메트릭마다 over를 먼저 보고, 넘지 않았을 때만 under를 본다.
+ * - network는 방향(Tx/Rx)마다 처음 위반한 인터페이스 1개만 알린다.
+ * - window 통계가 있으면 설정한 통계 값(windowStatistic: min | max | mean | last)으로 비교한다.
+ * 0 값(컨테이너 종료) 판단은 상태가 필요하므로 api-backend에 남겨 둔다.
+ */
+public class EdgeThresholdEvaluator {
+
+    private static final String TYPE_CONTAINER = "container";
+
+    private final String windowStatistic;
+
+    /**
+     * @param windowStatistic window 집계 메트릭에서 임계값과 비교할 통계 (api-backend의 THRESHOLD_WINDOW_STATISTIC과 같게 설정)
+     */
+    public EdgeThresholdEvaluator(String windowStatistic) {
+        this.windowStatistic = windowStatistic;
+    }
+
+    /**
+     * @return 위반 목록 (없으면 빈 목록)
+     */
+    public List<ThresholdAlert> evaluate(HostSample payload, ThresholdSettingsClient.Thresholds thresholds) {
+        List<ThresholdAlert> alerts = new ArrayList<>();
+        String timestamp = payload.timeStamp();
+
+        // 1. 호스트 (컨테이너 전용 레코드는 호스트 값이 없음)
+        if (!MetricFields.TYPE_CONTAINERS.equals(payload.type())) {
+            Target host = new Target(MetricFields.TYPE_HOST, payload.hostId(), payload.name(), timestamp,
+                    payload.window(), thresholds, alerts);
+            if (payload.cpuUsagePercent() != null) {
+                host.check("cpu", MetricWindowAggregator.KEY_CPU, payload.cpuUsagePercent());
+            }
+            if (payload.memoryUsedBytes() != null) {
+                host.check("memory", MetricWindowAggregator.KEY_MEMORY, payload.memoryUsedBytes());
+            }
+            if (payload.diskReadBytesDelta() != null && payload.diskWriteBytesDelta() != null) {
+                host.check("diskReadDelta", MetricWindowAggregator.KEY_DISK_READ, payload.diskReadBytesDelta());
+                host.check("diskWriteDelta", MetricWindowAggregator.KEY_DISK_WRITE, payload.diskWriteBytesDelta());
+            }
+            if (payload.networkDelta() != null) {
+                host.checkNetwork(payload.networkDelta());
+            }
+            if (payload.temperatures() != null && !payload.temperatures().isEmpty()) {
+                //가장 높은 센서 온도
+                double maxTemp = -Double.MAX_VALUE;
+                for (Double celsius : payload.temperatures().values()) {
+                    if (celsius != null && celsius > maxTemp) {
+                        maxTemp = celsius;
+                    }
+                }
+                host.check("temperature", null, maxTemp);
+            }
+        }
+
+        // 2. 컨테이너
+        for (Map.Entry<String, ContainerSample> entry : payload.containers().entrySet()) {
+            ContainerSample c = entry.getValue();
+            //직전 값을 다시 보낸 컨테이너는 이미 평가한 값
+            if (c.stale()) {
+                continue;
+            }
+            Target container = new Target(TYPE_CONTAINER, entry.getKey(), c.name(), timestamp,
+                    c.window(), thresholds, alerts);
+            container.check("cpu", MetricWindowAggregator.KEY_CPU, c.cpuUsagePercent());
+            container.check("memory", MetricWindowAggregator.KEY_MEMORY, c.memoryUsedBytes());
+            container.check("diskReadDelta", MetricWindowAggregator.KEY_DISK_READ, c.diskReadBytesDelta());
+            container.check("diskWriteDelta", MetricWindowAggregator.KEY_DISK_WRITE, c.diskWriteBytesDelta());
+            container.checkNetwork(c.networkDelta());
+        }
+        return alerts;
+    }
+
+    //window 통계에서 설정한 통계 값 (알 수 없는 이름이면 max)
+    private double statistic(WindowStats stats) {
+        return switch (windowStatistic) {
+            case "min" -> stats.min();
+            case "mean" -> stats.mean();
+            case "last" -> stats.last();
+            default -> stats.max();
+        };
+    }
+
+    //평가 대상 1개 (호스트 또는 컨테이너)
+    private final class Target {
+
+        private final String type;
+        private final String machineId;
+        private final String machineName;
+        private final String timestamp;
+        private final Map<String, WindowStats> window;
+        private final ThresholdSettingsClient.Thresholds thresholds;
+        private final List<ThresholdAlert> alerts;
+
+        private Target(String type, String machineId, String machineName, String timestamp,
+                       Map<String, WindowStats> window,
+                       ThresholdSettingsClient.Thresholds thresholds, List<ThresholdAlert> alerts) {
+            this.type = type;
+            this.machineId = machineId;
+            this.machineName = machineName;
+            this.timestamp = timestamp;
+            this.window = window;
+            this.thresholds = thresholds;
+            this.alerts = alerts;
+        }
+
+        /**
+         * @param windowKey window 통계 키 (window 통계가 없는 메트릭은 null)
+         * @return true - 위반 없음
+         */
+        boolean check(String metricName, String windowKey, double value) {
+            if (window != null && windowKey != null) {
+                WindowStats stats = window.get(windowKey);
+                if (stats != null) {
+                    value = statistic(stats);
+                }
+            }
+
+            Double over = thresholds.over().get(metricName);
+            if (over != null && value > over) {
+                alerts.add(alert(metricName, value, over, ThresholdAlert.DIRECTION_OVER));
+                return false;
+            }
+            Double under = thresholds.under().get(metricName);
+            if (under != null && value < under) {
+                alerts.add(alert(metricName, value, under, ThresholdAlert.DIRECTION_UNDER));
+                return false;
+            }
+            return true;
+        }
+
+        //Tx, Rx 순서로 인터페이스를 보고 방향마다 처음 위반한 인터페이스에서 멈춤
+        void checkNetwork(Map<String, InterfaceDelta> network) {
+            for (Map.Entry<String, InterfaceDelta> e : network.entrySet()) {
+                String key = MetricWindowAggregator.KEY_NETWORK_PREFIX + e.getKey() + MetricWindowAggregator.KEY_TX_SUFFIX;
+                if (!check("networkTx", key, e.getValue().txBytesDelta())) {
+                    break;
+                }
+            }
+            for (Map.Entry<String, InterfaceDelta> e : network.entrySet()) {
+                String key = MetricWindowAggregator.KEY_NETWORK_PREFIX + e.getKey() + MetricWindowAggregator.KEY_RX_SUFFIX;
+                if (!check("networkRx", key, e.getValue().rxBytesDelta())) {
+                    break;
+                }
+            }
+        }
+
+        private ThresholdAlert alert(String metricName, double value, double threshold, String direction) {
+            return new ThresholdAlert(type, machineId, machineName, metricName,
+                    String.valueOf(value), String.valueOf(threshold), direction, timestamp);
+        }
+    }
+}
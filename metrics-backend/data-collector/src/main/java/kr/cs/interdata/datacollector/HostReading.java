@@ -0,0 +1,106 @@
+package kr.cs.interdata.datacollector;
+
+import java.util.List;
+
+/**
+ * HostReading은 1회 수집(tick)에서 MachineResourceMonitor가 읽은 호스트 리소스 값을 담는 불변 객체이다.
+ * 값은 모두 누적값/순간값 그대로이며, delta 계산과 Kafka payload 직렬화는 호출 측(KafkaProducerRunner)에서 한다.
+ * 이번 tick에 읽지 않은 그룹(groups에 bit 없음)의 값은 직전에 읽은 값이 그대로 들어 있으므로 사용하지 않는다.
+ *
+ * @param hostId            호스트 고유 ID
+ * @param cpuUsagePercent   CPU 사용률(%)
+ * @param memoryTotalBytes  전체 메모리(바이트)
+ * @param memoryUsedBytes   사용 중인 메모리(바이트)
+ * @param memoryFreeBytes   사용 가능한 메모리(바이트, MemAvailable)
+ * @param diskTotalBytes    전체 디스크 용량(바이트, 장치별 중복 없이 합산)
+ * @param diskUsedBytes     사용 중인 디스크 용량(바이트)
+ * @param diskFreeBytes     사용 가능한 디스크 용량(바이트)
+ * @param diskReadBytes     누적 디스크 읽기 바이트
+ * @param diskWriteBytes    누적 디스크 쓰기 바이트
+ * @param filesystems       실제 파일시스템별 용량 (장치당 1개)
+ * @param network           네트워크 인터페이스별 누적 송수신 바이트 (MachineNetworkMonitor가 재사용하는 holder이므로 다음 수집 전까지만 유효)
+ * @param temperatures      온도 센서별 측정값
+ * @param groups            이번 tick에 읽은 지표 그룹 (MetricGroup bit mask)
+ */
+public record HostReading(
+        String hostId,
+        double cpuUsagePercent,
+        long memoryTotalBytes,
+        long memoryUsedBytes,
+        long memoryFreeBytes,
+        long diskTotalBytes,
+        long diskUsedBytes,
+        long diskFreeBytes,
+        long diskReadBytes,
+        long diskWriteBytes,
+        List<FilesystemSample> filesystems,
+        List<InterfaceSample> network,
+        List<SensorSample> temperatures,
+        int groups
+) {
+
+    public HostReading {
+        filesystems = List.copyOf(filesystems);
+        // network는 tick마다 재사용하는 holder 목록이므로 복사하지 않음
+        temperatures = List.copyOf(temperatures);
+    }
+
+    //이번 tick에 이 그룹을 읽었는지
+    public boolean sampled(MetricGroup group) {
+        return group.in(groups);
+    }
+
+    /**
+     * 파일시스템 1개의 용량
+     *
+     * @param mountPoint 대표 마운트 경로 (같은 장치의 bind mount 중 처음 나온 경로)
+     * @param device     마운트 source (예: /dev/sda1)
+     * @param fsType     파일시스템 타입 (예: ext4, xfs)
+     * @param totalBytes 전체 용량(바이트)
+     * @param freeBytes  사용 가능 용량(바이트)
+     */
+    public record FilesystemSample(String mountPoint, String device, String fsType, long totalBytes, long freeBytes) {
+    }
+
+    /**
+     * 네트워크 인터페이스 1개의 누적 트래픽
+     * 매 tick 새로 만들지 않도록 MachineNetworkMonitor가 인터페이스 위치별로 재사용하는 mutable holder이다.
+     *
+     * - key           : payload에서 사용하는 인터페이스 키 ("인터페이스명_인덱스")
+     * - bytesReceived : 누적 수신 바이트
+     * - bytesSent     : 누적 송신 바이트
+     */
+    public static final class InterfaceSample {
+        private String key;
+        private long bytesReceived;
+        private long bytesSent;
+
+        public InterfaceSample(String key, long bytesReceived, long bytesSent) {
+            set(key, bytesReceived, bytesSent);
+        }
+
+        void set(String key, long bytesReceived, long bytesSent) {
+            this.key = key;
+            this.bytesReceived = bytesReceived;
+            this.bytesSent = bytesSent;
+        }
+
+        public String key() { return key; }
+        public long bytesReceived() { return bytesReceived; }
+        public long bytesSent() { return bytesSent; }
+
+        @Override
+        public String toString() {
+            return "InterfaceSample[key=" + key + ", bytesReceived=" + bytesReceived + ", bytesSent=" + bytesSent + "]";
+        }
+    }
+
+    /**
+     * 온도 센서 1개의 측정값
+     *
+     * @param label   센서 이름 (예: "coretemp/Core 0", "x86_pkg_temp (thermal_zone0)")
+     * @param celsius 섭씨 온도
+     */
+    public record SensorSample(String label, double celsius) {
+    }
+}
@@ -0,0 +1,23 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.MetricJsonCodec;
+
+/**
+ * HostSample을 들여쓰기 없는 compact JSON(UTF-8)으로 인코딩한다.
+ * 바이너리 형식을 모르는 consumer와 호환되는 기본(fallback) 인코더.
+ */
+public class JsonMetricEncoder implements MetricEncoder {
+
+    public static final String FORMAT = MetricJsonCodec.FORMAT;
+
+    @Override
+    public String format() {
+        return FORMAT;
+    }
+
+    @Override
+    public byte[] encode(HostSample payload) {
+        return MetricJsonCodec.encode(payload);
+    }
+}
@@ -1,61 +1,53 @@
 package kr.cs.interdata.datacollector;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.*;
 
-//리눅스의 /proc/net/dev 파일을 읽어 각 네트워크 인터페이스의 누적 트래픽 정보를 JSON 형태로 반환
+//리눅스의 /proc/net/dev 값을 읽어 각 네트워크 인터페이스의 누적 트래픽 정보를 반환
+//인터페이스 위치별 key 문자열과 InterfaceSample holder를 재사용하므로, 인터페이스 구성이 그대로면 tick마다 할당하지 않는다.
+//반환한 목록과 holder는 다음 호출에서 덮어쓰므로 그 전까지만 사용해야 한다. (스레드 안전하지 않음)
 public class MachineNetworkMonitor {
-    //호스트의 /proc/net/dev 파일을 컨테이너 내부에서 접근할 경로
-    private static final String PROC_NET_DEV = "/host/proc/net/dev"; // 호스트에서 마운트한 경로
 
-    public Map<String, Object> getNetworkInfoJson() {
-        Map<String, Object> result = new LinkedHashMap<>();
-        int idx = 0;
+    //위치 i의 key를 만들 때 사용한 인터페이스 이름 (ProcSnapshot이 같은 이름이면 같은 String을 돌려주므로 참조로 비교)
+    private String[] keyNames = new String[0];
+    private String[] keys = new String[0];
+    private final List<HostReading.InterfaceSample> holders = new ArrayList<>();
+    private final List<HostReading.InterfaceSample> samples = new ArrayList<>();
+    private final List<HostReading.InterfaceSample> samplesView = Collections.unmodifiableList(samples);
 
-        List<String> lines;
-        try {
-            //host/proc/net/dev 파일의 모든 라인 읽기
-            lines = Files.readAllLines(Paths.get(PROC_NET_DEV));
-        } catch (IOException e) {
-            // 파일 읽기 실패 시 빈 맵 반환
-            return result;
+    public List<HostReading.InterfaceSample> getInterfaceSamples() {
+        return getInterfaceSamples(ProcSnapshot.capture());
+    }
+
+    //snapshot에서 이미 파싱된 /proc/net/dev 값으로 인터페이스별 샘플 생성
+    public List<HostReading.InterfaceSample> getInterfaceSamples(ProcSnapshot snapshot) {
+        int count = snapshot.getNetInterfaceCount();
+        if (keys.length < count) {
+            keys = Arrays.copyOf(keys, count);
+            keyNames = Arrays.copyOf(keyNames, count);
         }
+        samples.clear();
 
         //참고) 제일 밑에 /proc/net/dev 파일 구조와 각 필드가 의미하는 내용있습니다!
-
-        // 첫 두 줄은 헤더이므로 건너뜀
-        for (int i = 2; i < lines.size(); i++) {
-            String line = lines.get(i).trim();
-            if (line.isEmpty()) continue;//빈 줄은 무시
-
-            //각 라인을 :를 기준으로 분리(왼족: 인터페이스 이름, 오른쪽 : 데이터)
-            String[] ifaceSplit = line.split(":");
-            if (ifaceSplit.length < 2) continue;//이상한 라인 무시
-
-            String iface = ifaceSplit[0].trim();//인터페이스 이름 추출
-            String[] data = ifaceSplit[1].trim().split("\\s+");
-            if (data.length < 16) continue;//데이터 필드 부족하면 무시
-
-            try {
-                //data[0]: 누적 수신 바이트
-                //data[8]: 누적 송신 바이트
-                long bytesReceived = Long.parseLong(data[0]);
-                long bytesSent = Long.parseLong(data[8]);
-                //인터페이스별 정보 맵 생성
-                Map<String, Object> netInfo = new LinkedHashMap<>();
-                netInfo.put("speedBps", null); // /proc/net/dev에는 속도 정보 없음
-                netInfo.put("bytesReceived", bytesReceived);
-                netInfo.put("bytesSent", bytesSent);
-                //결과 맵에 "인터페이스명_인덱스"를 key로 추가
-                result.put(iface + "_" + idx, netInfo);
-                idx++;
-            } catch (NumberFormatException e) {
-                // 파싱 실패 시 해당 인터페이스는 건너뜀
+        for (int i = 0; i < count; i++) {
+            long bytesReceived = snapshot.getNetRxBytes(i);//누적 수신 바이트
+            long bytesSent = snapshot.getNetTxBytes(i);//누적 송신 바이트
+            if (i == holders.size()) {
+                holders.add(new HostReading.InterfaceSample(null, 0, 0));
             }
+            HostReading.InterfaceSample sample = holders.get(i);
+            sample.set(keyFor(i, snapshot.getNetInterfaceName(i)), bytesReceived, bytesSent);
+            samples.add(sample);
+        }
+        return samplesView;
+    }
+
+    //"인터페이스명_인덱스"를 key로 사용 (/proc/net/dev에는 속도 정보 없음). 이름이 바뀐 위치만 새로 만듦
+    private String keyFor(int i, String name) {
+        if (keyNames[i] != name) {
+            keys[i] = name + "_" + i;
+            keyNames[i] = name;
         }
-        return result;
+        return keys[i];
     }
 }
 
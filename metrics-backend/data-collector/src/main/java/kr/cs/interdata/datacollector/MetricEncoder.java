@@ -0,0 +1,37 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.MetricFields;
+
+/**
+ * MetricEncoder는 HostSample을 Kafka 메시지 값(byte[])으로 인코딩한다.
+ * 인코딩 형식은 Kafka 헤더(MetricFields.FORMAT_HEADER)에 format() 값으로 실려 가며, consumer/api-backend는 이 값으로 디코더를 고른다.
+ *
+ * 구현체:
+ *  - JsonMetricEncoder   : 들여쓰기 없는 compact JSON ("json")
+ *  - BinaryMetricEncoder : 스키마 기반 바이너리 ("binary-v1")
+ */
+public interface MetricEncoder {
+
+    //Kafka 헤더에 실을 형식 값
+    String format();
+
+    //payload를 메시지 값으로 인코딩
+    byte[] encode(HostSample payload);
+
+    /**
+     * 설정 값(METRIC_ENCODING)에 맞는 인코더를 생성한다.
+     *
+     * @param encoding "binary"("binary-v1") 또는 "json"
+     * @throws IllegalArgumentException 그 외 값 (오타로 wire 형식이 조용히 바뀌지 않도록 시작 시 실패)
+     */
+    static MetricEncoder forName(String encoding) {
+        if ("binary".equalsIgnoreCase(encoding) || BinaryMetricEncoder.FORMAT.equalsIgnoreCase(encoding)) {
+            return new BinaryMetricEncoder();
+        }
+        if (JsonMetricEncoder.FORMAT.equalsIgnoreCase(encoding)) {
+            return new JsonMetricEncoder();
+        }
+        throw new IllegalArgumentException("알 수 없는 METRIC_ENCODING: " + encoding + " (json | binary)");
+    }
+}
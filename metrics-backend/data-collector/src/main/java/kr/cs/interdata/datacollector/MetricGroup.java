@@ -0,0 +1,41 @@
+package kr.cs.interdata.datacollector;
+
+/**
+ * MetricGroup은 수집 주기를 따로 정할 수 있는 호스트 지표 묶음이다.
+ *
+ * 그룹마다 bit 하나를 쓰며, 한 tick에 수집할 그룹은 bit mask(int)로 주고받는다.
+ * payload/binary 형식의 group bit(metrics-model의 MetricFields.GROUP_*)도 같은 값을 사용하므로 순서를 바꾸지 않는다. (새 그룹은 끝에 추가)
+ * CAPACITY는 payload에 실리지 않고, 마운트 용량 조회 주기와 /actuator/prometheus의 파일시스템 용량 지표 갱신에 쓴다.
+ */
+public enum MetricGroup {
+
+    CPU("cpu"),                 // cpuUsagePercent
+    MEMORY("memory"),           // memoryUsedBytes
+    NETWORK("network"),         // networkDelta
+    DISK_IO("disk"),            // diskReadBytesDelta, diskWriteBytesDelta
+    TEMPERATURE("temperature"), // temperatures
+    CAPACITY("capacity");       // 파일시스템 용량 (payload 없음, host_filesystem_* 지표)
+
+    // 모든 그룹
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final String key;
+
+    MetricGroup(String key) {
+        this.key = key;
+    }
+
+    //설정/로그에 쓰는 이름
+    public String key() {
+        return key;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    //mask에 이 그룹이 포함되어 있는지
+    public boolean in(int mask) {
+        return (mask & bit()) != 0;
+    }
+}
@@ -0,0 +1,323 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.ContainerSample;
+import kr.cs.interdata.metricsmodel.HostSample;
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+import kr.cs.interdata.metricsmodel.MetricFields;
+import kr.cs.interdata.metricsmodel.WindowStats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * MetricWindowAggregator는 수집 주기(tick)마다 읽은 호스트/컨테이너 지표를 window 동안 모았다가,
+ * window가 끝날 때 지표별 통계(min, max, mean, last, count) 1건으로 요약한다.
+ *
+ * - 시리즈(호스트/컨테이너 × 지표 × 인터페이스)마다 window 크기의 double 슬롯을 하나의 배열에 잡아 ring buffer로 쓴다.
+ *   tick당 샘플 기록에는 박싱이나 객체 생성이 없다.
+ * - 요약 payload의 기존 필드에는 평균을 싣는다. (window 길이로 1회 수집했을 때의 값과 같은 의미)
+ * - delta 지표(디스크, 네트워크)는 샘플마다 window 1개 길이(= 발행 주기)당 양으로 환산해서 모은다.
+ *   평균은 window 동안의 총량과 같고, 최댓값은 짧은 burst가 발행 주기 내내 이어졌을 때의 양이다.
+ * - 온도는 집계하지 않고 window 안의 마지막 값을 싣는다.
+ * - window 동안 한 번도 기록되지 않은 컨테이너/인터페이스는 요약 후 정리한다.
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 호출한다.
+ */
+public class MetricWindowAggregator {
+
+    // window 통계 키: 필드 이름, 인터페이스는 "networkDelta/인터페이스 키/rxBytesDelta"
+    public static final String KEY_CPU = MetricFields.CPU_USAGE_PERCENT;
+    public static final String KEY_MEMORY = MetricFields.MEMORY_USED_BYTES;
+    public static final String KEY_DISK_READ = MetricFields.DISK_READ_BYTES_DELTA;
+    public static final String KEY_DISK_WRITE = MetricFields.DISK_WRITE_BYTES_DELTA;
+    public static final String KEY_NETWORK_PREFIX = MetricFields.NETWORK_DELTA + "/";
+    public static final String KEY_RX_SUFFIX = "/" + MetricFields.RX_BYTES_DELTA;
+    public static final String KEY_TX_SUFFIX = "/" + MetricFields.TX_BYTES_DELTA;
+
+    private static final int FIELD_RX = 0, FIELD_TX = 1;
+
+    private final int windowTicks;
+    private final long windowNanos;
+
+    // 호스트 시리즈와 컨테이너 ID별 시리즈
+    private final Target host = new Target();
+    private final Map<String, Target> containers = new HashMap<>();
+
+    // 슬롯 ID -> [slot * windowTicks, (slot + 1) * windowTicks) 구간이 그 시리즈의 ring
+    private double[] samples;
+    // 슬롯 ID -> 이번 window에 기록한 샘플 수 (ring 크기를 넘으면 오래된 샘플부터 덮어씀)
+    private int[] counts;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * @param windowTicks 1개 window의 tick 수 (= ring 크기)
+     * @param tickMs      수집 주기(ms)
+     */
+    public MetricWindowAggregator(int windowTicks, long tickMs) {
+        this.windowTicks = windowTicks;
+        this.windowNanos = tickMs * 1_000_000L * windowTicks;
+        this.samples = new double[64 * windowTicks];
+        this.counts = new int[64];
+    }
+
+    public int getWindowTicks() {
+        return windowTicks;
+    }
+
+    /**
+     * 호스트 payload 1건의 지표를 기록한다. 값이 없는 그룹(null)은 건너뛴다.
+     * 호스트 delta는 수집 주기 1회분이므로 window tick 수를 곱해 발행 주기당 양으로 환산한다.
+     */
+    public void recordHost(HostSample payload) {
+        if (payload.cpuUsagePercent() != null) {
+            host.cpu = record(host.cpu, payload.cpuUsagePercent());
+        }
+        if (payload.memoryUsedBytes() != null) {
+            host.memory = record(host.memory, payload.memoryUsedBytes());
+        }
+        if (payload.diskReadBytesDelta() != null && payload.diskWriteBytesDelta() != null) {
+            host.diskRead = record(host.diskRead, (double) payload.diskReadBytesDelta() * windowTicks);
+            host.diskWrite = record(host.diskWrite, (double) payload.diskWriteBytesDelta() * windowTicks);
+        }
+        if (payload.networkDelta() != null) {
+            recordInterfaces(host, payload.networkDelta(), windowTicks);
+        }
+        if (payload.temperatures() != null) {
+            host.temperatures = payload.temperatures();
+        }
+    }
+
+    /**
+     * 새로 계산한 컨테이너 지표 1건을 기록한다. (직전 결과를 재사용한 tick에는 호출하지 않음)
+     *
+     * @param containerId  컨테이너 ID
+     * @param metrics      계산 결과
+     * @param elapsedNanos delta 계산에 쓴 두 샘플 사이 시간 (모르면 0, delta를 환산하지 않음)
+     */
+    public void recordContainer(String containerId, ContainerSample metrics, long elapsedNanos) {
+        Target target = containers.computeIfAbsent(containerId, k -> new Target());
+        target.touched = true;
+        double scale = elapsedNanos > 0 ? (double) windowNanos / elapsedNanos : 1.0;
+        target.cpu = record(target.cpu, metrics.cpuUsagePercent());
+        target.memory = record(target.memory, metrics.memoryUsedBytes());
+        target.diskRead = record(target.diskRead, metrics.diskReadBytesDelta() * scale);
+        target.diskWrite = record(target.diskWrite, metrics.diskWriteBytesDelta() * scale);
+        recordInterfaces(target, metrics.networkDelta(), scale);
+    }
+
+    /**
+     * window를 마치고 요약 payload를 만든 뒤 다음 window를 위해 비운다.
+     *
+     * @param latestHost       마지막 tick의 호스트 payload (이름/시각, 이번 window에 값이 없는 그룹 판단용)
+     * @param latestContainers 마지막 tick의 컨테이너 지표 (이번 window에 새 값이 없던 컨테이너는 그대로 실림)
+     * @return 호스트 + 컨테이너 요약 payload
+     */
+    public HostSample flush(HostSample latestHost, Map<String, ContainerSample> latestContainers) {
+        Map<String, WindowStats> hostWindow = new LinkedHashMap<>();
+        Double cpu = mean(host.cpu, KEY_CPU, hostWindow);
+        Double memory = mean(host.memory, KEY_MEMORY, hostWindow);
+        Double diskRead = mean(host.diskRead, KEY_DISK_READ, hostWindow);
+        Double diskWrite = mean(host.diskWrite, KEY_DISK_WRITE, hostWindow);
+        Map<String, InterfaceDelta> network = summarizeInterfaces(host, hostWindow);
+
+        Map<String, ContainerSample> containerSummaries = new LinkedHashMap<>();
+        for (Map.Entry<String, ContainerSample> entry : latestContainers.entrySet()) {
+            Target target = containers.get(entry.getKey());
+            ContainerSample latest = entry.getValue();
+            if (target == null || !hasSamples(target.cpu)) {
+                //이번 window에 새 값이 없음 → 마지막 결과(stale 표시 포함) 그대로
+                containerSummaries.put(entry.getKey(), latest);
+                continue;
+            }
+            Map<String, WindowStats> window = new LinkedHashMap<>();
+            double containerCpu = mean(target.cpu, KEY_CPU, window);
+            double containerMemory = mean(target.memory, KEY_MEMORY, window);
+            double containerDiskRead = mean(target.diskRead, KEY_DISK_READ, window);
+            double containerDiskWrite = mean(target.diskWrite, KEY_DISK_WRITE, window);
+            Map<String, InterfaceDelta> containerNetwork = summarizeInterfaces(target, window);
+            containerSummaries.put(entry.getKey(), new ContainerSample(
+                    latest.name(),
+                    containerCpu,
+                    Math.round(containerMemory),
+                    Math.round(containerDiskRead),
+                    Math.round(containerDiskWrite),
+                    containerNetwork != null ? containerNetwork : Map.of(),
+                    false,
+                    window));
+        }
+
+        HostSample summary = new HostSample(
+                latestHost.type(),
+                latestHost.hostId(),
+                latestHost.name(),
+                latestHost.timeStamp(),
+                cpu,
+                memory != null ? Math.round(memory) : null,
+                diskRead != null ? Math.round(diskRead) : null,
+                diskWrite != null ? Math.round(diskWrite) : null,
+                network,
+                host.temperatures,
+                containerSummaries,
+                hostWindow.isEmpty() ? null : hostWindow);
+        reset();
+        return summary;
+    }
+
+    //현재 사용 중인 시리즈 수
+    public int size() {
+        return slotCount - freeCount;
+    }
+
+    private void recordInterfaces(Target target, Map<String, InterfaceDelta> network, double scale) {
+        for (Map.Entry<String, InterfaceDelta> entry : network.entrySet()) {
+            int[] ids = target.interfaces.get(entry.getKey());
+            if (ids == null) {
+                ids = new int[]{allocate(), allocate()};
+                target.interfaces.put(entry.getKey(), ids);
+            }
+            record(ids[FIELD_RX], entry.getValue().rxBytesDelta() * scale);
+            record(ids[FIELD_TX], entry.getValue().txBytesDelta() * scale);
+        }
+    }
+
+    //인터페이스별 평균 delta + window 통계 (이번 window에 기록된 인터페이스가 없으면 null)
+    private Map<String, InterfaceDelta> summarizeInterfaces(Target target,
+                                                                        Map<String, WindowStats> window) {
+        Map<String, InterfaceDelta> network = null;
+        for (Map.Entry<String, int[]> entry : target.interfaces.entrySet()) {
+            int[] ids = entry.getValue();
+            if (!hasSamples(ids[FIELD_RX])) continue;
+            String prefix = KEY_NETWORK_PREFIX + entry.getKey();
+            Double rx = mean(ids[FIELD_RX], prefix + KEY_RX_SUFFIX, window);
+            Double tx = mean(ids[FIELD_TX], prefix + KEY_TX_SUFFIX, window);
+            if (network == null) {
+                network = new LinkedHashMap<>();
+            }
+            network.put(entry.getKey(), new InterfaceDelta(Math.round(rx), Math.round(tx)));
+        }
+        return network;
+    }
+
+    //슬롯의 window 통계를 window Map에 넣고 평균 반환 (샘플이 없으면 null)
+    private Double mean(int slot, String key, Map<String, WindowStats> window) {
+        if (!hasSamples(slot)) {
+            return null;
+        }
+        int n = Math.min(counts[slot], windowTicks);
+        int base = slot * windowTicks;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double v = samples[base + i];
+            if (v < min) min = v;
+            if (v > max) max = v;
+            sum += v;
+        }
+        double last = samples[base + (counts[slot] - 1) % windowTicks];
+        double mean = sum / n;
+        window.put(key, new WindowStats(min, max, mean, last, n));
+        return mean;
+    }
+
+    private boolean hasSamples(int slot) {
+        return slot >= 0 && counts[slot] > 0;
+    }
+
+    //슬롯에 샘플 1개 기록 (슬롯이 없으면 발급), 슬롯 ID 반환
+    private int record(int slot, double value) {
+        if (slot < 0) {
+            slot = allocate();
+        }
+        samples[slot * windowTicks + counts[slot] % windowTicks] = value;
+        counts[slot]++;
+        return slot;
+    }
+
+    //다음 window 준비: 샘플 수를 비우고, 이번 window에 기록되지 않은 컨테이너/인터페이스 정리
+    private void reset() {
+        resetTarget(host);
+        host.temperatures = null;
+        containers.values().removeIf(target -> {
+            if (target.touched) {
+                target.touched = false;
+                resetTarget(target);
+                return false;
+            }
+            release(target.cpu);
+            release(target.memory);
+            release(target.diskRead);
+            release(target.diskWrite);
+            target.interfaces.values().forEach(ids -> {
+                release(ids[FIELD_RX]);
+                release(ids[FIELD_TX]);
+            });
+            return true;
+        });
+    }
+
+    private void resetTarget(Target target) {
+        clear(target.cpu);
+        clear(target.memory);
+        clear(target.diskRead);
+        clear(target.diskWrite);
+        target.interfaces.values().removeIf(ids -> {
+            if (hasSamples(ids[FIELD_RX])) {
+                clear(ids[FIELD_RX]);
+                clear(ids[FIELD_TX]);
+                return false;
+            }
+            release(ids[FIELD_RX]);
+            release(ids[FIELD_TX]);
+            return true;
+        });
+    }
+
+    private void clear(int slot) {
+        if (slot >= 0) {
+            counts[slot] = 0;
+        }
+    }
+
+    private int allocate() {
+        int id;
+        if (freeCount > 0) {
+            id = freeSlots[--freeCount];
+        } else {
+            if (slotCount == counts.length) {
+                counts = Arrays.copyOf(counts, slotCount * 2);
+                samples = Arrays.copyOf(samples, slotCount * 2 * windowTicks);
+            }
+            id = slotCount++;
+        }
+        counts[id] = 0;
+        return id;
+    }
+
+    private void release(int slot) {
+        if (slot < 0) return;
+        counts[slot] = 0;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * 호스트 또는 컨테이너 1개의 시리즈 슬롯 ID (-1 = 아직 발급 안 됨)
+     */
+    private static final class Target {
+        private int cpu = -1;
+        private int memory = -1;
+        private int diskRead = -1;
+        private int diskWrite = -1;
+        // 인터페이스 키 -> {rx 슬롯, tx 슬롯}
+        private final Map<String, int[]> interfaces = new LinkedHashMap<>();
+        // 호스트 온도 (집계하지 않고 마지막 값)
+        private Map<String, Double> temperatures;
+        private boolean touched;
+    }
+}
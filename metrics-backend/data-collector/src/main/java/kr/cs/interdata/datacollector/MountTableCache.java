@@ -0,0 +1,227 @@
+package kr.cs.interdata.datacollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * ┌──────────────────────────── /proc/self/mountinfo 구조 설명 ────────────────────────────┐
+ *
+ *  각 줄 예시:
+ *  "36 35 8:1 / /etc/hostname rw,relatime shared:1 - ext4 /dev/sda1 rw,errors=remount-ro"
+ *
+ *  [0] mount ID      - 마운트 고유 번호
+ *  [1] parent ID     - 부모 마운트 번호
+ *  [2] major:minor   - 파일시스템이 올라간 장치 번호 (같은 장치의 bind mount는 값이 같음)
+ *  [3] root          - 장치 안에서 이 마운트가 가리키는 경로 (bind mount면 "/" 가 아님)
+ *  [4] mount point   - 마운트 경로 (공백 등은 \040 같은 8진수 escape)
+ *  [5] options       - 마운트별 옵션
+ *  [6..] optional    - "shared:1", "master:2" 등 0개 이상, "-" 로 끝남
+ *  "-" 다음          - fstype, source(장치), super options
+ *
+ *  /proc/mounts와 달리 major:minor가 있어, 같은 파일시스템이 여러 경로에 bind mount되어 있어도 한 번만 셀 수 있다.
+ * └─────────────────────────────────────────────────────────────────────────────────────┘
+ */
+
+/**
+ * MountTableCache는 수집기 프로세스에서 보이는 마운트 목록을 캐시하고, 실제 파일시스템별 용량을 보고한다.
+ *
+ * - 마운트 목록은 mountinfo 내용이 바뀌었을 때만 다시 파싱하고 FileStore를 새로 찾는다. (평소에는 내용 해시만 비교)
+ * - proc, sysfs, cgroup, tmpfs, overlay 등 디스크가 아닌 파일시스템은 제외한다.
+ * - 같은 장치(major:minor)의 마운트는 처음 나온 하나만 남기므로 bind mount 때문에 용량이 여러 번 더해지지 않는다.
+ * - 용량(statvfs)은 tick과 별도로 capacityRefreshMs 주기로만 다시 읽고, 그 사이에는 직전 값을 반환한다.
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 호출한다.
+ */
+public class MountTableCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MountTableCache.class);
+
+    private static final String DEFAULT_MOUNTINFO_PATH = "/host/proc/self/mountinfo";
+    private static final long DEFAULT_CAPACITY_REFRESH_MS = 30_000;
+
+    // 디스크 용량과 관계없는 파일시스템 타입
+    private static final Set<String> PSEUDO_FS_TYPES = Set.of(
+            "proc", "sysfs", "cgroup", "cgroup2", "tmpfs", "devtmpfs", "devpts", "mqueue", "overlay",
+            "securityfs", "debugfs", "tracefs", "pstore", "bpf", "configfs", "fusectl", "hugetlbfs",
+            "autofs", "binfmt_misc", "nsfs", "rpc_pipefs", "selinuxfs", "efivarfs", "squashfs", "ramfs");
+
+    private final ProcFileReader mountinfo;
+    private final long capacityRefreshNanos;
+
+    private long mountinfoHash;
+    private boolean loaded;
+    private List<Mount> mounts = List.of();
+
+    private long lastCapacityRefresh;
+    private List<HostReading.FilesystemSample> filesystems = List.of();
+    private long totalBytes;
+    private long freeBytes;
+
+    public MountTableCache() {
+        this(DEFAULT_MOUNTINFO_PATH, DEFAULT_CAPACITY_REFRESH_MS);
+    }
+
+    //용량 갱신 주기만 지정 (0이면 refresh() 호출마다 갱신, 호출 주기를 호출 측에서 정할 때)
+    public MountTableCache(long capacityRefreshMs) {
+        this(DEFAULT_MOUNTINFO_PATH, capacityRefreshMs);
+    }
+
+    public MountTableCache(String mountinfoPath, long capacityRefreshMs) {
+        this.mountinfo = new ProcFileReader(mountinfoPath);
+        this.capacityRefreshNanos = capacityRefreshMs * 1_000_000L;
+    }
+
+    /**
+     * 마운트 목록이 바뀌었거나 용량 갱신 주기가 지났으면 다시 읽는다. 매 tick 호출해도 된다.
+     */
+    public void refresh() {
+        boolean changed = reloadMountsIfChanged();
+        long now = System.nanoTime();
+        if (changed || (filesystems.isEmpty() && !mounts.isEmpty())
+                || now - lastCapacityRefresh >= capacityRefreshNanos) {
+            refreshCapacity();
+            lastCapacityRefresh = now;
+        }
+    }
+
+    //실제 파일시스템별 용량 (장치당 1개)
+    public List<HostReading.FilesystemSample> getFilesystems() {
+        return filesystems;
+    }
+
+    //중복 없이 합산한 전체 용량(바이트)
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    //중복 없이 합산한 사용 가능 용량(바이트)
+    public long getFreeBytes() {
+        return freeBytes;
+    }
+
+    @Override
+    public void close() {
+        mountinfo.close();
+    }
+
+    //mountinfo 내용이 직전과 다를 때만 다시 파싱 (바뀌었으면 true)
+    private boolean reloadMountsIfChanged() {
+        if (!mountinfo.load()) {
+            if (loaded) {
+                logger.warn("mountinfo read failed: {}", mountinfo.getPath());
+            }
+            loaded = false;
+            mounts = List.of();
+            filesystems = List.of();
+            totalBytes = 0;
+            freeBytes = 0;
+            return false;
+        }
+        long hash = mountinfo.contentHash();
+        if (loaded && hash == mountinfoHash) {
+            return false;
+        }
+        mountinfoHash = hash;
+        loaded = true;
+        mounts = parseMounts();
+        logger.debug("mount table reloaded: {} filesystems", mounts.size());
+        return true;
+    }
+
+    private List<Mount> parseMounts() {
+        List<Mount> result = new ArrayList<>();
+        Set<String> devices = new HashSet<>();
+        ProcFileReader r = mountinfo;
+        while (r.hasMore()) {
+            r.skipTokens(2);                                  // [0] mount ID, [1] parent ID
+            String device = r.readToken((byte) 0, null);      // [2] major:minor
+            r.skipToken();                                    // [3] root
+            String mountPoint = unescape(r.readToken((byte) 0, null)); // [4] mount point
+            // optional 필드를 건너뛰고 "-" 다음의 fstype, source 읽기
+            String fsType = null;
+            String source = null;
+            while (!r.isEndOfLine()) {
+                if ("-".equals(r.readToken((byte) 0, "-"))) {
+                    fsType = r.readToken((byte) 0, null);
+                    source = r.readToken((byte) 0, null);
+                    break;
+                }
+            }
+            r.nextLine();
+
+            if (fsType == null || PSEUDO_FS_TYPES.contains(fsType)) continue;
+            // 같은 장치의 bind mount는 처음 나온 마운트만 사용
+            if (!devices.add(device)) continue;
+            try {
+                FileStore store = Files.getFileStore(Paths.get(mountPoint));
+                result.add(new Mount(mountPoint, source, fsType, store));
+            } catch (IOException | RuntimeException e) {
+                logger.debug("file store lookup failed: {} ({})", mountPoint, e.toString());
+            }
+        }
+        return result;
+    }
+
+    private void refreshCapacity() {
+        List<HostReading.FilesystemSample> samples = new ArrayList<>(mounts.size());
+        long total = 0;
+        long free = 0;
+        for (Mount mount : mounts) {
+            try {
+                long mountTotal = mount.store().getTotalSpace();
+                long mountFree = mount.store().getUsableSpace();
+                samples.add(new HostReading.FilesystemSample(
+                        mount.mountPoint(), mount.source(), mount.fsType(), mountTotal, mountFree));
+                total += mountTotal;
+                free += mountFree;
+            } catch (IOException e) {
+                logger.debug("file store read failed: {} ({})", mount.mountPoint(), e.toString());
+            }
+        }
+        filesystems = List.copyOf(samples);
+        totalBytes = total;
+        freeBytes = free;
+    }
+
+    //mountinfo 경로의 8진수 escape(\040 등) 복원
+    private static String unescape(String path) {
+        if (path.indexOf('\\') < 0) return path;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(path.length());
+        for (int i = 0; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '\\' && isOctal(path, i + 1)) {
+                out.write(Integer.parseInt(path.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                out.write(c);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static boolean isOctal(String s, int from) {
+        if (from + 3 > s.length()) return false;
+        for (int i = from; i < from + 3; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '7') return false;
+        }
+        return true;
+    }
+
+    /**
+     * 용량을 조회할 파일시스템 1개 (장치당 1개)
+     */
+    private record Mount(String mountPoint, String source, String fsType, FileStore store) {
+    }
+}
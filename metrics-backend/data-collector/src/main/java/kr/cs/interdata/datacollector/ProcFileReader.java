@@ -0,0 +1,251 @@
+package kr.cs.interdata.datacollector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ProcFileReader는 procfs/sysfs 텍스트 파일을 재사용 ByteBuffer로 읽고, 바이트 단위로 토큰을 파싱하는 리더이다.
+ *
+ * - 파일 채널을 열어둔 채 매 tick마다 offset 0부터 다시 읽으므로 open/close 시스템 콜이 반복되지 않는다.
+ * - 버퍼는 파일 크기에 맞게 한 번 커진 뒤 계속 재사용된다.
+ * - 숫자는 String/split 없이 버퍼 안에서 바로 파싱하므로, 정상 상태(steady-state)에서는 거의 객체를 할당하지 않는다.
+ * - 스레드 안전하지 않다. 하나의 리더는 한 스레드(또는 외부 동기화)에서만 사용한다.
+ *
+ * 사용 예:
+ *   if (reader.load()) {
+ *       while (reader.hasMore()) {
+ *           long v = reader.readLong();
+ *           reader.nextLine();
+ *       }
+ *   }
+ */
+public final class ProcFileReader implements Closeable {
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final Path path;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private byte[] data;
+    private int limit;
+    private int pos;
+
+    public ProcFileReader(String path) {
+        this(Paths.get(path));
+    }
+
+    public ProcFileReader(Path path) {
+        this.path = path;
+        this.buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        this.data = buffer.array();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 파일 전체를 offset 0부터 다시 읽어 버퍼에 채우고 커서를 맨 앞으로 돌린다.
+     *
+     * @return 읽기 성공 여부 (파일이 없거나 읽기 실패 시 false, 버퍼는 비워짐)
+     */
+    public boolean load() {
+        limit = 0;
+        pos = 0;
+        try {
+            if (channel == null || !channel.isOpen()) {
+                channel = FileChannel.open(path, StandardOpenOption.READ);
+            }
+            buffer.clear();
+            long position = 0;
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    grow();
+                }
+                int n = channel.read(buffer, position);
+                if (n < 0) break;
+                position += n;
+            }
+            limit = buffer.position();
+            return true;
+        } catch (IOException e) {
+            // 다음 load()에서 다시 열 수 있도록 채널 정리
+            closeQuietly();
+            return false;
+        }
+    }
+
+    //버퍼 용량을 2배로 늘림 (기존 내용 유지)
+    private void grow() {
+        ByteBuffer bigger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+        data = buffer.array();
+    }
+
+    /**
+     * 마지막으로 load()한 내용 전체의 해시(FNV-1a 64bit). 파일 내용이 바뀌었는지 파싱 없이 비교할 때 사용한다.
+     */
+    public long contentHash() {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < limit; i++) {
+            h ^= data[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h ^ limit;
+    }
+
+    // ---------- 커서/토큰 처리 ----------
+
+    public boolean hasMore() {
+        return pos < limit;
+    }
+
+    //현재 줄의 끝('\n' 또는 버퍼 끝)인지 여부 (공백은 건너뜀)
+    public boolean isEndOfLine() {
+        skipSpaces();
+        return pos >= limit || data[pos] == '\n';
+    }
+
+    //다음 줄의 시작으로 이동
+    public void nextLine() {
+        while (pos < limit && data[pos] != '\n') pos++;
+        if (pos < limit) pos++;
+    }
+
+    //공백/탭 건너뛰기 (줄바꿈은 건너뛰지 않음)
+    public void skipSpaces() {
+        while (pos < limit && (data[pos] == ' ' || data[pos] == '\t')) pos++;
+    }
+
+    //공백으로 구분된 토큰 하나 건너뛰기
+    public void skipToken() {
+        skipSpaces();
+        while (pos < limit && !isDelimiter(data[pos])) pos++;
+    }
+
+    //n개의 토큰 건너뛰기
+    public void skipTokens(int n) {
+        for (int i = 0; i < n; i++) skipToken();
+    }
+
+    //현재 위치 이후의 지정 문자까지 이동하고 그 문자 다음으로 커서를 옮김 (같은 줄 안에서만)
+    public boolean skipPast(byte ch) {
+        while (pos < limit && data[pos] != '\n') {
+            if (data[pos++] == ch) return true;
+        }
+        return false;
+    }
+
+    //현재 커서 위치의 바이트가 주어진 ASCII 접두사로 시작하는지 확인 (앞 공백을 건너뛰지 않고, 커서는 이동하지 않음)
+    public boolean startsWith(byte[] prefix) {
+        int p = pos;
+        if (p + prefix.length > limit) return false;
+        for (byte b : prefix) {
+            if (data[p++] != b) return false;
+        }
+        return true;
+    }
+
+    //접두사가 일치하면 그만큼 커서를 이동하고 true 반환
+    public boolean consume(byte[] prefix) {
+        if (!startsWith(prefix)) return false;
+        pos += prefix.length;
+        return true;
+    }
+
+    //현재 커서 위치의 토큰 전체가 주어진 ASCII 문자열과 대소문자 무시하고 같으면 토큰만큼 커서를 이동하고 true 반환
+    public boolean consumeTokenIgnoreCase(byte[] token) {
+        int end = pos + token.length;
+        if (end > limit) return false;
+        for (int i = 0; i < token.length; i++) {
+            if (toLowerAscii(data[pos + i]) != toLowerAscii(token[i])) return false;
+        }
+        if (end < limit && !isDelimiter(data[end])) return false;
+        pos = end;
+        return true;
+    }
+
+    private static int toLowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    /**
+     * 음이 아닌 10진수 정수 하나를 읽는다. 숫자 뒤에 붙은 나머지 토큰 문자는 건너뛴다.
+     *
+     * @return 파싱된 값, 숫자가 없거나 long 범위를 넘으면(u64 카운터 등) -1
+     */
+    public long readLong() {
+        skipSpaces();
+        long value = 0;
+        boolean found = false;
+        boolean overflow = false;
+        while (pos < limit) {
+            byte b = data[pos];
+            if (b < '0' || b > '9') break;
+            int digit = b - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                overflow = true;
+            } else {
+                value = value * 10 + digit;
+            }
+            found = true;
+            pos++;
+        }
+        // "123kB" 처럼 붙어있는 접미 문자는 토큰 끝까지 건너뜀
+        while (pos < limit && !isDelimiter(data[pos])) pos++;
+        return found && !overflow ? value : -1;
+    }
+
+    /**
+     * 다음 토큰(공백 또는 종료 문자 전까지)을 문자열로 반환한다.
+     * previous와 바이트가 같으면 새 String을 만들지 않고 previous를 그대로 돌려준다.
+     *
+     * @param terminator 토큰 종료 문자(예: ':'), 없으면 0
+     * @param previous   직전 tick에 같은 위치에서 읽은 문자열 (재사용 후보, null 가능)
+     */
+    public String readToken(byte terminator, String previous) {
+        skipSpaces();
+        int start = pos;
+        while (pos < limit && !isDelimiter(data[pos]) && data[pos] != terminator) pos++;
+        int end = pos;
+        if (previous != null && equalsAscii(previous, start, end)) {
+            return previous;
+        }
+        return new String(data, start, end - start, java.nio.charset.StandardCharsets.US_ASCII);
+    }
+
+    //버퍼의 [start, end) 구간이 ASCII 문자열 s와 같은지 비교
+    private boolean equalsAscii(String s, int start, int end) {
+        int len = end - start;
+        if (s.length() != len) return false;
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != (data[start + i] & 0xff)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\t' || b == '\n';
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+            channel = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly();
+    }
+}
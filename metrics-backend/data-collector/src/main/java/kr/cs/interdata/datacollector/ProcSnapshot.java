@@ -0,0 +1,279 @@
+package kr.cs.interdata.datacollector;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * ProcSnapshot은 1회 수집(tick) 동안 사용할 procfs 값을 한 번에 읽어 보관하는 객체이다.
+ *
+ * - /proc/stat, /proc/meminfo, /proc/diskstats, /proc/net/dev 파일을 tick당 정확히 한 번씩만 읽는다.
+ * - 모든 메트릭 getter는 이 snapshot의 값을 사용하므로, 한 샘플의 값들이 같은 시점의 값이 된다.
+ * - 파일 읽기/파싱에 실패한 항목은 0(또는 빈 값)으로 남고, CPU는 hasCpuTimes()로 성공 여부를 구분한다.
+ * - 인스턴스를 계속 재사용하며 refresh()로 갱신한다. 파일은 ProcFileReader의 재사용 버퍼로 읽고
+ *   숫자는 버퍼에서 바로 파싱하며, 인터페이스 이름은 이전 tick과 같으면 기존 String을 재사용하므로
+ *   정상 상태에서는 tick당 할당이 거의 없다.
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 refresh/조회한다.
+ */
+public final class ProcSnapshot implements Closeable {
+
+    private static final String DEFAULT_PROC_PATH = "/host/proc"; // 호스트의 proc 디렉토리를 컨테이너 내에서 접근할 경로
+
+    private static final byte[] CPU_PREFIX = "cpu ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MEM_TOTAL_PREFIX = "MemTotal:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MEM_AVAILABLE_PREFIX = "MemAvailable:".getBytes(StandardCharsets.US_ASCII);
+
+    private final ProcFileReader statReader;
+    private final ProcFileReader meminfoReader;
+    private final ProcFileReader diskstatsReader;
+    private final ProcFileReader netDevReader;
+
+    // /proc/stat
+    private boolean hasCpuTimes;
+    private long cpuIdle;
+    private long cpuTotal;
+
+    // /proc/meminfo (바이트 단위로 변환된 값)
+    private long memTotalBytes;
+    private long memAvailableBytes;
+
+    // /proc/diskstats (모든 장치 합계)
+    private long diskReadBytes;
+    private long diskWriteBytes;
+    private long diskReadCount;
+    private long diskWriteCount;
+
+    // /proc/net/dev : 인터페이스별 {누적 수신 바이트, 누적 송신 바이트}
+    private String[] netNames = new String[8];
+    private long[] netRx = new long[8];
+    private long[] netTx = new long[8];
+    private int netCount;
+
+    public ProcSnapshot() {
+        this(DEFAULT_PROC_PATH);
+    }
+
+    public ProcSnapshot(String procPath) {
+        this.statReader = new ProcFileReader(procPath + "/stat");
+        this.meminfoReader = new ProcFileReader(procPath + "/meminfo");
+        this.diskstatsReader = new ProcFileReader(procPath + "/diskstats");
+        this.netDevReader = new ProcFileReader(procPath + "/net/dev");
+    }
+
+    //기본 경로(/host/proc)에서 1회용 snapshot 생성
+    public static ProcSnapshot capture() {
+        return capture(DEFAULT_PROC_PATH);
+    }
+
+    //지정한 proc 경로에서 1회용 snapshot 생성 (반복 수집에는 인스턴스를 재사용하고 refresh() 사용)
+    public static ProcSnapshot capture(String procPath) {
+        try (ProcSnapshot snapshot = new ProcSnapshot(procPath)) {
+            snapshot.refresh();
+            return snapshot;
+        }
+    }
+
+    //각 파일을 한 번씩 다시 읽어 값 갱신 (파일별 parse 메서드는 collector-benchmarks에서 개별 측정하도록 package-private)
+    public ProcSnapshot refresh() {
+        return refresh(true, true, true, true);
+    }
+
+    //지정한 파일만 다시 읽음 (읽지 않은 파일의 값은 직전 refresh 때 값이 그대로 남음)
+    public ProcSnapshot refresh(boolean stat, boolean meminfo, boolean diskstats, boolean netDev) {
+        if (stat) parseStat();
+        if (meminfo) parseMeminfo();
+        if (diskstats) parseDiskstats();
+        if (netDev) parseNetDev();
+        return this;
+    }
+
+    /*
+     * /proc/stat 파일 구조 및 주요 컬럼 설명
+     *
+     * 예시:
+     * cpu  2253938 123 321445 55250596 14951 0 22609 0 0 0
+     *
+     * [컬럼 인덱스/의미]
+     *   [0] "cpu"         (항상 동일)
+     *   [1] user          (사용자 모드 누적 시간)
+     *   [2] nice          (낮은 우선순위(nice)에서 실행된 프로세스 CPU 시간)
+     *   [3] system        (커널 모드 CPU 시간)
+     *   [4] idle          (CPU 유휴 상태 시간)
+     *   [5] iowait        (I/O 대기 상태로 idle인 시간)
+     *   [6] irq           (하드웨어 인터럽트 처리 시간)
+     *   [7] softirq       (소프트웨어 인터럽트 처리 시간)
+     *   [8] steal         (가상화 등에서 다른 VM이 CPU 쓴 시간)
+     *   [9] guest         (게스트 OS에서 사용한 시간)
+     *   [10] guest_nice   (게스트 OS + nice)
+     * 단위: 1 jiffy (보통 0.01초)
+     *
+     * 일반적으로 user+nice+system+idle+iowait+irq+softirq+steal 까지만 더해 CPU 전체 시간(total) 계산에 사용.
+     * 본 코드에서는 idle, 그리고 total(user~steal의 합)만 사용 중.
+     */
+    void parseStat() {
+        hasCpuTimes = false;
+        cpuIdle = 0;
+        cpuTotal = 0;
+        ProcFileReader r = statReader;
+        if (!r.load()) return;
+        while (r.hasMore()) {
+            if (r.consume(CPU_PREFIX)) {
+                long total = 0;
+                for (int i = 1; i <= 8; i++) {
+                    long v = r.readLong();
+                    if (v < 0) return;
+                    if (i == 4) cpuIdle = v;
+                    total += v;
+                }
+                cpuTotal = total;
+                hasCpuTimes = true;
+                return;
+            }
+            r.nextLine();
+        }
+    }
+
+    /*
+     * /proc/meminfo 파일 구조 및 주요 필드 설명
+     *
+     * 각 줄 예시: "키:   값  kB"
+     *
+     * 주요 필드:
+     *   - MemTotal:       전체 물리 메모리 크기 (단위: kB)
+     *   - MemFree:        사용 가능한 메모리 (단위: kB, 완전히 미사용 RAM)
+     *   - MemAvailable:   실제 OS가 프로세스에 할당 가능한 메모리 (단위: kB, 이게 중요!)
+     *   - Buffers:        RAM의 버퍼로 사용 중인 영역 (kB)
+     *   - Cached:         페이지 캐시·일반목적으로 캐시된 영역 (kB)
+     *   - SwapTotal:      전체 스왑 용량 (kB)
+     *   - SwapFree:       사용 가능한 스왑 (kB)
+     *
+     * 본 코드는 MemTotal, MemAvailable을 사용하여 전체/가용/사용 메모리(Byte 단위 변환)에 활용.
+     */
+    void parseMeminfo() {
+        memTotalBytes = 0;
+        memAvailableBytes = 0;
+        ProcFileReader r = meminfoReader;
+        if (!r.load()) return;
+        int found = 0;
+        while (r.hasMore() && found < 2) {
+            if (r.consume(MEM_TOTAL_PREFIX)) {
+                memTotalBytes = Math.max(0, r.readLong()) * 1024;
+                found++;
+            } else if (r.consume(MEM_AVAILABLE_PREFIX)) {
+                memAvailableBytes = Math.max(0, r.readLong()) * 1024;
+                found++;
+            }
+            r.nextLine();
+        }
+    }
+
+    /*
+     * /proc/diskstats 파일의 1줄 구조와 각 필드별 의미
+     *
+     * 예시:
+     * "8 0 sda 950 12 19425 970 1745 8 37324 1425 0 383 2395"
+     *
+     * split 기준 인덱스 및 필드:
+     *   [0]  major           - 메이저 번호 (장치 종류)
+     *   [1]  minor           - 마이너 번호 (장치 번호)
+     *   [2]  name            - 디스크 이름 (ex. sda)
+     *   [3]  reads_completed - 전체 읽기 완료 횟수
+     *   [4]  reads_merged    - 병합된 읽기 요청 횟수
+     *   [5]  sectors_read    - 읽은 섹터 수       <-- 바이트 변환에 사용
+     *   [6]  ms_reading      - 읽기에 쓴 시간(ms)
+     *   [7]  writes_completed- 전체 쓰기 완료 횟수
+     *   [8]  writes_merged   - 병합된 쓰기 요청
+     *   [9]  sectors_written - 쓴 섹터 수         <-- 바이트 변환에 사용
+     *   [10] ms_writing      - 쓰기에 쓴 시간(ms)
+     *   [11] ios_in_progress - 현재 진행중 I/O
+     *   [12] ms_doing_ios    - I/O 작업에 소요된 시간(ms)
+     *   [13] weighted_ms_ios - 작업 가중 시간(ms)
+     *
+     * 역할:
+     * - sectors_read/ sectors_written에 512를 곱해 누적 바이트 환산
+     * - reads_completed/writes_completed는 누적 I/O "횟수"
+     */
+    void parseDiskstats() {
+        diskReadBytes = 0;
+        diskWriteBytes = 0;
+        diskReadCount = 0;
+        diskWriteCount = 0;
+        ProcFileReader r = diskstatsReader;
+        if (!r.load()) return;
+        while (r.hasMore()) {
+            r.skipTokens(3);                   // [0] major, [1] minor, [2] name
+            long reads = r.readLong();         // [3] reads_completed
+            r.skipToken();                     // [4] reads_merged
+            long sectorsRead = r.readLong();   // [5] sectors_read
+            r.skipToken();                     // [6] ms_reading
+            long writes = r.readLong();        // [7] writes_completed
+            r.skipToken();                     // [8] writes_merged
+            long sectorsWritten = r.readLong();// [9] sectors_written
+            if (reads > 0) diskReadCount += reads;
+            if (sectorsRead > 0) diskReadBytes += sectorsRead * 512;
+            if (writes > 0) diskWriteCount += writes;
+            if (sectorsWritten > 0) diskWriteBytes += sectorsWritten * 512;
+            r.nextLine();
+        }
+    }
+
+    // /proc/net/dev 구조는 MachineNetworkMonitor 하단 설명 참고 ([0] 수신 바이트, [8] 송신 바이트)
+    void parseNetDev() {
+        netCount = 0;
+        ProcFileReader r = netDevReader;
+        if (!r.load()) return;
+        // 첫 두 줄은 헤더이므로 건너뜀
+        r.nextLine();
+        r.nextLine();
+        while (r.hasMore()) {
+            if (r.isEndOfLine()) {
+                r.nextLine();
+                continue;
+            }
+            if (netCount == netNames.length) {
+                int newSize = netCount * 2;
+                netNames = Arrays.copyOf(netNames, newSize);
+                netRx = Arrays.copyOf(netRx, newSize);
+                netTx = Arrays.copyOf(netTx, newSize);
+            }
+            String iface = r.readToken((byte) ':', netNames[netCount]);
+            if (!r.skipPast((byte) ':')) {
+                r.nextLine();
+                continue;
+            }
+            long rx = r.readLong();            // [0] 수신 바이트
+            r.skipTokens(7);                   // [1]~[7]
+            long tx = r.readLong();            // [8] 송신 바이트
+            if (rx >= 0 && tx >= 0) {
+                netNames[netCount] = iface;
+                netRx[netCount] = rx;
+                netTx[netCount] = tx;
+                netCount++;
+            }
+            r.nextLine();
+        }
+    }
+
+    public boolean hasCpuTimes() { return hasCpuTimes; }
+    public long getCpuIdle() { return cpuIdle; }
+    public long getCpuTotal() { return cpuTotal; }
+    public long getMemTotalBytes() { return memTotalBytes; }
+    public long getMemAvailableBytes() { return memAvailableBytes; }
+    public long getDiskReadBytes() { return diskReadBytes; }
+    public long getDiskWriteBytes() { return diskWriteBytes; }
+    public long getDiskReadCount() { return diskReadCount; }
+    public long getDiskWriteCount() { return diskWriteCount; }
+
+    public int getNetInterfaceCount() { return netCount; }
+    public String getNetInterfaceName(int i) { return netNames[i]; }
+    public long getNetRxBytes(int i) { return netRx[i]; }
+    public long getNetTxBytes(int i) { return netTx[i]; }
+
+    @Override
+    public void close() {
+        statReader.close();
+        meminfoReader.close();
+        diskstatsReader.close();
+        netDevReader.close();
+    }
+}
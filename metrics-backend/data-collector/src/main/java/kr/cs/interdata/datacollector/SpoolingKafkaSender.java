@@ -0,0 +1,251 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.MetricFields;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SpoolingKafkaSender는 Kafka 전송이 실패한 레코드를 DiskSpool에 쌓아 두고, 브로커가 돌아오면 쌓인 순서대로 다시 보낸다.
+ *
+ * - 전송 실패(콜백 예외)나 buffer.memory 소진/메타데이터 대기 초과(send() 예외)로 보내지 못한 레코드는 spool에 쌓인다.
+ * - spool에 레코드가 남아 있는 동안에는 새 레코드도 바로 보내지 않고 spool 뒤에 붙인다. (호스트별 순서 유지)
+ *   전송 실패가 생긴 뒤 먼저 보낸 레코드의 결과(ack 또는 실패)가 아직 오지 않았으면, 새 레코드는 메모리에 보류했다가
+ *   앞선 레코드가 모두 끝난 뒤(실패한 레코드가 spool에 들어간 뒤) spool에 붙인다. 그래서 재전송도 보낸 순서대로 된다.
+ * - 재전송은 별도 스레드가 하나씩 ack를 확인하며 하고, 초당 replayRatePerSecond건으로 제한한다.
+ *   재전송이 실패하면 1초부터 최대 30초까지 간격을 늘려 가며 다시 시도한다.
+ * - spool이 null이면 기존과 같이 보내고 잊는다. (spool 파일을 열지 못한 경우)
+ */
+public class SpoolingKafkaSender implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolingKafkaSender.class);
+
+    private static final long IDLE_POLL_MS = 500;
+    private static final long MIN_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    // 보류할 수 있는 최대 레코드 수 (넘으면 순서보다 메모리를 우선해 spool에 바로 붙임)
+    private static final int MAX_HELD_RECORDS = 10_000;
+
+    private final Producer<String, byte[]> producer;
+    private final DiskSpool spool;
+    private final long replayIntervalNanos;
+    private final long replayAckTimeoutMs;
+    private final Thread replayThread;
+    // 전송 실패 누적 수 (콜백 예외 + send() 거부)
+    private final AtomicLong sendErrors = new AtomicLong();
+
+    // 아래 필드는 lock으로 보호 (수집 스레드의 send, 프로듀서 I/O 스레드의 콜백)
+    private final Object lock = new Object();
+    // 직접 보낸 뒤 아직 콜백이 오지 않은 레코드 수
+    private int inFlight;
+    // 전송 실패 이후 spool을 거쳐 보내는 중인지 여부 (in-flight가 모두 끝나고 spool이 비면 해제)
+    private boolean degraded;
+    // 앞선 전송의 결과를 기다리며 보류 중인 레코드 (spool에 붙일 순서대로)
+    private final ArrayDeque<Held> held = new ArrayDeque<>();
+
+    private volatile boolean closed;
+
+    /**
+     * @param producer            Kafka 프로듀서 (수명은 호출 측이 관리)
+     * @param spool               실패한 레코드를 쌓을 spool (null이면 spool 없이 전송)
+     * @param replayRatePerSecond 초당 최대 재전송 건수
+     * @param replayAckTimeoutMs  재전송 1건의 ack 대기 시간(ms)
+     */
+    public SpoolingKafkaSender(Producer<String, byte[]> producer, DiskSpool spool,
+                               int replayRatePerSecond, long replayAckTimeoutMs) {
+        this.producer = producer;
+        this.spool = spool;
+        this.replayIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, replayRatePerSecond);
+        this.replayAckTimeoutMs = replayAckTimeoutMs;
+        // 재시작 전에 쌓인 레코드가 있으면 그것부터 보냄
+        this.degraded = spool != null && !spool.isEmpty();
+        if (spool != null) {
+            this.replayThread = new Thread(this::replayLoop, "spool-replay");
+            this.replayThread.setDaemon(true);
+            this.replayThread.start();
+        } else {
+            this.replayThread = null;
+        }
+    }
+
+    /**
+     * 레코드를 비동기로 보낸다. 보내지 못하면 spool에 쌓는다.
+     */
+    public void send(String topic, String key, byte[] message, String format) {
+        if (spool != null) {
+            synchronized (lock) {
+                if (degraded && inFlight == 0 && held.isEmpty() && spool.isEmpty()) {
+                    degraded = false;
+                }
+                if (degraded || !spool.isEmpty()) {
+                    //아직 재전송할 레코드가 남아 있으면 순서를 지키기 위해 뒤에 붙임
+                    //(먼저 보낸 레코드의 결과가 아직 없으면 그 레코드가 spool에 들어갈 수 있으므로 끝날 때까지 보류)
+                    if (inFlight > 0 && held.size() < MAX_HELD_RECORDS) {
+                        held.add(new Held(topic, key, format, message));
+                    } else {
+                        appendToSpool(topic, key, format, message);
+                    }
+                    return;
+                }
+            }
+        }
+
+        //key(hostId)로 파티션이 정해지므로 호스트별 순서가 유지됨
+        sendImmediately(topic, key, message, format);
+    }
+
+    /**
+     * spool 대기열을 건너뛰고 바로 보낸다. (임계값 알림처럼 늦으면 의미가 없는 작은 레코드용)
+     * 보내지 못하면 spool 뒤에 쌓여 브로커가 돌아온 뒤 재전송된다.
+     */
+    public void sendImmediately(String topic, String key, byte[] message, String format) {
+        ProducerRecord<String, byte[]> record = toRecord(topic, key, message, format);
+        synchronized (lock) {
+            inFlight++;
+        }
+        try {
+            //비동기 전송, 실패한 레코드만 spool에 쌓음 (성공은 레코드마다 로그를 남기지 않음)
+            producer.send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    sendErrors.incrementAndGet();
+                    logger.debug("Kafka send failed: {}", exception.toString());
+                }
+                completed(exception != null, topic, key, format, message);
+            });
+        } catch (RuntimeException e) {
+            // buffer.memory 소진, 메타데이터 대기 초과(max.block.ms) 등
+            sendErrors.incrementAndGet();
+            logger.debug("Kafka send rejected: {}", e.toString());
+            completed(true, topic, key, format, message);
+        }
+    }
+
+    //전송 실패 누적 수 (재전송 실패는 제외)
+    public long getSendErrorCount() {
+        return sendErrors.get();
+    }
+
+    //spool에 쌓인 레코드 수 (spool이 없으면 0)
+    public long getSpoolDepth() {
+        return spool != null ? spool.getDepth() : 0;
+    }
+
+    //spool에 쌓인 바이트 (spool이 없으면 0)
+    public long getSpoolDepthBytes() {
+        return spool != null ? spool.getDepthBytes() : 0;
+    }
+
+    //spool에서 가장 오래된 레코드의 대기 시간(ms) (spool이 없으면 0)
+    public long getSpoolOldestAgeMillis() {
+        return spool != null ? spool.getOldestAgeMillis() : 0;
+    }
+
+    //spool 공간 부족으로 버린 누적 레코드 수
+    public long getSpoolDroppedCount() {
+        return spool != null ? spool.getDroppedCount() : 0;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (replayThread != null) {
+            replayThread.interrupt();
+            try {
+                replayThread.join(replayAckTimeoutMs + MIN_BACKOFF_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    //직접 보낸 레코드 1건의 결과 처리. 실패하면 spool에 쌓고, 앞선 전송이 모두 끝나면 보류한 레코드를 spool에 붙임
+    private void completed(boolean failed, String topic, String key, String format, byte[] message) {
+        synchronized (lock) {
+            inFlight--;
+            if (spool == null) return;
+            if (failed) {
+                if (!degraded && spool.isEmpty()) {
+                    logger.warn("Kafka unavailable, spooling records to {}", spool.getPath());
+                }
+                degraded = true;
+                appendToSpool(topic, key, format, message);
+            }
+            if (inFlight == 0) {
+                Held next;
+                while ((next = held.poll()) != null) {
+                    appendToSpool(next.topic(), next.key(), next.format(), next.message());
+                }
+            }
+        }
+    }
+
+    private void appendToSpool(String topic, String key, String format, byte[] message) {
+        if (!spool.append(topic, key, format, message)) {
+            logger.warn("record larger than spool capacity, dropped ({} bytes)", message.length);
+        }
+    }
+
+    //spool 앞에서부터 하나씩 보내고, ack를 받은 레코드만 spool에서 제거
+    private void replayLoop() {
+        long backoffMs = MIN_BACKOFF_MS;
+        while (!closed) {
+            try {
+                DiskSpool.Entry entry = spool.peek();
+                if (entry == null) {
+                    Thread.sleep(IDLE_POLL_MS);
+                    continue;
+                }
+                long started = System.nanoTime();
+                try {
+                    producer.send(toRecord(entry.topic(), entry.key(), entry.value(), entry.format()))
+                            .get(replayAckTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    logger.debug("spool replay failed, retry in {}ms: {}", backoffMs, e.toString());
+                    Thread.sleep(backoffMs);
+                    backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                    continue;
+                }
+                backoffMs = MIN_BACKOFF_MS;
+                spool.commit(entry);
+                if (spool.isEmpty()) {
+                    logger.info("spool drained, resuming direct sends");
+                }
+                //초당 재전송 건수 제한
+                long remaining = replayIntervalNanos - (System.nanoTime() - started);
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (closed) return;
+            } catch (RuntimeException e) {
+                //spool을 읽지 못하는 등 같은 오류가 반복될 수 있으므로 전송 실패와 같이 간격을 두고 다시 시도
+                logger.error("spool replay error, retry in {}ms", backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    if (closed) return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    //앞선 전송의 결과를 기다리며 보류 중인 레코드
+    private record Held(String topic, String key, String format, byte[] message) {
+    }
+
+    private static ProducerRecord<String, byte[]> toRecord(String topic, String key, byte[] message, String format) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, message);
+        // consumer가 디코더를 고를 수 있도록 인코딩 형식을 헤더에 실음
+        record.headers().add(MetricFields.FORMAT_HEADER, format.getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
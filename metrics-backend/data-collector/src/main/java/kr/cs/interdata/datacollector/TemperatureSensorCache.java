@@ -0,0 +1,231 @@
+package kr.cs.interdata.datacollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TemperatureSensorCache는 호스트 온도 센서 파일 목록을 한 번 찾아 두고, 매 tick에는 알려진 온도 파일만 읽는다.
+ *
+ * - 센서 탐색(디렉터리 순회, label/name 파일 읽기)은 처음 한 번과 rediscoverMs 주기로만 한다.
+ * - 라벨 문자열은 탐색 시점에 만들어 intern해 두므로 tick마다 새 문자열이 생기지 않는다.
+ * - 온도 파일은 ProcFileReader로 열어둔 채 다시 읽는다. 센서가 없는 호스트는 tick마다 아무 파일도 읽지 않는다.
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 호출한다.
+ *
+ * 탐색 순서 (같은 라벨이면 먼저 찾은 센서를 사용)
+ *  1. /sys/class/thermal/thermal_zoneN/temp   (thermal_zone 방식)
+ *  2. /sys/class/hwmon/hwmonN/tempN_input    (하드웨어 모니터링 칩 방식)
+ *  3. /proc/acpi/thermal_zone/ZONE/temperature (ACPI 구형 시스템)
+ */
+public class TemperatureSensorCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemperatureSensorCache.class);
+
+    private static final String PROC_ACPI_THERMAL_ZONE_PATH = "/host/proc/acpi/thermal_zone";
+    private static final String SYS_THERMAL_PATH = "/host/sys/class/thermal";
+    private static final String SYS_HWMON_PATH = "/host/sys/class/hwmon";
+
+    private static final long DEFAULT_REDISCOVER_MS = 300_000;
+    // hwmon 칩마다 확인하는 최대 tempN_input 번호
+    private static final int HWMON_MAX_TEMP_INDEX = 5;
+
+    private final Path thermalPath;
+    private final Path hwmonPath;
+    private final Path acpiPath;
+    private final long rediscoverNanos;
+
+    private List<Sensor> sensors = List.of();
+    private boolean discovered;
+    private long lastDiscovery;
+
+    public TemperatureSensorCache() {
+        this(SYS_THERMAL_PATH, SYS_HWMON_PATH, PROC_ACPI_THERMAL_ZONE_PATH, DEFAULT_REDISCOVER_MS);
+    }
+
+    public TemperatureSensorCache(String thermalPath, String hwmonPath, String acpiPath, long rediscoverMs) {
+        this.thermalPath = Paths.get(thermalPath);
+        this.hwmonPath = Paths.get(hwmonPath);
+        this.acpiPath = Paths.get(acpiPath);
+        this.rediscoverNanos = rediscoverMs * 1_000_000L;
+    }
+
+    /**
+     * 알려진 센서의 현재 온도를 읽는다. 재탐색 주기가 지났으면 먼저 센서 목록을 다시 만든다.
+     *
+     * @return 센서별 측정값 (읽기에 실패한 센서는 빠짐)
+     */
+    public List<HostReading.SensorSample> read() {
+        long now = System.nanoTime();
+        if (!discovered || now - lastDiscovery >= rediscoverNanos) {
+            discover();
+            discovered = true;
+            lastDiscovery = now;
+        }
+        if (sensors.isEmpty()) {
+            return List.of();
+        }
+        List<HostReading.SensorSample> result = new ArrayList<>(sensors.size());
+        for (Sensor sensor : sensors) {
+            double celsius = sensor.read();
+            if (!Double.isNaN(celsius)) {
+                result.add(new HostReading.SensorSample(sensor.label, celsius));
+            }
+        }
+        return result;
+    }
+
+    //현재 알고 있는 센서 수
+    public int getSensorCount() {
+        return sensors.size();
+    }
+
+    @Override
+    public void close() {
+        sensors.forEach(Sensor::close);
+        sensors = List.of();
+        discovered = false;
+    }
+
+    //센서 목록 다시 만들기 (기존 리더는 닫음)
+    private void discover() {
+        List<Sensor> found = new ArrayList<>();
+        discoverThermalZones(found);
+        discoverHwmon(found);
+        discoverAcpi(found);
+
+        sensors.forEach(Sensor::close);
+        sensors = List.copyOf(found);
+        logger.debug("temperature sensors discovered: {}", sensors.size());
+    }
+
+    /*
+     * /sys/class/thermal/thermal_zone* 폴더 내부 구조
+     *
+     * - 각 디렉토리명: "thermal_zone0", "thermal_zone1", ...
+     *   안에 파일:
+     *     type   : 센서 타입(예: "x86_pkg_temp", "acpitz" 등, 센서 종류를 나타냄)
+     *     temp   : 현재 온도 (단위: millidegree Celsius. ex: 47000 == 47.0°C)
+     *
+     * temp 읽을 때 1000으로 나누어 °C 환산 필요
+     */
+    private void discoverThermalZones(List<Sensor> found) {
+        if (!Files.isDirectory(thermalPath)) return;
+        try (DirectoryStream<Path> zones = Files.newDirectoryStream(thermalPath, "thermal_zone*")) {
+            for (Path zone : zones) {
+                Path tempFile = zone.resolve("temp");
+                if (!Files.exists(tempFile)) continue;
+                String zoneName = zone.getFileName().toString();  // thermal_zone0
+                String type = readTrimmed(zone.resolve("type"), "unknown");
+                addSensor(found, type + " (" + zoneName + ")", tempFile, false);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("thermal zone discovery failed: {}", e.toString());
+        }
+    }
+
+    /*
+     * /sys/class/hwmon/hwmon* 폴더 내부 구조
+     *
+     * - 각 디렉토리명: hwmon0, hwmon1, ...
+     *   안에 파일:
+     *     name            : 디바이스 이름 (예: coretemp, nvme, ...)
+     *     tempN_input     : N번째 온도 값 (예: temp1_input, temp2_input, ...)
+     *     tempN_label     : tempN_input의 센서 레이블 (존재할 때만)
+     *
+     * 값을 읽으면 millidegree Celsius이므로 1000으로 나눠 °C 환산 필요
+     * ex) 43213 (-> 43.213°C)
+     */
+    private void discoverHwmon(List<Sensor> found) {
+        if (!Files.isDirectory(hwmonPath)) return;
+        try (DirectoryStream<Path> hwmons = Files.newDirectoryStream(hwmonPath)) {
+            for (Path hwmon : hwmons) {
+                String name = readTrimmed(hwmon.resolve("name"), "hwmon");
+                for (int i = 1; i <= HWMON_MAX_TEMP_INDEX; i++) {
+                    Path tempFile = hwmon.resolve("temp" + i + "_input");
+                    if (!Files.exists(tempFile)) continue;
+                    String label = readTrimmed(hwmon.resolve("temp" + i + "_label"), "temp" + i);
+                    addSensor(found, name + "/" + label, tempFile, false);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("hwmon discovery failed: {}", e.toString());
+        }
+    }
+
+    /*
+     * /proc/acpi/thermal_zone/"*"/temperature
+     *  - (히스토리: 구형/일부 x86 시스템 등에서 사용)
+     *  - 파일 내용: 예) "temperature:             50 C"
+     *  - ':' 뒤의 정수값을 °C로 사용
+     */
+    private void discoverAcpi(List<Sensor> found) {
+        if (!Files.isDirectory(acpiPath)) return;
+        try (DirectoryStream<Path> zones = Files.newDirectoryStream(acpiPath)) {
+            for (Path zone : zones) {
+                Path tempFile = zone.resolve("temperature");
+                if (!Files.exists(tempFile)) continue;
+                addSensor(found, "acpi (" + zone.getFileName() + ")", tempFile, true);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("acpi thermal zone discovery failed: {}", e.toString());
+        }
+    }
+
+    private static void addSensor(List<Sensor> found, String label, Path tempFile, boolean acpi) {
+        String interned = label.intern();
+        for (Sensor s : found) {
+            if (s.label.equals(interned)) return;
+        }
+        found.add(new Sensor(interned, new ProcFileReader(tempFile), acpi));
+    }
+
+    //작은 sysfs 텍스트 파일 읽기 (탐색 시에만 사용)
+    private static String readTrimmed(Path path, String fallback) {
+        try {
+            return Files.readString(path).trim();
+        } catch (IOException | RuntimeException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * 알려진 온도 파일 1개
+     */
+    private static final class Sensor {
+
+        private final String label;
+        private final ProcFileReader reader;
+        private final boolean acpi;
+
+        Sensor(String label, ProcFileReader reader, boolean acpi) {
+            this.label = label;
+            this.reader = reader;
+            this.acpi = acpi;
+        }
+
+        //섭씨 온도, 읽지 못하면 NaN (음수 값은 지원하지 않음)
+        double read() {
+            if (!reader.load()) return Double.NaN;
+            if (acpi) {
+                // "temperature:             50 C"
+                if (!reader.skipPast((byte) ':')) return Double.NaN;
+                long value = reader.readLong();
+                return value < 0 ? Double.NaN : value;
+            }
+            long milli = reader.readLong();
+            return milli < 0 ? Double.NaN : milli / 1000.0; //m°C(milli-Celsius) 단위로 들어와서 1000으로 나눠줌
+        }
+
+        void close() {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package kr.cs.interdata.datacollector;
+
+/**
+ * ThresholdAlert는 collector가 임계값 위반을 발견했을 때 alert 토픽으로 보내는 메시지 본문이다.
+ * api-backend의 POST /api/metrics/alerts가 받는 필드 이름과 같게 유지해야 한다.
+ *
+ * @param type        "host" 또는 "container"
+ * @param machineId   호스트 ID 또는 컨테이너 ID
+ * @param machineName 호스트 이름 또는 컨테이너 이름
+ * @param metricName  api-backend 메트릭 이름 (cpu, memory, diskReadDelta, diskWriteDelta, networkTx, networkRx, temperature)
+ * @param value       위반한 값
+ * @param threshold   비교한 임계값
+ * @param direction   "over"(임계 초과) 또는 "under"(임계 미달)
+ * @param timestamp   수집 시각 (yyyy-MM-dd'T'HH:mm:ss)
+ */
+public record ThresholdAlert(
+        String type,
+        String machineId,
+        String machineName,
+        String metricName,
+        String value,
+        String threshold,
+        String direction,
+        String timestamp
+) {
+
+    public static final String DIRECTION_OVER = "over";
+    public static final String DIRECTION_UNDER = "under";
+}
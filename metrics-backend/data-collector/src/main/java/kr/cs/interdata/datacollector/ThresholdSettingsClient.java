@@ -0,0 +1,159 @@
+package kr.cs.interdata.datacollector;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThresholdSettingsClient는 api-backend의 임계값 설정을 주기적으로 조회해 메모리에 캐시한다.
+ *
+ * - GET /api/metrics/threshold-setting (over), GET /api/metrics/under-threshold-setting (under)를 pollIntervalMs마다 조회한다.
+ * - 조회한 값은 불변 Thresholds 객체로 바꿔 volatile 필드에 두므로, 수집 스레드는 잠금 없이 읽는다.
+ * - 조회에 실패하면 마지막 값을 유지하지만, 마지막 성공 후 pollIntervalMs * 3이 지나면 current()는 null을 반환한다.
+ *   (이 경우 collector는 임계값 평가를 하지 않고, api-backend가 기존처럼 평가한다)
+ */
+public class ThresholdSettingsClient implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThresholdSettingsClient.class);
+
+    private static final String OVER_PATH = "/api/metrics/threshold-setting";
+    private static final String UNDER_PATH = "/api/metrics/under-threshold-setting";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(3);
+    private static final int MAX_AGE_POLLS = 3;
+
+    // ThresholdSetting DTO 필드 이름 -> api-backend 메트릭 이름
+    private static final Map<String, String> METRIC_NAMES = Map.of(
+            "cpuPercent", "cpu",
+            "memoryUsage", "memory",
+            "diskReadDelta", "diskReadDelta",
+            "diskWriteDelta", "diskWriteDelta",
+            "networkRx", "networkRx",
+            "networkTx", "networkTx",
+            "temperature", "temperature"
+    );
+
+    private final String baseUrl;
+    private final long pollIntervalMs;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Thread pollThread;
+
+    private volatile Thresholds thresholds;
+    private volatile long loadedAtNanos;
+    private volatile boolean closed;
+    private boolean failing;
+
+    /**
+     * @param baseUrl        api-backend 주소 (예: http://api-backend:8004)
+     * @param pollIntervalMs 임계값 조회 주기(ms)
+     */
+    public ThresholdSettingsClient(String baseUrl, long pollIntervalMs) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.pollIntervalMs = Math.max(1_000, pollIntervalMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+        this.pollThread = new Thread(this::pollLoop, "threshold-poll");
+        this.pollThread.setDaemon(true);
+        this.pollThread.start();
+    }
+
+    /**
+     * @return 현재 임계값, 아직 조회하지 못했거나 마지막 조회가 너무 오래됐으면 null
+     */
+    public Thresholds current() {
+        Thresholds current = thresholds;
+        if (current == null
+                || System.nanoTime() - loadedAtNanos > TimeUnit.MILLISECONDS.toNanos(pollIntervalMs * MAX_AGE_POLLS)) {
+            return null;
+        }
+        return current;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        pollThread.interrupt();
+    }
+
+    private void pollLoop() {
+        while (!closed) {
+            try {
+                refresh();
+                TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+            } catch (InterruptedException e) {
+                if (closed) return;
+            }
+        }
+    }
+
+    //over/under 임계값을 모두 읽었을 때만 교체
+    private void refresh() throws InterruptedException {
+        try {
+            Thresholds loaded = new Thresholds(fetch(OVER_PATH), fetch(UNDER_PATH));
+            boolean changed = !loaded.equals(thresholds);
+            thresholds = loaded;
+            loadedAtNanos = System.nanoTime();
+            if (failing || changed) {
+                logger.info("thresholds loaded: over={}, under={}", loaded.over(), loaded.under());
+            }
+            failing = false;
+        } catch (IOException | RuntimeException e) {
+            if (!failing) {
+                logger.warn("threshold settings fetch failed ({}), keeping last values: {}", baseUrl, e.toString());
+            }
+            failing = true;
+        }
+    }
+
+    //설정 1종 조회 → 메트릭 이름 -> 임계값 (숫자가 아닌 값은 제외)
+    private Map<String, Double> fetch(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException(path + " returned HTTP " + response.statusCode());
+        }
+
+        JsonNode body = objectMapper.readTree(response.body());
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Map.Entry<String, String> e : METRIC_NAMES.entrySet()) {
+            JsonNode value = body.path(e.getKey());
+            if (value.isNumber() || value.isTextual()) {
+                try {
+                    values.put(e.getValue(), Double.parseDouble(value.asText()));
+                } catch (NumberFormatException ignored) {
+                    //설정되지 않은 메트릭은 평가하지 않음
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 조회한 임계값 (host와 container는 같은 값을 쓴다)
+     *
+     * @param over  메트릭 이름 -> 임계 초과 값
+     * @param under 메트릭 이름 -> 임계 미달 값
+     */
+    public record Thresholds(Map<String, Double> over, Map<String, Double> under) {
+
+        public Thresholds {
+            over = Collections.unmodifiableMap(over);
+            under = Collections.unmodifiableMap(under);
+        }
+    }
+}
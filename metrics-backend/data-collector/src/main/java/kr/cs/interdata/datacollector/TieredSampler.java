@@ -0,0 +1,96 @@
+package kr.cs.interdata.datacollector;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TieredSampler는 지표 그룹(MetricGroup)마다 다른 수집 주기를 적용해, 매 tick 어떤 그룹을 수집할지 정한다.
+ *
+ * - 그룹 주기는 수집 주기(COLLECT_INTERVAL_MS)의 배수로 쓰는 것을 전제로 한다. (더 짧으면 매 tick)
+ * - 마지막 수집 이후 (그룹 주기 - tick 주기/2)가 지났으면 due로 본다.
+ *   tick이 조금 늦거나 빨라도(jitter) 5000ms 주기가 6000ms로 밀리지 않고, overrun으로 tick을 건너뛰어도 다음 tick에 바로 수집한다.
+ * - 처음 호출에는 모든 그룹이 due이다.
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 호출한다.
+ */
+public class TieredSampler {
+
+    private final long tickNanos;
+    private final long[] intervalNanos = new long[MetricGroup.values().length];
+    private final long[] lastSampled = new long[MetricGroup.values().length];
+    // 직전 수집과 이번 수집 사이의 실제 경과 시간 (처음 수집이면 0)
+    private final long[] elapsedNanos = new long[MetricGroup.values().length];
+    private final boolean[] sampled = new boolean[MetricGroup.values().length];
+
+    /**
+     * @param tickMs     수집 주기(ms)
+     * @param intervalMs 그룹별 수집 주기(ms), 없는 그룹은 매 tick
+     */
+    public TieredSampler(long tickMs, Map<MetricGroup, Long> intervalMs) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        for (MetricGroup group : MetricGroup.values()) {
+            long ms = intervalMs.getOrDefault(group, tickMs);
+            intervalNanos[group.ordinal()] = TimeUnit.MILLISECONDS.toNanos(Math.max(ms, tickMs));
+        }
+    }
+
+    /**
+     * 이번 tick에 수집할 그룹을 정하고, 그 그룹들의 마지막 수집 시각을 now로 갱신한다.
+     *
+     * @param nowNanos System.nanoTime()
+     * @return due인 그룹의 bit mask
+     */
+    public int due(long nowNanos) {
+        int mask = 0;
+        long tolerance = tickNanos / 2;
+        for (MetricGroup group : MetricGroup.values()) {
+            int i = group.ordinal();
+            if (sampled[i] && nowNanos - lastSampled[i] < intervalNanos[i] - tolerance) {
+                continue;
+            }
+            elapsedNanos[i] = sampled[i] ? nowNanos - lastSampled[i] : 0;
+            lastSampled[i] = nowNanos;
+            sampled[i] = true;
+            mask |= group.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * 직전 수집 이후 쌓인 delta를 수집 주기(tick) 1회분으로 환산한다.
+     * 예: disk 주기 5000ms, tick 1000ms, 실제 경과 5200ms → delta * 1000 / 5200
+     * due()가 기록한 실제 경과 시간으로 나누므로, 허용 오차(tick/2) 안에서 일찍 수집하거나 밀린 tick 뒤에 수집해도 비율이 맞는다.
+     * tick 주기와 같은 그룹과 처음 수집한 그룹은 그대로 반환한다.
+     */
+    public long perTick(MetricGroup group, long delta) {
+        int i = group.ordinal();
+        long elapsed = elapsedNanos[i];
+        if (intervalNanos[i] <= tickNanos || elapsed <= 0) {
+            return delta;
+        }
+        return Math.round(delta * ((double) tickNanos / elapsed));
+    }
+
+    //그룹별 주기(ms) 요약 (시작 로그용)
+    public String describe() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (MetricGroup group : MetricGroup.values()) {
+            joiner.add(group.key() + "=" + TimeUnit.NANOSECONDS.toMillis(intervalNanos[group.ordinal()]) + "ms");
+        }
+        return joiner.toString();
+    }
+
+    //설정 값으로 그룹별 주기 Map 생성
+    public static Map<MetricGroup, Long> intervals(long cpuMs, long memoryMs, long networkMs,
+                                                   long diskIoMs, long temperatureMs, long capacityMs) {
+        Map<MetricGroup, Long> intervals = new EnumMap<>(MetricGroup.class);
+        intervals.put(MetricGroup.CPU, cpuMs);
+        intervals.put(MetricGroup.MEMORY, memoryMs);
+        intervals.put(MetricGroup.NETWORK, networkMs);
+        intervals.put(MetricGroup.DISK_IO, diskIoMs);
+        intervals.put(MetricGroup.TEMPERATURE, temperatureMs);
+        intervals.put(MetricGroup.CAPACITY, capacityMs);
+        return intervals;
+    }
+}
@@ -0,0 +1,74 @@
+package kr.cs.interdata.datacollector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * WatchedTextFile은 작은 텍스트 파일(호스트 이름, 호스트 ID 등)의 내용을 캐시하고, 파일이 실제로 바뀌었을 때만 다시 읽는다.
+ *
+ * - read()는 매번 파일 속성(mtime, 크기)만 확인하고, 직전과 같으면 캐시한 값을 그대로 반환한다.
+ * - 파일이 없어지거나 읽기에 실패해도 마지막으로 읽은 값을 유지한다. (일시적인 오류로 값이 바뀌지 않도록)
+ * - 스레드 안전하지 않다. 수집 스레드 하나에서만 호출한다.
+ */
+public class WatchedTextFile {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchedTextFile.class);
+
+    private final Path path;
+
+    private String value;
+    private FileTime lastModified;
+    private long lastSize = -1;
+
+    public WatchedTextFile(String path) {
+        this(Paths.get(path));
+    }
+
+    public WatchedTextFile(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return 앞뒤 공백을 제거한 파일 내용, 한 번도 읽지 못했으면 null
+     */
+    public String read() {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return value;
+        } catch (IOException e) {
+            logger.debug("file stat failed: {} ({})", path, e.toString());
+            return value;
+        }
+
+        if (value != null && attrs.lastModifiedTime().equals(lastModified) && attrs.size() == lastSize) {
+            return value;
+        }
+        try {
+            String content = Files.readString(path).trim();
+            if (value != null && !value.equals(content)) {
+                logger.info("file changed: {}", path);
+            }
+            value = content;
+            lastModified = attrs.lastModifiedTime();
+            lastSize = attrs.size();
+        } catch (IOException e) {
+            // 다음 read()에서 다시 시도하고, 그 동안은 마지막 값 유지
+            logger.warn("file read failed, keeping last value: {} ({})", path, e.toString());
+        }
+        return value;
+    }
+}
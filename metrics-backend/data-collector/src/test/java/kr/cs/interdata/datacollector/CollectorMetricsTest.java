@@ -0,0 +1,58 @@
+package kr.cs.interdata.datacollector;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CollectorMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CollectorMetrics metrics = new CollectorMetrics(registry);
+
+    @Test
+    void reportsFilesystemCapacityAndHostTotal() {
+        metrics.recordFilesystems(reading(List.of(
+                new HostReading.FilesystemSample("/", "/dev/sda1", "ext4", 100, 40),
+                new HostReading.FilesystemSample("/data", "/dev/sdb1", "xfs", 500, 300))));
+
+        assertEquals(100, filesystemGauge("host.filesystem.size", "/"));
+        assertEquals(40, filesystemGauge("host.filesystem.free", "/"));
+        assertEquals(500, filesystemGauge("host.filesystem.size", "/data"));
+        assertEquals(600, registry.get("host.disk.total").gauge().value());
+        assertEquals(340, registry.get("host.disk.free").gauge().value());
+    }
+
+    @Test
+    void removesUnmountedFilesystems() {
+        metrics.recordFilesystems(reading(List.of(
+                new HostReading.FilesystemSample("/", "/dev/sda1", "ext4", 100, 40),
+                new HostReading.FilesystemSample("/data", "/dev/sdb1", "xfs", 500, 300))));
+
+        metrics.recordFilesystems(reading(List.of(
+                new HostReading.FilesystemSample("/", "/dev/sda1", "ext4", 100, 30))));
+
+        assertEquals(30, filesystemGauge("host.filesystem.free", "/"));
+        assertNull(registry.find("host.filesystem.size").tag("mount", "/data").gauge());
+        assertEquals(100, registry.get("host.disk.total").gauge().value());
+    }
+
+    private double filesystemGauge(String name, String mount) {
+        return registry.get(name).tag("mount", mount).gauge().value();
+    }
+
+    //파일시스템 목록으로 합계를 채운 HostReading (capacity 그룹만 읽은 tick)
+    private static HostReading reading(List<HostReading.FilesystemSample> filesystems) {
+        long total = 0;
+        long free = 0;
+        for (HostReading.FilesystemSample fs : filesystems) {
+            total += fs.totalBytes();
+            free += fs.freeBytes();
+        }
+        return new HostReading("host-1", 0.0, 0, 0, 0, total, total - free, free, 0, 0,
+                filesystems, List.of(), List.of(), MetricGroup.CAPACITY.bit());
+    }
+}
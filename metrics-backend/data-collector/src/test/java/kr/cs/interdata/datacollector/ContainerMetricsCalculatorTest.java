@@ -0,0 +1,76 @@
+package kr.cs.interdata.datacollector;
+
+import kr.cs.interdata.metricsmodel.ContainerSample;
+import kr.cs.interdata.metricsmodel.InterfaceDelta;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContainerMetricsCalculatorTest {
+
+    private final ContainerMetricsCalculator calculator = new ContainerMetricsCalculator();
+
+    @Test
+    void computesCpuUsageAndDeltas() {
+        calculator.calculate("c1", "web", reading(1_000, 10_000, 100, Map.of("eth0", iface(10, 20))));
+
+        ContainerSample sample = calculator.calculate("c1", "web",
+                reading(1_500, 12_000, 150, Map.of("eth0", iface(40, 25))));
+
+        // (500 / 2000) * 2 cpu * 100
+        assertEquals(50.0, sample.cpuUsagePercent());
+        assertEquals(50, sample.diskReadBytesDelta());
+        assertEquals(new InterfaceDelta(30, 5), sample.networkDelta().get("eth0"));
+    }
+
+    @Test
+    void interfacesNamedLikeOtherSeriesDoNotCollide() {
+        calculator.calculate("c1", "web", reading(1_000, 10_000, 100,
+                Map.of("cpu", iface(7, 7), "disk", iface(9, 9))));
+
+        ContainerSample sample = calculator.calculate("c1", "web", reading(1_500, 12_000, 150,
+                Map.of("cpu", iface(8, 8), "disk", iface(10, 10))));
+
+        assertEquals(50.0, sample.cpuUsagePercent());
+        assertEquals(50, sample.diskReadBytesDelta());
+        assertEquals(new InterfaceDelta(1, 1), sample.networkDelta().get("cpu"));
+        assertEquals(new InterfaceDelta(1, 1), sample.networkDelta().get("disk"));
+    }
+
+    @Test
+    void counterResetDoesNotSpikeCpuUsage() {
+        calculator.calculate("c1", "web", reading(9_000_000, 10_000, 100, Map.of()));
+
+        // 컨테이너 재시작으로 누적 CPU 시간이 다시 시작
+        ContainerSample restarted = calculator.calculate("c1", "web", reading(1_900, 12_000, 0, Map.of()));
+        assertEquals(0.0, restarted.cpuUsagePercent());
+        assertEquals(0, restarted.diskReadBytesDelta());
+
+        ContainerSample next = calculator.calculate("c1", "web", reading(2_400, 14_000, 10, Map.of()));
+        assertEquals(50.0, next.cpuUsagePercent());
+        assertEquals(10, next.diskReadBytesDelta());
+    }
+
+    @Test
+    void releasesSeriesOfRemovedInterfaces() {
+        calculator.calculate("c1", "web", reading(1_000, 10_000, 100,
+                Map.of("eth0", iface(1, 1), "eth1", iface(1, 1))));
+        int withBoth = calculator.getCounters().size();
+
+        calculator.calculate("c1", "web", reading(1_500, 12_000, 150, Map.of("eth0", iface(2, 2))));
+
+        assertEquals(withBoth - 2, calculator.getCounters().size());
+    }
+
+    //CPU 2개, 디스크 쓰기는 읽기와 같은 값
+    private static ContainerReading reading(long cpuNanos, long systemNanos, long diskBytes,
+                                            Map<String, ContainerReading.InterfaceReading> network) {
+        return new ContainerReading(cpuNanos, systemNanos, 2, 64L << 20, diskBytes, diskBytes, network, System.nanoTime());
+    }
+
+    private static ContainerReading.InterfaceReading iface(long rx, long tx) {
+        return new ContainerReading.InterfaceReading(rx, tx);
+    }
+}
@@ -0,0 +1,133 @@
+package kr.cs.interdata.datacollector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CounterDeltaTrackerTest {
+
+    private static final long MAX_UINT32 = 0xFFFFFFFFL;
+
+    private final CounterDeltaTracker tracker = new CounterDeltaTracker();
+
+    @Test
+    void firstSamplePrimesSeries() {
+        assertEquals(0, tracker.delta("c1", "disk", 0, 1_000));
+        assertEquals(500, tracker.delta("c1", "disk", 0, 1_500));
+        assertEquals(0, tracker.delta("c1", "disk", 0, 1_500));
+    }
+
+    @Test
+    void seriesAreIndependent() {
+        int read = tracker.seriesId("c1", "disk", 0);
+        int write = tracker.seriesId("c1", "disk", 1);
+        int other = tracker.seriesId("c2", "disk", 0);
+        assertNotEquals(read, write);
+        assertNotEquals(read, other);
+        assertEquals(read, tracker.seriesId("c1", "disk", 0));
+
+        tracker.delta(read, 100);
+        tracker.delta(write, 1_000);
+        tracker.delta(other, 10);
+
+        assertEquals(50, tracker.delta(read, 150));
+        assertEquals(24, tracker.delta(write, 1_024));
+        assertEquals(5, tracker.delta(other, 15));
+        assertEquals(3, tracker.size());
+    }
+
+    @Test
+    void decreaseIsTreatedAsReset() {
+        tracker.delta("c1", "eth0", 0, 5_000_000);
+
+        // 컨테이너 재시작: 카운터가 다시 시작한 샘플은 건너뛰고 새 기준값으로 사용
+        assertEquals(0, tracker.delta("c1", "eth0", 0, 300));
+        assertEquals(1, tracker.getResetCount());
+        assertEquals(0, tracker.getWrapCount());
+        assertEquals(100, tracker.delta("c1", "eth0", 0, 400));
+    }
+
+    @Test
+    void thirtyTwoBitWrapIsCounted() {
+        tracker.delta("host", "eth0", 0, MAX_UINT32 - 99);
+
+        // 2^32 - 100 → 2^32 → 0 → 50 : 100 + 50 바이트
+        assertEquals(150, tracker.delta("host", "eth0", 0, 50));
+        assertEquals(1, tracker.getWrapCount());
+        assertEquals(0, tracker.getResetCount());
+    }
+
+    @Test
+    void dropFarFromWrapBoundaryIsReset() {
+        // 32bit 범위 밖에서 떨어지거나, 떨어진 값이 0 근처가 아니면 wrap이 아니라 reset
+        tracker.delta("host", "eth0", 0, MAX_UINT32 + 1_000);
+        assertEquals(0, tracker.delta("host", "eth0", 0, 10));
+
+        tracker.delta("host", "eth1", 0, MAX_UINT32 - 10);
+        assertEquals(0, tracker.delta("host", "eth1", 0, MAX_UINT32 / 2));
+
+        assertEquals(0, tracker.getWrapCount());
+        assertEquals(2, tracker.getResetCount());
+    }
+
+    @Test
+    void negativeValueUnprimesSeries() {
+        tracker.delta("c1", "disk", 0, 100);
+
+        // 값을 읽지 못한 tick은 0이고, 다음 값은 다시 기준값이 됨
+        assertEquals(0, tracker.delta("c1", "disk", 0, -1));
+        assertEquals(0, tracker.delta("c1", "disk", 0, 400));
+        assertEquals(50, tracker.delta("c1", "disk", 0, 450));
+        assertEquals(0, tracker.getResetCount());
+    }
+
+    @Test
+    void retainGroupsReleasesAndReusesSlots() {
+        tracker.delta("c1", "disk", 0, 100);
+        tracker.delta("c2", "disk", 0, 100);
+        int released = tracker.seriesId("c2", "disk", 0);
+
+        tracker.retainGroups(List.of("c1"));
+        assertEquals(1, tracker.size());
+
+        // 정리된 슬롯을 다시 쓰더라도 새 시리즈는 직전 값 없이 시작
+        int reused = tracker.seriesId("c3", "disk", 0);
+        assertEquals(released, reused);
+        assertEquals(0, tracker.delta(reused, 5_000));
+        assertEquals(2, tracker.size());
+    }
+
+    @Test
+    void removeUntouchedSeriesReleasesOnlyMissingSeriesWithPrefix() {
+        tracker.delta("c1", "cpu", 0, 1);
+        tracker.delta("c1", "net/eth0", 0, 1);
+        tracker.delta("c1", "net/eth1", 0, 1);
+        tracker.removeUntouchedSeries("c1", "net/");
+        assertEquals(3, tracker.size());
+
+        // eth1이 사라진 tick (cpu는 prefix가 달라 조회하지 않아도 남음)
+        tracker.delta("c1", "net/eth0", 0, 2);
+        tracker.removeUntouchedSeries("c1", "net/");
+
+        assertEquals(2, tracker.size());
+        assertEquals(1, tracker.delta("c1", "cpu", 0, 2));
+        assertEquals(0, tracker.delta("c1", "net/eth1", 0, 10));
+    }
+
+    @Test
+    void removeUntouchedGroupsKeepsGroupsSeenSinceLastCall() {
+        tracker.delta("eth0", "net", 0, 1);
+        tracker.delta("eth1", "net", 0, 1);
+        tracker.removeUntouchedGroups();
+        assertEquals(2, tracker.size());
+
+        tracker.delta("eth0", "net", 0, 2);
+        tracker.removeUntouchedGroups();
+
+        assertEquals(1, tracker.size());
+        assertEquals(0, tracker.delta("eth1", "net", 0, 10));
+    }
+}
@@ -0,0 +1,202 @@
+package kr.cs.interdata.datacollector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiskSpoolTest {
+
+    // topic "t", key "k", format "f", value 10B → 본문 34B + 길이 4B
+    private static final int RECORD_SIZE = 38;
+    private static final int HEADER_SIZE = 64;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendPeekCommitInOrder() throws IOException {
+        try (DiskSpool spool = new DiskSpool(dir.resolve("spool.dat"), 1024)) {
+            assertTrue(spool.isEmpty());
+            assertNull(spool.peek());
+
+            assertTrue(spool.append("metrics", "host-1", "json", bytes("first")));
+            assertTrue(spool.append("metrics", null, "binary-v1", bytes("second")));
+            assertEquals(2, spool.getDepth());
+
+            DiskSpool.Entry first = spool.peek();
+            assertEquals("metrics", first.topic());
+            assertEquals("host-1", first.key());
+            assertEquals("json", first.format());
+            assertArrayEquals(bytes("first"), first.value());
+
+            // commit 전에는 같은 레코드가 계속 보임
+            assertEquals(first.offset(), spool.peek().offset());
+            spool.commit(first);
+
+            DiskSpool.Entry second = spool.peek();
+            assertNull(second.key());
+            assertEquals("binary-v1", second.format());
+            assertArrayEquals(bytes("second"), second.value());
+            spool.commit(second);
+
+            assertTrue(spool.isEmpty());
+            assertEquals(0, spool.getDepthBytes());
+            assertNull(spool.peek());
+        }
+    }
+
+    @Test
+    void commitOfStaleEntryIsIgnored() throws IOException {
+        try (DiskSpool spool = new DiskSpool(dir.resolve("spool.dat"), 1024)) {
+            spool.append("t", "k", "f", value(1));
+            spool.append("t", "k", "f", value(2));
+            DiskSpool.Entry first = spool.peek();
+            spool.commit(first);
+
+            // 이미 commit한 레코드를 다시 commit해도 다음 레코드는 남아 있음
+            spool.commit(first);
+
+            assertEquals(1, spool.getDepth());
+            assertArrayEquals(value(2), spool.peek().value());
+        }
+    }
+
+    @Test
+    void commitOfDroppedEntryDoesNotRemoveCompactedRecord() throws IOException {
+        try (DiskSpool spool = new DiskSpool(dir.resolve("spool.dat"), RECORD_SIZE * 3)) {
+            spool.append("t", "k", "f", value(1));
+            spool.append("t", "k", "f", value(2));
+            spool.append("t", "k", "f", value(3));
+            DiskSpool.Entry first = spool.peek();
+
+            // 가득 찬 상태에서 추가 → 1번을 버리고 compact로 2번이 1번 자리로 옮겨짐 (같은 ms여도 번호가 다름)
+            spool.append("t", "k", "f", value(4));
+            assertEquals(first.offset(), spool.peek().offset());
+            spool.commit(first);
+
+            assertEquals(3, spool.getDepth());
+            assertEquals(1, spool.getDroppedCount());
+            assertArrayEquals(value(2), spool.peek().value());
+        }
+    }
+
+    @Test
+    void compactsSentRecordsBeforeDropping() throws IOException {
+        try (DiskSpool spool = new DiskSpool(dir.resolve("spool.dat"), RECORD_SIZE * 3)) {
+            spool.append("t", "k", "f", value(1));
+            spool.append("t", "k", "f", value(2));
+            spool.append("t", "k", "f", value(3));
+            spool.commit(spool.peek());
+
+            // 뒤쪽 공간은 없지만 앞에서 보낸 레코드 자리를 당겨 쓰므로 버리는 레코드 없음
+            assertTrue(spool.append("t", "k", "f", value(4)));
+
+            assertEquals(0, spool.getDroppedCount());
+            assertEquals(3, spool.getDepth());
+            for (int i = 2; i <= 4; i++) {
+                DiskSpool.Entry entry = spool.peek();
+                assertArrayEquals(value(i), entry.value());
+                spool.commit(entry);
+            }
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    void dropsOldestWhenFull() throws IOException {
+        try (DiskSpool spool = new DiskSpool(dir.resolve("spool.dat"), RECORD_SIZE * 3)) {
+            for (int i = 1; i <= 5; i++) {
+                assertTrue(spool.append("t", "k", "f", value(i)));
+            }
+
+            assertEquals(2, spool.getDroppedCount());
+            assertEquals(3, spool.getDepth());
+            assertArrayEquals(value(3), spool.peek().value());
+        }
+    }
+
+    @Test
+    void rejectsRecordLargerThanSpool() throws IOException {
+        try (DiskSpool spool = new DiskSpool(dir.resolve("spool.dat"), RECORD_SIZE)) {
+            assertFalse(spool.append("t", "k", "f", new byte[RECORD_SIZE]));
+
+            assertEquals(1, spool.getDroppedCount());
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    void restoresRecordsAfterReopen() throws IOException {
+        Path path = dir.resolve("spool.dat");
+        try (DiskSpool spool = new DiskSpool(path, 1024)) {
+            spool.append("t", "k", "f", value(1));
+            spool.append("t", "k", "f", value(2));
+            spool.append("t", "k", "f", value(3));
+            spool.commit(spool.peek());
+        }
+
+        try (DiskSpool spool = new DiskSpool(path, 1024)) {
+            assertEquals(2, spool.getDepth());
+            DiskSpool.Entry entry = spool.peek();
+            assertEquals("t", entry.topic());
+            assertEquals("k", entry.key());
+            assertArrayEquals(value(2), entry.value());
+            spool.commit(entry);
+            assertArrayEquals(value(3), spool.peek().value());
+        }
+    }
+
+    @Test
+    void resetsWhenCapacityChanges() throws IOException {
+        Path path = dir.resolve("spool.dat");
+        try (DiskSpool spool = new DiskSpool(path, 1024)) {
+            spool.append("t", "k", "f", value(1));
+        }
+
+        try (DiskSpool spool = new DiskSpool(path, 2048)) {
+            assertTrue(spool.isEmpty());
+        }
+    }
+
+    @Test
+    void discardsCorruptedRecordsOnReopen() throws IOException {
+        Path path = dir.resolve("spool.dat");
+        try (DiskSpool spool = new DiskSpool(path, 1024)) {
+            spool.append("t", "k", "f", value(1));
+            spool.append("t", "k", "f", value(2));
+        }
+        // 첫 레코드 길이를 깨뜨림 (header의 개수/끝 위치와 맞지 않음)
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 3), HEADER_SIZE);
+        }
+
+        try (DiskSpool spool = new DiskSpool(path, 1024)) {
+            assertTrue(spool.isEmpty());
+            assertNull(spool.peek());
+            assertTrue(spool.append("t", "k", "f", value(3)));
+            assertArrayEquals(value(3), spool.peek().value());
+        }
+    }
+
+    private static byte[] value(int n) {
+        byte[] value = new byte[10];
+        value[0] = (byte) n;
+        return value;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
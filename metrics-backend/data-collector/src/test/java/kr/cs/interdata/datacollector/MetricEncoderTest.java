@@ -0,0 +1,23 @@
+package kr.cs.interdata.datacollector;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MetricEncoderTest {
+
+    @Test
+    void selectsEncoderByName() {
+        assertEquals(JsonMetricEncoder.FORMAT, MetricEncoder.forName("json").format());
+        assertEquals(BinaryMetricEncoder.FORMAT, MetricEncoder.forName("binary").format());
+        assertEquals(BinaryMetricEncoder.FORMAT, MetricEncoder.forName("BINARY-V1").format());
+    }
+
+    @Test
+    void rejectsUnknownEncoding() {
+        // 오타가 조용히 기본 형식으로 바뀌지 않아야 함
+        assertThrows(IllegalArgumentException.class, () -> MetricEncoder.forName("jsno"));
+        assertThrows(IllegalArgumentException.class, () -> MetricEncoder.forName(null));
+    }
+}
@@ -0,0 +1,198 @@
+package kr.cs.interdata.datacollector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcFileReaderTest {
+
+    private static final byte[] MEM_TOTAL = ascii("MemTotal:");
+    private static final byte[] MEM_AVAILABLE = ascii("MemAvailable:");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parsesMeminfoLines() throws IOException {
+        Path file = write("meminfo", """
+                MemTotal:       16318480 kB
+                MemFree:         1234567 kB
+                MemAvailable:    8000000 kB
+                """);
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            long total = -1;
+            long available = -1;
+            while (reader.hasMore()) {
+                if (reader.consume(MEM_TOTAL)) {
+                    total = reader.readLong();
+                } else if (reader.consume(MEM_AVAILABLE)) {
+                    available = reader.readLong();
+                }
+                reader.nextLine();
+            }
+            assertEquals(16_318_480L, total);
+            assertEquals(8_000_000L, available);
+        }
+    }
+
+    @Test
+    void readLongSkipsSuffixAndReportsMissingDigits() throws IOException {
+        Path file = write("values", "123kB  45\tabc 7\n");
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            assertEquals(123, reader.readLong());
+            assertEquals(45, reader.readLong());
+            assertEquals(-1, reader.readLong());
+            assertFalse(reader.isEndOfLine());
+            assertEquals(7, reader.readLong());
+            assertTrue(reader.isEndOfLine());
+        }
+    }
+
+    @Test
+    void readLongReportsOverflowAsMissing() throws IOException {
+        // long 범위를 넘는 u64 값은 잘못 감싼 값 대신 -1
+        Path file = write("values", "9223372036854775807 9223372036854775808 18446744073709551615 5\n");
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            assertEquals(Long.MAX_VALUE, reader.readLong());
+            assertEquals(-1, reader.readLong());
+            assertEquals(-1, reader.readLong());
+            assertEquals(5, reader.readLong());
+        }
+    }
+
+    @Test
+    void consumeTokenIgnoreCaseMatchesWholeToken() throws IOException {
+        Path file = write("blkio", "read 1\nREADS 2\nWrite 3\n");
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            assertTrue(reader.consumeTokenIgnoreCase(ascii("Read")));
+            assertEquals(1, reader.readLong());
+            reader.nextLine();
+            assertFalse(reader.consumeTokenIgnoreCase(ascii("Read")));
+            reader.nextLine();
+            assertTrue(reader.consumeTokenIgnoreCase(ascii("write")));
+            assertEquals(3, reader.readLong());
+        }
+    }
+
+    @Test
+    void parsesNetDevLine() throws IOException {
+        Path file = write("dev", """
+                Inter-|   Receive                            |  Transmit
+                 face |bytes    packets errs drop fifo frame compressed multicast|bytes    packets
+                  eth0: 1000 10 0 0 0 0 0 0 2000 20
+                """);
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            reader.nextLine();
+            reader.nextLine();
+
+            String iface = reader.readToken((byte) ':', null);
+            assertTrue(reader.skipPast((byte) ':'));
+            long rx = reader.readLong();
+            reader.skipTokens(7);
+            long tx = reader.readLong();
+
+            assertEquals("eth0", iface);
+            assertEquals(1000, rx);
+            assertEquals(2000, tx);
+        }
+    }
+
+    @Test
+    void startsWithDoesNotMoveCursor() throws IOException {
+        Path file = write("stat", "cpu  10 20 30\ncpu0 1 2 3\n");
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            assertTrue(reader.startsWith(ascii("cpu ")));
+            assertTrue(reader.startsWith(ascii("cpu")));
+            assertFalse(reader.consume(ascii("cpu0")));
+            assertTrue(reader.consume(ascii("cpu")));
+            assertEquals(10, reader.readLong());
+            reader.nextLine();
+            assertFalse(reader.startsWith(ascii("cpu ")));
+            assertFalse(reader.startsWith(ascii("cpu0 1 2 3 and more")));
+        }
+    }
+
+    @Test
+    void readTokenReusesPreviousStringWhenUnchanged() throws IOException {
+        Path file = write("dev", "eth0 eth1\n");
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            String first = reader.readToken((byte) 0, null);
+
+            assertTrue(reader.load());
+            assertSame(first, reader.readToken((byte) 0, first));
+            String second = reader.readToken((byte) 0, first);
+            assertEquals("eth1", second);
+        }
+    }
+
+    @Test
+    void reloadsChangedContentAndGrowsBuffer() throws IOException {
+        Path file = write("stat", "1 2 3\n");
+
+        try (ProcFileReader reader = new ProcFileReader(file)) {
+            assertTrue(reader.load());
+            long hash = reader.contentHash();
+            assertTrue(reader.load());
+            assertEquals(hash, reader.contentHash());
+
+            // 초기 버퍼(4KB)보다 큰 내용으로 바뀌어도 끝까지 읽음
+            StringBuilder large = new StringBuilder();
+            for (int i = 0; i < 2000; i++) {
+                large.append(i).append('\n');
+            }
+            Files.writeString(file, large);
+
+            assertTrue(reader.load());
+            assertNotEquals(hash, reader.contentHash());
+            long last = -1;
+            int lines = 0;
+            while (reader.hasMore()) {
+                last = reader.readLong();
+                reader.nextLine();
+                lines++;
+            }
+            assertEquals(2000, lines);
+            assertEquals(1999, last);
+        }
+    }
+
+    @Test
+    void loadReturnsFalseForMissingFile() {
+        try (ProcFileReader reader = new ProcFileReader(dir.resolve("missing"))) {
+            assertFalse(reader.load());
+            assertFalse(reader.hasMore());
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(dir.resolve(name), content);
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
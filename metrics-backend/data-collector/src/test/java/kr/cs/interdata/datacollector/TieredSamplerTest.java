@@ -0,0 +1,61 @@
+package kr.cs.interdata.datacollector;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredSamplerTest {
+
+    private static final long TICK_MS = 1000;
+
+    private final TieredSampler sampler = new TieredSampler(TICK_MS,
+            TieredSampler.intervals(TICK_MS, TICK_MS, TICK_MS, 5000, 60000, 60000));
+
+    @Test
+    void allGroupsAreDueOnFirstTick() {
+        int mask = sampler.due(0);
+
+        for (MetricGroup group : MetricGroup.values()) {
+            assertTrue((mask & group.bit()) != 0, group.key());
+        }
+    }
+
+    @Test
+    void slowGroupIsDueWithinHalfTickTolerance() {
+        sampler.due(0);
+
+        assertEquals(0, sampler.due(ms(4000)) & MetricGroup.DISK_IO.bit());
+        // 4600ms: 5000ms 주기에서 tick/2 이내로 이른 tick
+        assertTrue((sampler.due(ms(4600)) & MetricGroup.DISK_IO.bit()) != 0);
+    }
+
+    @Test
+    void perTickScalesByActualElapsedTime() {
+        sampler.due(0);
+        // 첫 수집은 기준값이므로 그대로
+        assertEquals(700, sampler.perTick(MetricGroup.DISK_IO, 700));
+
+        // 일찍 수집 (4600ms 동안 4600 바이트 → tick당 1000)
+        sampler.due(ms(4600));
+        assertEquals(1000, sampler.perTick(MetricGroup.DISK_IO, 4600));
+
+        // overrun으로 밀린 뒤 수집 (7000ms 동안 7000 바이트 → tick당 1000)
+        sampler.due(ms(11600));
+        assertEquals(1000, sampler.perTick(MetricGroup.DISK_IO, 7000));
+    }
+
+    @Test
+    void perTickKeepsTickRateGroupsUnchanged() {
+        sampler.due(0);
+        sampler.due(ms(2000));
+
+        assertEquals(1234, sampler.perTick(MetricGroup.NETWORK, 1234));
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
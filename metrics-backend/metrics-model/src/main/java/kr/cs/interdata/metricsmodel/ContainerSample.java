@@ -0,0 +1,52 @@
+package kr.cs.interdata.metricsmodel;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 컨테이너 1개의 메트릭
+ *
+ * @param name                컨테이너 이름
+ * @param cpuUsagePercent     CPU 사용률(%)
+ * @param memoryUsedBytes     사용 중인 메모리(바이트)
+ * @param diskReadBytesDelta  직전 tick 대비 디스크 읽기 바이트
+ * @param diskWriteBytesDelta 직전 tick 대비 디스크 쓰기 바이트
+ * @param networkDelta        인터페이스별 송수신 delta
+ * @param stale               이번 tick에 새 값을 읽지 못해 직전 값을 다시 보낸 경우 true (false면 JSON에서 생략)
+ * @param window              window 집계 모드에서 지표 키 -> window 통계 (집계하지 않으면 null)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ContainerSample(
+        String name,
+        double cpuUsagePercent,
+        long memoryUsedBytes,
+        long diskReadBytesDelta,
+        long diskWriteBytesDelta,
+        Map<String, InterfaceDelta> networkDelta,
+        // 대부분의 컨테이너는 false이므로 레코드마다 "stale":false를 싣지 않음 (없으면 false로 읽음)
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean stale,
+        Map<String, WindowStats> window
+) {
+
+    // 보조 생성자가 여러 개이므로 JSON 역직렬화는 전체 컴포넌트 생성자를 쓰도록 지정
+    @JsonCreator
+    public ContainerSample {
+        networkDelta = networkDelta != null ? Collections.unmodifiableMap(networkDelta) : Map.of();
+        window = window != null ? Collections.unmodifiableMap(window) : null;
+    }
+
+    //window 통계 없는 컨테이너 메트릭
+    public ContainerSample(String name, double cpuUsagePercent, long memoryUsedBytes, long diskReadBytesDelta,
+                           long diskWriteBytesDelta, Map<String, InterfaceDelta> networkDelta, boolean stale) {
+        this(name, cpuUsagePercent, memoryUsedBytes, diskReadBytesDelta, diskWriteBytesDelta, networkDelta, stale, null);
+    }
+
+    //stale 표시한 복사본 반환
+    public ContainerSample asStale() {
+        return stale ? this : new ContainerSample(name, cpuUsagePercent, memoryUsedBytes,
+                diskReadBytesDelta, diskWriteBytesDelta, networkDelta, true, window);
+    }
+}
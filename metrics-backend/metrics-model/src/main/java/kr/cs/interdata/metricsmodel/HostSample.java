@@ -0,0 +1,102 @@
+package kr.cs.interdata.metricsmodel;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * HostSample은 collector가 1회 수집(tick)마다 Kafka로 보내는 메트릭 레코드 1건이다.
+ * 컴포넌트 이름이 곧 JSON 필드 이름(MetricFields)이므로, 이름을 바꾸면 모든 모듈의 JSON/binary 형식이 함께 바뀐다.
+ *
+ * 호스트 지표는 그룹별 수집 주기가 달라서, 이번 tick에 수집하지 않은 그룹의 필드는 null이고 JSON에서 빠진다.
+ * (api-backend가 호스트별 마지막 값으로 채워 합친다)
+ *
+ * @param type                "host"(호스트 + 컨테이너) 또는 "containers"(컨테이너만, 호스트 지표는 모두 null)
+ * @param hostId              호스트 고유 ID
+ * @param name                호스트 이름
+ * @param timeStamp           수집 시각 (yyyy-MM-dd'T'HH:mm:ss)
+ * @param cpuUsagePercent     CPU 사용률(%) (cpu 그룹)
+ * @param memoryUsedBytes     사용 중인 메모리(바이트) (memory 그룹)
+ * @param diskReadBytesDelta  수집 주기당 디스크 읽기 바이트 (disk 그룹)
+ * @param diskWriteBytesDelta 수집 주기당 디스크 쓰기 바이트 (disk 그룹)
+ * @param networkDelta        인터페이스별 송수신 delta (network 그룹)
+ * @param temperatures        센서 이름 -> °C (temperature 그룹)
+ * @param containers          컨테이너 ID -> 컨테이너 메트릭
+ * @param window              window 집계 모드에서 지표 키 -> window 통계 (집계하지 않으면 null)
+ * @param edgeEvaluated       collector가 이미 임계값을 평가하고 위반을 alert 토픽으로 보냈으면 true (평가하지 않았으면 null)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record HostSample(
+        String type,
+        String hostId,
+        String name,
+        String timeStamp,
+        Double cpuUsagePercent,
+        Long memoryUsedBytes,
+        Long diskReadBytesDelta,
+        Long diskWriteBytesDelta,
+        Map<String, InterfaceDelta> networkDelta,
+        Map<String, Double> temperatures,
+        Map<String, ContainerSample> containers,
+        Map<String, WindowStats> window,
+        Boolean edgeEvaluated
+) {
+
+    // 보조 생성자가 여러 개이므로 JSON 역직렬화는 전체 컴포넌트 생성자를 쓰도록 지정
+    @JsonCreator
+    public HostSample {
+        networkDelta = networkDelta != null ? Collections.unmodifiableMap(networkDelta) : null;
+        temperatures = temperatures != null ? Collections.unmodifiableMap(temperatures) : null;
+        containers = containers != null ? Collections.unmodifiableMap(containers) : Map.of();
+        window = window != null ? Collections.unmodifiableMap(window) : null;
+    }
+
+    //collector 임계값 평가 표시 없는 레코드
+    public HostSample(String type, String hostId, String name, String timeStamp,
+                      Double cpuUsagePercent, Long memoryUsedBytes, Long diskReadBytesDelta, Long diskWriteBytesDelta,
+                      Map<String, InterfaceDelta> networkDelta, Map<String, Double> temperatures,
+                      Map<String, ContainerSample> containers, Map<String, WindowStats> window) {
+        this(type, hostId, name, timeStamp, cpuUsagePercent, memoryUsedBytes, diskReadBytesDelta, diskWriteBytesDelta,
+                networkDelta, temperatures, containers, window, null);
+    }
+
+    //window 통계 없는 레코드
+    public HostSample(String type, String hostId, String name, String timeStamp,
+                      Double cpuUsagePercent, Long memoryUsedBytes, Long diskReadBytesDelta, Long diskWriteBytesDelta,
+                      Map<String, InterfaceDelta> networkDelta, Map<String, Double> temperatures,
+                      Map<String, ContainerSample> containers) {
+        this(type, hostId, name, timeStamp, cpuUsagePercent, memoryUsedBytes, diskReadBytesDelta, diskWriteBytesDelta,
+                networkDelta, temperatures, containers, null);
+    }
+
+    //값이 있는 호스트 지표 그룹의 bit mask (MetricFields.GROUP_*, binary 형식의 groups 바이트)
+    public int groupMask() {
+        int mask = 0;
+        if (cpuUsagePercent != null) mask |= MetricFields.GROUP_CPU;
+        if (memoryUsedBytes != null) mask |= MetricFields.GROUP_MEMORY;
+        if (networkDelta != null) mask |= MetricFields.GROUP_NETWORK;
+        if (diskReadBytesDelta != null && diskWriteBytesDelta != null) mask |= MetricFields.GROUP_DISK;
+        if (temperatures != null) mask |= MetricFields.GROUP_TEMPERATURE;
+        return mask;
+    }
+
+    //컨테이너 목록만 바꾼 새 레코드 반환
+    public HostSample withContainers(Map<String, ContainerSample> containers) {
+        return new HostSample(type, hostId, name, timeStamp, cpuUsagePercent, memoryUsedBytes,
+                diskReadBytesDelta, diskWriteBytesDelta, networkDelta, temperatures, containers, window, edgeEvaluated);
+    }
+
+    //collector에서 임계값을 평가했다고 표시한 새 레코드 반환
+    public HostSample withEdgeEvaluated() {
+        return new HostSample(type, hostId, name, timeStamp, cpuUsagePercent, memoryUsedBytes,
+                diskReadBytesDelta, diskWriteBytesDelta, networkDelta, temperatures, containers, window, true);
+    }
+
+    //같은 호스트/시각의 컨테이너 전용 레코드 반환 (호스트 지표는 비움)
+    public HostSample containersOnly(Map<String, ContainerSample> containers) {
+        return new HostSample(MetricFields.TYPE_CONTAINERS, hostId, name, timeStamp, null, null, null, null,
+                null, null, containers);
+    }
+}
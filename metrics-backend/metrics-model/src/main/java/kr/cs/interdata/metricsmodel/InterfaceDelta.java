@@ -0,0 +1,10 @@
+package kr.cs.interdata.metricsmodel;
+
+/**
+ * 네트워크 인터페이스 1개의 직전 tick 대비 송수신 바이트
+ *
+ * @param rxBytesDelta 수신 바이트 delta
+ * @param txBytesDelta 송신 바이트 delta
+ */
+public record InterfaceDelta(long rxBytesDelta, long txBytesDelta) {
+}
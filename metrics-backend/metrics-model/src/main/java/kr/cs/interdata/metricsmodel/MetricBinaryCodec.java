@@ -0,0 +1,378 @@
+package kr.cs.interdata.metricsmodel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static kr.cs.interdata.metricsmodel.MetricFields.GROUP_CPU;
+import static kr.cs.interdata.metricsmodel.MetricFields.GROUP_DISK;
+import static kr.cs.interdata.metricsmodel.MetricFields.GROUP_MEMORY;
+import static kr.cs.interdata.metricsmodel.MetricFields.GROUP_NETWORK;
+import static kr.cs.interdata.metricsmodel.MetricFields.GROUP_TEMPERATURE;
+
+/**
+ * HostSample을 스키마 기반 바이너리 형식으로 인코딩/디코딩한다. (형식 이름 "binary-v1", 스키마 변경은 헤더의 version 바이트로 구분)
+ * JSON과 달리 필드 이름을 싣지 않고 정해진 순서대로 값만 쓰므로, 컨테이너가 많을수록 메시지가 크게 줄어든다.
+ * collector(인코딩)와 consumer(디코딩)가 이 클래스 하나를 같이 쓰므로 스키마가 어긋나지 않는다.
+ *
+ * ┌──────────────────────────── binary 스키마 ────────────────────────────┐
+ *  header      : magic(1B, 0x4D 'M') version(1B, 0x01) kind(1B, 0 = host, 1 = containers) record flags(1B)
+ *  record flags: bit0 = collector에서 임계값 평가 완료 (edgeEvaluated)
+ *  kind=host   : groups(1B) host containers
+ *  kind=containers : hostId(str) name(str) timeStamp(str) containers   (호스트 지표 없이 컨테이너만)
+ *  groups      : 이 레코드에 실린 호스트 지표 그룹 (MetricFields.GROUP_*)
+ *                bit0 = cpu, bit1 = memory, bit2 = network, bit3 = disk, bit4 = temperature
+ *  host        : hostId(str) name(str) timeStamp(str)
+ *                [cpuUsagePercent(f64)]                                  bit0
+ *                [memoryUsedBytes(varlong)]                              bit1
+ *                [diskReadBytesDelta(zigzag) diskWriteBytesDelta(zigzag)] bit3
+ *                [networkDelta(ifaces)]                                  bit2
+ *                [temperatures(count(varint) + [label(str) value(f64)]*)] bit4
+ *                (bit이 꺼진 그룹의 필드는 쓰지 않음)
+ *                window(stats)
+ *  containers  : count(varint) + [containerId(str) container]*
+ *  container   : name(str) cpuUsagePercent(f64) memoryUsedBytes(varlong)
+ *                diskReadBytesDelta(zigzag) diskWriteBytesDelta(zigzag) networkDelta(ifaces) flags(1B)
+ *                [window(stats)]                                          flags bit1
+ *  flags       : bit0 = stale, bit1 = window 통계 있음
+ *  ifaces      : count(varint) + [iface(str) rxBytesDelta(zigzag) txBytesDelta(zigzag)]*
+ *  stats       : count(varint) + [key(str) min(f64) max(f64) mean(f64) last(f64) samples(varint)]*   (window 집계를 안 하면 count = 0)
+ *
+ *  str     = 길이(varint) + UTF-8 바이트
+ *  varint  = LEB128 부호 없는 가변 길이 정수 (7bit씩, 상위 비트 = 다음 바이트 존재)
+ *  zigzag  = 음수가 될 수 있는 delta 값, (n << 1) ^ (n >> 63) 후 varint
+ *  f64     = IEEE 754 double, big-endian 8바이트
+ * └─────────────────────────────────────────────────────────────────────────┘
+ *
+ * 필드를 추가/변경할 때는 VERSION을 올리고, 배포된 collector가 보낸 이전 버전도 디코더가 계속 읽을 수 있게 둔다.
+ * 인코딩은 인스턴스의 내부 버퍼를 재사용하므로 스레드 안전하지 않다. 디코딩(decode)은 메시지마다 새 상태를 쓰므로 스레드 안전하다.
+ */
+public final class MetricBinaryCodec {
+
+    public static final String FORMAT = "binary-v1";
+    public static final byte MAGIC = 0x4D;
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_STALE = 1;
+    private static final int FLAG_WINDOW = 1 << 1;
+    private static final int RECORD_FLAG_EDGE_EVALUATED = 1;
+    private static final int KIND_HOST = 0;
+    private static final int KIND_CONTAINERS = 1;
+
+    private byte[] buf = new byte[4096];
+    private int pos;
+
+    /**
+     * HostSample을 현재 버전(VERSION)의 binary-v1 메시지로 인코딩한다.
+     *
+     * @param sample 인코딩할 레코드
+     * @return       Kafka 메시지 값
+     */
+    public byte[] encode(HostSample sample) {
+        pos = 0;
+        writeByte(MAGIC);
+        writeByte(VERSION);
+        boolean containersOnly = MetricFields.TYPE_CONTAINERS.equals(sample.type());
+        writeByte(containersOnly ? KIND_CONTAINERS : KIND_HOST);
+        writeByte(Boolean.TRUE.equals(sample.edgeEvaluated()) ? RECORD_FLAG_EDGE_EVALUATED : 0);
+
+        if (containersOnly) {
+            writeString(sample.hostId());
+            writeString(sample.name());
+            writeString(sample.timeStamp());
+            writeContainers(sample.containers());
+            return Arrays.copyOf(buf, pos);
+        }
+
+        // host (이번 tick에 수집한 그룹만)
+        int groups = sample.groupMask();
+        writeByte(groups);
+        writeString(sample.hostId());
+        writeString(sample.name());
+        writeString(sample.timeStamp());
+        if ((groups & GROUP_CPU) != 0) {
+            writeDouble(sample.cpuUsagePercent());
+        }
+        if ((groups & GROUP_MEMORY) != 0) {
+            writeVarLong(sample.memoryUsedBytes());
+        }
+        if ((groups & GROUP_DISK) != 0) {
+            writeZigZag(sample.diskReadBytesDelta());
+            writeZigZag(sample.diskWriteBytesDelta());
+        }
+        if ((groups & GROUP_NETWORK) != 0) {
+            writeInterfaces(sample.networkDelta());
+        }
+        if ((groups & GROUP_TEMPERATURE) != 0) {
+            writeVarLong(sample.temperatures().size());
+            for (Map.Entry<String, Double> e : sample.temperatures().entrySet()) {
+                writeString(e.getKey());
+                writeDouble(e.getValue() != null ? e.getValue() : 0.0);
+            }
+        }
+        writeWindow(sample.window());
+
+        // containers
+        writeContainers(sample.containers());
+
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /**
+     * binary-v1 메시지를 HostSample로 디코딩한다.
+     * 메시지에 없는 호스트 지표 그룹의 필드는 null, edgeEvaluated bit이 꺼져 있으면 edgeEvaluated는 null이다.
+     *
+     * @param message Kafka 메시지 값
+     * @return        디코딩한 레코드
+     * @throws IllegalArgumentException magic/version이 맞지 않거나 메시지가 잘린 경우
+     */
+    public static HostSample decode(byte[] message) {
+        return new Reader(message).readSample();
+    }
+
+    private void writeContainers(Map<String, ContainerSample> containers) {
+        writeVarLong(containers.size());
+        for (Map.Entry<String, ContainerSample> e : containers.entrySet()) {
+            ContainerSample c = e.getValue();
+            writeString(e.getKey());
+            writeString(c.name());
+            writeDouble(c.cpuUsagePercent());
+            writeVarLong(c.memoryUsedBytes());
+            writeZigZag(c.diskReadBytesDelta());
+            writeZigZag(c.diskWriteBytesDelta());
+            writeInterfaces(c.networkDelta());
+            writeByte((c.stale() ? FLAG_STALE : 0) | (c.window() != null ? FLAG_WINDOW : 0));
+            if (c.window() != null) {
+                writeWindow(c.window());
+            }
+        }
+    }
+
+    private void writeWindow(Map<String, WindowStats> window) {
+        if (window == null) {
+            writeVarLong(0);
+            return;
+        }
+        writeVarLong(window.size());
+        for (Map.Entry<String, WindowStats> e : window.entrySet()) {
+            WindowStats stats = e.getValue();
+            writeString(e.getKey());
+            writeDouble(stats.min());
+            writeDouble(stats.max());
+            writeDouble(stats.mean());
+            writeDouble(stats.last());
+            writeVarLong(stats.count());
+        }
+    }
+
+    private void writeInterfaces(Map<String, InterfaceDelta> ifaces) {
+        writeVarLong(ifaces.size());
+        for (Map.Entry<String, InterfaceDelta> e : ifaces.entrySet()) {
+            writeString(e.getKey());
+            writeZigZag(e.getValue().rxBytesDelta());
+            writeZigZag(e.getValue().txBytesDelta());
+        }
+    }
+
+    // ---------- primitive writers ----------
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+        }
+    }
+
+    private void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    private void writeVarLong(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private void writeZigZag(long v) {
+        writeVarLong((v << 1) ^ (v >> 63));
+    }
+
+    private void writeDouble(double d) {
+        long bits = Double.doubleToRawLongBits(d);
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buf[pos++] = (byte) (bits >>> shift);
+        }
+    }
+
+    private void writeString(String s) {
+        if (s == null) s = "";
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    // 메시지 1건을 읽는 동안의 위치 상태
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+
+        private Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private HostSample readSample() {
+            if (buf.length < 2 || buf[0] != MAGIC) {
+                throw new IllegalArgumentException("binary-v1 magic 불일치");
+            }
+            if (buf[1] != VERSION) {
+                throw new IllegalArgumentException("지원하지 않는 binary 버전: " + buf[1]);
+            }
+            pos = 2;
+
+            try {
+                int kind = buf[pos++];
+                if (kind != KIND_HOST && kind != KIND_CONTAINERS) {
+                    throw new IllegalArgumentException("알 수 없는 binary 레코드 종류: " + kind);
+                }
+                int recordFlags = buf[pos++];
+                int groups = kind != KIND_CONTAINERS ? buf[pos++] : 0;
+                String hostId = readString();
+                String name = readString();
+                String timeStamp = readString();
+                // JSON의 "edgeEvaluated": true와 같음 (false는 JSON에서도 생략)
+                Boolean edgeEvaluated = (recordFlags & RECORD_FLAG_EDGE_EVALUATED) != 0 ? Boolean.TRUE : null;
+
+                if (kind == KIND_CONTAINERS) {
+                    // 컨테이너 전용 레코드: 호스트 지표 없이 바로 컨테이너 목록
+                    return new HostSample(MetricFields.TYPE_CONTAINERS, hostId, name, timeStamp,
+                            null, null, null, null, null, null, readContainers(), null, edgeEvaluated);
+                }
+
+                Double cpu = (groups & GROUP_CPU) != 0 ? readDouble() : null;
+                Long memory = (groups & GROUP_MEMORY) != 0 ? readVarLong() : null;
+                Long diskRead = null;
+                Long diskWrite = null;
+                if ((groups & GROUP_DISK) != 0) {
+                    diskRead = readZigZag();
+                    diskWrite = readZigZag();
+                }
+                Map<String, InterfaceDelta> network = (groups & GROUP_NETWORK) != 0 ? readInterfaces() : null;
+                Map<String, Double> temperatures = null;
+                if ((groups & GROUP_TEMPERATURE) != 0) {
+                    int tempCount = readCount();
+                    temperatures = new LinkedHashMap<>(mapCapacity(tempCount));
+                    for (int i = 0; i < tempCount; i++) {
+                        String label = readString();
+                        temperatures.put(label, readDouble());
+                    }
+                }
+                Map<String, WindowStats> window = readWindow();
+
+                return new HostSample(MetricFields.TYPE_HOST, hostId, name, timeStamp, cpu, memory, diskRead, diskWrite,
+                        network, temperatures, readContainers(), window, edgeEvaluated);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("binary 메시지가 잘렸습니다 (pos=" + pos + ")", e);
+            }
+        }
+
+        private Map<String, ContainerSample> readContainers() {
+            int containerCount = readCount();
+            Map<String, ContainerSample> containers = new LinkedHashMap<>(mapCapacity(containerCount));
+            for (int i = 0; i < containerCount; i++) {
+                String containerId = readString();
+                String name = readString();
+                double cpu = readDouble();
+                long memory = readVarLong();
+                long diskRead = readZigZag();
+                long diskWrite = readZigZag();
+                Map<String, InterfaceDelta> network = readInterfaces();
+                int flags = buf[pos++];
+                Map<String, WindowStats> window = (flags & FLAG_WINDOW) != 0 ? readWindow() : null;
+                containers.put(containerId, new ContainerSample(name, cpu, memory, diskRead, diskWrite, network,
+                        (flags & FLAG_STALE) != 0, window));
+            }
+            return containers;
+        }
+
+        // window 통계 (개수가 0이면 null = window 집계를 하지 않은 레코드)
+        private Map<String, WindowStats> readWindow() {
+            int count = readCount();
+            if (count == 0) {
+                return null;
+            }
+            Map<String, WindowStats> window = new LinkedHashMap<>(mapCapacity(count));
+            for (int i = 0; i < count; i++) {
+                String key = readString();
+                window.put(key, new WindowStats(readDouble(), readDouble(), readDouble(), readDouble(),
+                        (int) readVarLong()));
+            }
+            return window;
+        }
+
+        private Map<String, InterfaceDelta> readInterfaces() {
+            int count = readCount();
+            Map<String, InterfaceDelta> ifaces = new LinkedHashMap<>(mapCapacity(count));
+            for (int i = 0; i < count; i++) {
+                String iface = readString();
+                ifaces.put(iface, new InterfaceDelta(readZigZag(), readZigZag()));
+            }
+            return ifaces;
+        }
+
+        // ---------- primitive readers ----------
+
+        private int readCount() {
+            long n = readVarLong();
+            // 남은 바이트보다 큰 개수는 손상된 메시지
+            if (n < 0 || n > buf.length - pos) {
+                throw new IllegalArgumentException("잘못된 개수: " + n);
+            }
+            return (int) n;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buf[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("varint가 너무 깁니다");
+        }
+
+        private long readZigZag() {
+            long v = readVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        private double readDouble() {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | (buf[pos++] & 0xFF);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        private String readString() {
+            int len = readCount();
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        // 개수만큼 넣어도 rehash하지 않는 HashMap 초기 용량
+        private static int mapCapacity(int size) {
+            return size < 3 ? size + 1 : (int) (size / 0.75f) + 1;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package kr.cs.interdata.metricsmodel;
+
+/**
+ * MetricFields는 메트릭 payload의 JSON 필드 이름과 코드 값을 한곳에 모은 상수 모음이다.
+ * collector(인코딩), consumer(검증), api-backend(JsonNode 처리)가 모두 이 상수를 쓰므로 필드 이름이 모듈마다 달라지지 않는다.
+ * 필드 이름은 HostSample/ContainerSample의 컴포넌트 이름과 같아야 한다.
+ */
+public final class MetricFields {
+
+    // ---------- type 값 ----------
+
+    // 호스트 지표를 담은 레코드 (combined 모드에서는 컨테이너도 함께)
+    public static final String TYPE_HOST = "host";
+    // 컨테이너 지표만 담은 레코드 (split 모드)
+    public static final String TYPE_CONTAINERS = "containers";
+
+    // ---------- Kafka 헤더 ----------
+
+    // collector가 메시지 인코딩 형식(MetricJsonCodec.FORMAT, MetricBinaryCodec.FORMAT)을 싣는 헤더 이름
+    public static final String FORMAT_HEADER = "metric-format";
+
+    // ---------- 호스트 레코드 ----------
+
+    public static final String TYPE = "type";
+    public static final String HOST_ID = "hostId";
+    public static final String NAME = "name";
+    public static final String TIME_STAMP = "timeStamp";
+    public static final String CPU_USAGE_PERCENT = "cpuUsagePercent";
+    public static final String MEMORY_USED_BYTES = "memoryUsedBytes";
+    public static final String DISK_READ_BYTES_DELTA = "diskReadBytesDelta";
+    public static final String DISK_WRITE_BYTES_DELTA = "diskWriteBytesDelta";
+    public static final String NETWORK_DELTA = "networkDelta";
+    public static final String TEMPERATURES = "temperatures";
+    public static final String CONTAINERS = "containers";
+    public static final String WINDOW = "window";
+    public static final String EDGE_EVALUATED = "edgeEvaluated";
+
+    // ---------- 컨테이너 / 인터페이스 ----------
+
+    public static final String STALE = "stale";
+    public static final String RX_BYTES_DELTA = "rxBytesDelta";
+    public static final String TX_BYTES_DELTA = "txBytesDelta";
+
+    // ---------- window 통계 ----------
+
+    public static final String MIN = "min";
+    public static final String MAX = "max";
+    public static final String MEAN = "mean";
+    public static final String LAST = "last";
+    public static final String COUNT = "count";
+
+    // ---------- 호스트 지표 그룹 bit (collector의 MetricGroup 순서, binary 형식의 groups 바이트) ----------
+
+    public static final int GROUP_CPU = 1;
+    public static final int GROUP_MEMORY = 1 << 1;
+    public static final int GROUP_NETWORK = 1 << 2;
+    public static final int GROUP_DISK = 1 << 3;
+    public static final int GROUP_TEMPERATURE = 1 << 4;
+    // payload에 실리는 모든 그룹
+    public static final int GROUP_ALL = GROUP_CPU | GROUP_MEMORY | GROUP_NETWORK | GROUP_DISK | GROUP_TEMPERATURE;
+
+    private MetricFields() {
+    }
+}
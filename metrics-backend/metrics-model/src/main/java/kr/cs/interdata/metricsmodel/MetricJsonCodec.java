@@ -0,0 +1,64 @@
+package kr.cs.interdata.metricsmodel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+
+/**
+ * HostSample과 JSON 사이의 변환을 모은 코덱이다.
+ *
+ * - encode/decode : compact JSON(UTF-8) <-> HostSample (Jackson, reader/writer는 미리 만들어 재사용)
+ *   모르는 필드는 무시하므로, 새 필드를 먼저 보내는 collector와도 호환된다.
+ * 모든 메서드는 스레드 안전하다.
+ */
+public final class MetricJsonCodec {
+
+    public static final String FORMAT = "json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final ObjectReader READER = MAPPER.readerFor(HostSample.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(HostSample.class);
+
+    private MetricJsonCodec() {
+    }
+
+    //HostSample -> compact JSON (UTF-8)
+    public static byte[] encode(HostSample sample) {
+        try {
+            return WRITER.writeValueAsBytes(sample);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메트릭 JSON 직렬화 실패", e);
+        }
+    }
+
+    /**
+     * JSON 메시지를 HostSample로 디코딩한다.
+     *
+     * @throws IllegalArgumentException JSON이 아니거나 필드 타입이 맞지 않는 경우
+     */
+    public static HostSample decode(byte[] json) {
+        try {
+            return READER.readValue(json);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("메트릭 JSON 디코딩 실패", e);
+        }
+    }
+
+    /**
+     * JSON 문자열을 HostSample로 디코딩한다.
+     *
+     * @throws IllegalArgumentException JSON이 아니거나 필드 타입이 맞지 않는 경우
+     */
+    public static HostSample decode(String json) {
+        try {
+            return READER.readValue(json);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("메트릭 JSON 디코딩 실패", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package kr.cs.interdata.metricsmodel;
+
+/**
+ * window 1개 동안 모은 샘플의 통계
+ * 지표 키는 필드 이름(예: "cpuUsagePercent"), 인터페이스는 "networkDelta/인터페이스 키/rxBytesDelta" 형식이다.
+ *
+ * @param min   최솟값
+ * @param max   최댓값
+ * @param mean  평균
+ * @param last  window의 마지막 샘플
+ * @param count 샘플 수
+ */
+public record WindowStats(double min, double max, double mean, double last, int count) {
+}
@@ -0,0 +1,116 @@
+package kr.cs.interdata.metricsmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricBinaryCodecTest {
+
+    private final MetricBinaryCodec codec = new MetricBinaryCodec();
+
+    @Test
+    void roundTripsFullHostSample() {
+        HostSample sample = fullHostSample().withEdgeEvaluated();
+
+        HostSample decoded = MetricBinaryCodec.decode(codec.encode(sample));
+
+        assertEquals(sample, decoded);
+        assertEquals(Boolean.TRUE, decoded.edgeEvaluated());
+    }
+
+    @Test
+    void roundTripsOnlyCollectedGroups() {
+        // cpu, memory 그룹만 수집한 tick
+        HostSample sample = new HostSample(MetricFields.TYPE_HOST, "host-1", "node-a", "2025-01-01T00:00:00",
+                12.5, 1024L, null, null, null, null, Map.of());
+
+        HostSample decoded = MetricBinaryCodec.decode(codec.encode(sample));
+
+        assertEquals(sample, decoded);
+        assertEquals(MetricFields.GROUP_CPU | MetricFields.GROUP_MEMORY, decoded.groupMask());
+        assertNull(decoded.diskReadBytesDelta());
+        assertNull(decoded.networkDelta());
+        assertNull(decoded.temperatures());
+        assertNull(decoded.window());
+        assertNull(decoded.edgeEvaluated());
+    }
+
+    @Test
+    void roundTripsContainersOnlySample() {
+        HostSample sample = fullHostSample().containersOnly(Map.of("c1", container("web", false)));
+
+        HostSample decoded = MetricBinaryCodec.decode(codec.encode(sample));
+
+        assertEquals(sample, decoded);
+        assertEquals(MetricFields.TYPE_CONTAINERS, decoded.type());
+        assertEquals(0, decoded.groupMask());
+    }
+
+    @Test
+    void reusesEncoderBufferAcrossMessages() {
+        HostSample large = fullHostSample();
+        HostSample small = large.containersOnly(Map.of());
+
+        byte[] first = codec.encode(large);
+        byte[] second = codec.encode(small);
+
+        assertEquals(large, MetricBinaryCodec.decode(first));
+        assertEquals(small, MetricBinaryCodec.decode(second));
+        assertTrue(second.length < first.length);
+    }
+
+    @Test
+    void rejectsBadMagic() {
+        byte[] message = codec.encode(fullHostSample());
+        message[0] = 'X';
+
+        assertThrows(IllegalArgumentException.class, () -> MetricBinaryCodec.decode(message));
+    }
+
+    @Test
+    void rejectsUnsupportedVersion() {
+        byte[] message = codec.encode(fullHostSample());
+        message[1] = MetricBinaryCodec.VERSION + 1;
+
+        assertThrows(IllegalArgumentException.class, () -> MetricBinaryCodec.decode(message));
+    }
+
+    @Test
+    void rejectsTruncatedMessage() {
+        byte[] message = codec.encode(fullHostSample());
+
+        // 어느 위치에서 잘려도 IllegalArgumentException (ArrayIndexOutOfBounds가 새어 나가지 않음)
+        for (int length = 0; length < message.length; length++) {
+            byte[] truncated = Arrays.copyOf(message, length);
+            assertThrows(IllegalArgumentException.class, () -> MetricBinaryCodec.decode(truncated),
+                    "length " + length);
+        }
+    }
+
+    private static HostSample fullHostSample() {
+        Map<String, InterfaceDelta> network = new LinkedHashMap<>();
+        network.put("eth0", new InterfaceDelta(1500, 900));
+        network.put("eth1", new InterfaceDelta(0, -1));
+        Map<String, Double> temperatures = new LinkedHashMap<>();
+        temperatures.put("coretemp/Package id 0", 48.0);
+        Map<String, ContainerSample> containers = new LinkedHashMap<>();
+        containers.put("c1", container("web", false));
+        containers.put("c2", new ContainerSample("db", 3.25, 256L << 20, 0, 8192, Map.of(), true,
+                Map.of("cpuUsagePercent", new WindowStats(1.0, 5.5, 3.25, 2.0, 4))));
+        return new HostSample(MetricFields.TYPE_HOST, "host-1", "node-a", "2025-01-01T00:00:00",
+                37.5, 8L << 30, 4096L, 123_456_789L, network, temperatures, containers,
+                Map.of("cpuUsagePercent", new WindowStats(10.0, 60.0, 37.5, 40.0, 5)));
+    }
+
+    private static ContainerSample container(String name, boolean stale) {
+        return new ContainerSample(name, 0.75, 64L << 20, 512, 1024,
+                Map.of("eth0", new InterfaceDelta(300, 200)), stale);
+    }
+}
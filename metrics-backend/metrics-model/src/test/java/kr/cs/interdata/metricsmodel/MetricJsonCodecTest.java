@@ -0,0 +1,50 @@
+package kr.cs.interdata.metricsmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricJsonCodecTest {
+
+    @Test
+    void omitsStaleFlagUnlessSet() {
+        HostSample sample = hostWith(Map.of(
+                "c1", new ContainerSample("web", 1.5, 1024, 0, 0, Map.of(), false),
+                "c2", new ContainerSample("db", 2.5, 2048, 0, 0, Map.of(), true)));
+
+        String json = new String(MetricJsonCodec.encode(sample), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"stale\":true"), json);
+        assertFalse(json.contains("\"stale\":false"), json);
+        assertEquals(sample, MetricJsonCodec.decode(json));
+    }
+
+    @Test
+    void omitsUncollectedGroups() {
+        HostSample sample = hostWith(Map.of());
+
+        String json = new String(MetricJsonCodec.encode(sample), StandardCharsets.UTF_8);
+
+        assertFalse(json.contains(MetricFields.DISK_READ_BYTES_DELTA), json);
+        assertFalse(json.contains(MetricFields.WINDOW), json);
+        assertFalse(json.contains(MetricFields.EDGE_EVALUATED), json);
+        assertEquals(sample, MetricJsonCodec.decode(json));
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertThrows(IllegalArgumentException.class, () -> MetricJsonCodec.decode("{\"type\":"));
+        assertThrows(IllegalArgumentException.class, () -> MetricJsonCodec.decode("{\"cpuUsagePercent\":\"high\"}"));
+    }
+
+    private static HostSample hostWith(Map<String, ContainerSample> containers) {
+        return new HostSample(MetricFields.TYPE_HOST, "host-1", "node-a", "2025-01-01T00:00:00",
+                12.5, 1024L, null, null, null, null, containers);
+    }
+}
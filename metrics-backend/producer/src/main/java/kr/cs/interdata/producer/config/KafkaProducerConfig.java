@@ -1,5 +1,6 @@
 package kr.cs.interdata.producer.config;
 
+import kr.cs.interdata.producer.routing.MetricTopicRouter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -20,6 +21,38 @@ public class KafkaProducerConfig {
     @Value("${BOOTSTRAP_SERVER}")
     private String bootstrapServers;
 
+    // 배치 전송 전 대기 시간(ms). 레코드마다 flush하지 않으므로 이 시간 동안 모인 레코드가 한 요청으로 전송됨
+    @Value("${KAFKA_PRODUCER_LINGER_MS:20}")
+    private int lingerMs;
+
+    // 파티션별 배치 최대 크기(바이트)
+    @Value("${KAFKA_PRODUCER_BATCH_SIZE:65536}")
+    private int batchSize;
+
+    // 메시지 종류별 토픽 (비우면 KAFKA_TOPIC_NAME 사용)
+    @Value("${KAFKA_TOPIC_NAME}")
+    private String defaultTopic;
+
+    @Value("${KAFKA_HOST_TOPIC_NAME:}")
+    private String hostTopic;
+
+    @Value("${KAFKA_CONTAINER_TOPIC_NAME:}")
+    private String containerTopic;
+
+    @Value("${KAFKA_INVENTORY_TOPIC_NAME:}")
+    private String inventoryTopic;
+
+    @Value("${KAFKA_ALERT_TOPIC_NAME:metric-alerts}")
+    private String alertTopic;
+
+    @Bean
+    public MetricTopicRouter metricTopicRouter() {
+        MetricTopicRouter router = new MetricTopicRouter(
+                MetricTopicRouter.topics(hostTopic, containerTopic, inventoryTopic, alertTopic), defaultTopic);
+        log.info("metric topics: {}", router.describe());
+        return router;
+    }
+
     @Bean
     public ProducerFactory<String, String> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -27,6 +60,8 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
 
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -0,0 +1,17 @@
+package kr.cs.interdata.producer.routing;
+
+/**
+ * 라우팅에 필요한 정보를 본문과 함께 담는 메시지
+ *
+ * @param type    메시지 종류 (토픽 결정)
+ * @param hostId  호스트 ID (파티션 key, 같은 호스트의 메시지는 같은 파티션에 순서대로 쌓임)
+ * @param payload 메시지 본문 (JSON, 파싱하지 않고 그대로 보냄)
+ */
+public record MetricEnvelope(MetricType type, String hostId, String payload) {
+
+    public MetricEnvelope {
+        if (type == null) {
+            throw new IllegalArgumentException("type은 null일 수 없습니다.");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package kr.cs.interdata.producer.routing;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * MetricTopicRouter는 메시지 종류(MetricType)별 토픽과 파티션 key를 정한다.
+ *
+ * - 토픽은 종류마다 따로 두어 스트림별로 파티션 수와 소비 속도를 다르게 정할 수 있다.
+ *   (설정하지 않은 종류는 기본 토픽을 사용)
+ * - 파티션 key는 hostId이며, 같은 호스트의 메시지는 종류별 토픽 안에서 순서가 유지된다.
+ * 불변 객체이므로 여러 스레드에서 공유해도 된다.
+ */
+public class MetricTopicRouter {
+
+    private final Map<MetricType, String> topics;
+
+    /**
+     * @param topics 종류 -> 토픽 이름 (빈 값인 종류는 defaultTopic)
+     * @param defaultTopic 토픽을 설정하지 않은 종류가 사용할 토픽
+     */
+    public MetricTopicRouter(Map<MetricType, String> topics, String defaultTopic) {
+        Map<MetricType, String> resolved = new EnumMap<>(MetricType.class);
+        for (MetricType type : MetricType.values()) {
+            String topic = topics.get(type);
+            resolved.put(type, topic != null && !topic.isBlank() ? topic : defaultTopic);
+        }
+        this.topics = resolved;
+    }
+
+    //종류별 토픽 이름
+    public String topicFor(MetricType type) {
+        return topics.get(type);
+    }
+
+    //파티션 key (hostId가 없으면 null → 프로듀서가 파티션을 정함)
+    public static String partitionKey(String hostId) {
+        return hostId != null && !hostId.isBlank() ? hostId : null;
+    }
+
+    //종류별 토픽 요약 (시작 로그용)
+    public String describe() {
+        StringJoiner joiner = new StringJoiner(", ");
+        topics.forEach((type, topic) -> joiner.add(type.key() + "=" + topic));
+        return joiner.toString();
+    }
+
+    //설정 값으로 종류별 토픽 Map 생성
+    public static Map<MetricType, String> topics(String hostTopic, String containerTopic,
+                                                 String inventoryTopic, String alertTopic) {
+        Map<MetricType, String> topics = new EnumMap<>(MetricType.class);
+        topics.put(MetricType.HOST, hostTopic);
+        topics.put(MetricType.CONTAINER, containerTopic);
+        topics.put(MetricType.INVENTORY, inventoryTopic);
+        topics.put(MetricType.ALERT, alertTopic);
+        return topics;
+    }
+}
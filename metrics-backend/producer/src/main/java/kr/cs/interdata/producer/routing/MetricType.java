@@ -0,0 +1,45 @@
+package kr.cs.interdata.producer.routing;
+
+/**
+ * MetricType은 Kafka로 보내는 메시지의 종류이며, 종류마다 다른 토픽으로 보낸다.
+ *
+ * 종류는 MetricEnvelope로 전달하므로 라우팅할 때 JSON 본문을 파싱하지 않는다.
+ * consumer/api-backend는 본문의 type 필드로 종류를 구분하므로 레코드에 종류 헤더는 싣지 않는다.
+ */
+public enum MetricType {
+
+    HOST("host"),               // 호스트 메트릭 (combined 모드에서는 컨테이너 포함)
+    CONTAINER("container"),     // 컨테이너 메트릭만 담은 레코드
+    INVENTORY("inventory"),     // 호스트/컨테이너 목록 등 자주 바뀌지 않는 정보
+    ALERT("alert");             // 임계값 위반 알림
+
+    private final String key;
+
+    MetricType(String key) {
+        this.key = key;
+    }
+
+    //종류 이름
+    public String key() {
+        return key;
+    }
+
+    /**
+     * 종류 이름으로 종류를 찾는다.
+     *
+     * @param value 종류 이름 (null이면 HOST)
+     * @return 메시지 종류
+     * @throws IllegalArgumentException 알 수 없는 값
+     */
+    public static MetricType fromKey(String value) {
+        if (value == null || value.isBlank()) {
+            return HOST;
+        }
+        for (MetricType type : values()) {
+            if (type.key.equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 metric type: " + value);
+    }
+}
@@ -0,0 +1,202 @@
+package kr.cs.interdata.producer.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BatchingKafkaSender는 레코드마다 flush하지 않고 Kafka 프로듀서의 batch(linger.ms, batch.size)에 맡겨 비동기로 보낸다.
+ *
+ * - send()는 레코드마다 CompletableFuture를 바로 반환하고, ack를 받으면 완료된다.
+ * - 동시에 ack를 기다리는 레코드 수는 maxInFlight로 제한한다. 가득 차면 send()가 acquireTimeoutMs까지 기다리고,
+ *   그래도 자리가 없으면 future를 TimeoutException으로 실패시킨다.
+ * - flush는 마지막 flush 이후 보낸 레코드가 flushRecords개가 되거나, flushIntervalMs가 지나거나, 종료될 때만 한다.
+ *   (flush는 별도 스레드에서 하므로 send() 호출 스레드는 막히지 않음)
+ * - 지표: producer.send.latency(send ~ ack), producer.flush.batch.size(flush 1회당 레코드 수), producer.send.in.flight
+ */
+@Component
+public class BatchingKafkaSender {
+
+    private final Logger logger = LoggerFactory.getLogger(BatchingKafkaSender.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final int maxInFlight;
+    private final int flushRecords;
+    private final long acquireTimeoutMs;
+    private final Semaphore inFlight;
+    // 마지막 flush 이후 보낸 레코드 수
+    private final AtomicInteger unflushed = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    private final Timer sendLatency;
+    private final DistributionSummary flushBatchSize;
+
+    public BatchingKafkaSender(KafkaTemplate<String, String> kafkaTemplate,
+                               ObjectProvider<MeterRegistry> meterRegistry,
+                               @Value("${KAFKA_PRODUCER_MAX_IN_FLIGHT:1000}") int maxInFlight,
+                               @Value("${KAFKA_PRODUCER_FLUSH_RECORDS:500}") int flushRecords,
+                               @Value("${KAFKA_PRODUCER_FLUSH_INTERVAL_MS:1000}") long flushIntervalMs,
+                               @Value("${KAFKA_PRODUCER_ACQUIRE_TIMEOUT_MS:5000}") long acquireTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.flushRecords = Math.max(1, flushRecords);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.inFlight = new Semaphore(this.maxInFlight);
+
+        // actuator가 없는 애플리케이션에서도 동작하도록 MeterRegistry가 없으면 내부 registry 사용
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.sendLatency = Timer.builder("producer.send.latency")
+                .description("send 호출부터 ack까지 걸린 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.flushBatchSize = DistributionSummary.builder("producer.flush.batch.size")
+                .description("flush 1회에 포함된 레코드 수")
+                .register(registry);
+        Gauge.builder("producer.send.in.flight", inFlight, s -> this.maxInFlight - s.availablePermits())
+                .description("ack를 기다리는 레코드 수")
+                .register(registry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, flushIntervalMs);
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 레코드 1건을 비동기로 보낸다.
+     *
+     * @param topic   토픽 이름
+     * @param key     레코드 key (null이면 파티션을 프로듀서가 정함)
+     * @param payload 메시지 본문
+     * @return ack를 받으면 완료되는 future (전송 실패, in-flight 대기 초과 시 예외로 완료)
+     */
+    public CompletableFuture<SendResult<String, String>> send(String topic, String key, String payload) {
+        return send(new ProducerRecord<>(topic, key, payload));
+    }
+
+    /**
+     * 헤더 등을 채운 레코드 1건을 비동기로 보낸다.
+     *
+     * @param record 보낼 레코드
+     * @return ack를 받으면 완료되는 future (전송 실패, in-flight 대기 초과 시 예외로 완료)
+     */
+    public CompletableFuture<SendResult<String, String>> send(ProducerRecord<String, String> record) {
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.failedFuture(new TimeoutException(
+                        "in-flight 레코드가 " + maxInFlight + "개를 넘어 " + acquireTimeoutMs + "ms 동안 보낼 수 없습니다."));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future;
+        try {
+            future = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            // 직렬화 실패, 메타데이터 대기 초과(max.block.ms) 등
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        // in-flight 반환과 지연 기록이 끝난 뒤에 호출 측 future가 완료되도록 whenComplete 단계를 반환
+        CompletableFuture<SendResult<String, String>> completed = future.whenComplete((result, exception) -> {
+            inFlight.release();
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (exception != null) {
+                logger.warn("Kafka 전송 실패 - topic: {}, 원인: {}", record.topic(), exception.getMessage());
+            }
+        });
+
+        // 크기 기준 flush (별도 스레드에서)
+        if (unflushed.incrementAndGet() >= flushRecords && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+        return completed;
+    }
+
+    /**
+     * 여러 레코드를 같은 토픽으로 비동기로 보낸다.
+     *
+     * @return 입력 순서와 같은 순서의 future 목록
+     */
+    public List<CompletableFuture<SendResult<String, String>>> sendAll(String topic, String key, List<String> payloads) {
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(payloads.size());
+        for (String payload : payloads) {
+            futures.add(send(topic, key, payload));
+        }
+        return futures;
+    }
+
+    //마지막 flush 이후 보낸 레코드를 모두 브로커로 밀어냄 (보낸 레코드가 없으면 아무것도 하지 않음)
+    public void flush() {
+        int records = unflushed.getAndSet(0);
+        if (records == 0) {
+            return;
+        }
+        try {
+            kafkaTemplate.flush();
+            flushBatchSize.record(records);
+        } catch (RuntimeException e) {
+            logger.warn("Kafka flush 실패: {}", e.getMessage());
+        }
+    }
+
+    //ack를 기다리는 레코드 수
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    //flush 1회당 평균 레코드 수
+    public double getAverageFlushBatchSize() {
+        return flushBatchSize.mean();
+    }
+
+    //전송 1건의 평균 지연(ms)
+    public double getAverageSendLatencyMillis() {
+        return sendLatency.mean(TimeUnit.MILLISECONDS);
+    }
+
+    //종료 시 남은 레코드를 모두 보냄
+    @PreDestroy
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
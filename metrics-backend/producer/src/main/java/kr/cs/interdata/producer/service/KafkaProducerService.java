@@ -2,32 +2,74 @@ package kr.cs.interdata.producer.service;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import kr.cs.interdata.producer.routing.MetricEnvelope;
+import kr.cs.interdata.producer.routing.MetricTopicRouter;
+import kr.cs.interdata.producer.routing.MetricType;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Service
 public class KafkaProducerService {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final BatchingKafkaSender batchingSender;
+    private final MetricTopicRouter topicRouter;
     private final Gson gson = new Gson();
     private final Logger logger = LoggerFactory.getLogger(KafkaProducerService.class);
 
-    @Value("${KAFKA_TOPIC_NAME}")
-    private String topic_name;
-
     @Autowired
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public KafkaProducerService(BatchingKafkaSender batchingSender, MetricTopicRouter topicRouter) {
+        this.batchingSender = batchingSender;
+        this.topicRouter = topicRouter;
+    }
+
+    /**
+     * - 메시지 종류에 맞는 토픽으로 메시지 1건을 비동기로 전송한다.
+     *   토픽은 envelope의 type으로, 파티션 key는 hostId로 정하며 본문(JSON)은 파싱하지 않는다.
+     *
+     * @param envelope  메시지 종류, hostId, 본문
+     * @return ack를 받으면 완료되는 future
+     */
+    public CompletableFuture<SendResult<String, String>> routeMessageBasedOnType(MetricEnvelope envelope) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                topicRouter.topicFor(envelope.type()),
+                MetricTopicRouter.partitionKey(envelope.hostId()),
+                envelope.payload());
+        return batchingSender.send(record);
+    }
+
+    /**
+     * - 종류 이름으로 토픽을 정해 메시지 1건을 비동기로 전송한다.
+     *
+     * @param type          "host" | "container" | "inventory" | "alert" (null이면 host)
+     * @param hostId        호스트 ID (파티션 key)
+     * @param jsonPayload   메시지 본문(JSON)
+     * @return ack를 받으면 완료되는 future
+     */
+    public CompletableFuture<SendResult<String, String>> routeMessageBasedOnType(String type, String hostId, String jsonPayload) {
+        return routeMessageBasedOnType(new MetricEnvelope(MetricType.fromKey(type), hostId, jsonPayload));
     }
 
-    public void routeMessageBasedOnType(String jsonPayload) {
-        kafkaTemplate.send(topic_name, jsonPayload);
-        kafkaTemplate.flush();
+    /**
+     * - 여러 메시지를 각각의 종류에 맞는 토픽으로 비동기로 전송한다.
+     *
+     * @param envelopes  메시지 목록
+     * @return 입력 순서와 같은 순서의 future 목록
+     */
+    public List<CompletableFuture<SendResult<String, String>>> routeMessages(List<MetricEnvelope> envelopes) {
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(envelopes.size());
+        for (MetricEnvelope envelope : envelopes) {
+            futures.add(routeMessageBasedOnType(envelope));
+        }
+        return futures;
     }
-}
\ No newline at end of file
+}
@@ -1,45 +1,68 @@
 package kr.cs.interdata.producer;
 
+import kr.cs.interdata.producer.routing.MetricEnvelope;
+import kr.cs.interdata.producer.routing.MetricType;
+import kr.cs.interdata.producer.service.BatchingKafkaSender;
 import kr.cs.interdata.producer.service.KafkaProducerService;
 
 import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.context.TestConfiguration;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
 import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.*;
 
 @SpringBootTest
 @ActiveProfiles("test")
-@EmbeddedKafka(partitions = 1, topics = {"monitoring.host.dev.json"})
+@EmbeddedKafka(partitions = 1, topics = {ProducerApplicationTests.TOPIC})
 @TestPropertySource(properties = {
-        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "BOOTSTRAP_SERVER=${spring.embedded.kafka.brokers}",
+        "KAFKA_TOPIC_NAME=" + ProducerApplicationTests.TOPIC,
+        "KAFKA_PRODUCER_MAX_IN_FLIGHT=2000",
+        "KAFKA_PRODUCER_FLUSH_RECORDS=1000"
 })
 class ProducerApplicationTests {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProducerApplicationTests.class);
+
+    static final String TOPIC = "monitoring.host.dev.json";
+    private static final int MESSAGES = 20_000;
+
     @Autowired
     private KafkaProducerService kafkaProducerService;
 
+    @Autowired
+    private BatchingKafkaSender batchingSender;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
     @Test
-    @DisplayName("Send mock JSON to Kafka and create topics automatically")
-    void testSendMessage() {
+    @DisplayName("Send mock JSON to Kafka in batches and measure throughput")
+    void testSendThroughput() throws Exception {
 
         // given
         String jsonPayload = """
@@ -55,8 +78,49 @@ class ProducerApplicationTests {
         """;
 
         // when
-        kafkaProducerService.routeMessageBasedOnType(jsonPayload);
+        long start = System.nanoTime();
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            futures.add(kafkaProducerService.routeMessageBasedOnType(
+                    new MetricEnvelope(MetricType.HOST, "1234-5678", jsonPayload)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+
+        double perSecond = MESSAGES / (elapsedNanos / 1e9);
+        logger.info("sent {} records in {} ms ({} records/s), avg latency {} ms, avg flush batch {}",
+                MESSAGES, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), String.format("%.0f", perSecond),
+                String.format("%.2f", batchingSender.getAverageSendLatencyMillis()),
+                String.format("%.1f", batchingSender.getAverageFlushBatchSize()));
 
         // then
+        // 모든 레코드가 ack를 받았고, in-flight 자리가 모두 반환됨
+        assertTrue(futures.stream().noneMatch(CompletableFuture::isCompletedExceptionally));
+        assertEquals(0, batchingSender.getInFlightCount());
+        // 레코드마다 flush하지 않음 (flush 1회에 여러 레코드)
+        assertTrue(batchingSender.getAverageFlushBatchSize() > 1.0);
+        // 호스트 토픽에 hostId key를 달고 모두 도착
+        assertEquals(MESSAGES, countRecords());
+    }
+
+    // 토픽의 레코드 수 (처음부터 읽음)
+    private int countRecords() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("throughput-test", "false", embeddedKafka);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 5_000);
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<String, String>(props).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, TOPIC);
+            int count = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (count < MESSAGES && System.nanoTime() < deadline) {
+                ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(5));
+                for (ConsumerRecord<String, String> record : records) {
+                    assertEquals("1234-5678", record.key());
+                }
+                count += records.count();
+            }
+            return count;
+        }
     }
-}
\ No newline at end of file
+}